@@ -1,71 +1,108 @@
 package com.amazon.synthetics.canary;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.StringWriter;
 import software.amazon.cloudformation.Action;
 import software.amazon.cloudformation.proxy.Logger;
 
+/**
+ * Writes one JSON object per log line. Fields are emitted in a fixed order straight through a
+ * shared JsonFactory, so no intermediate payload object or reflective serialization is
+ * involved. Exceptions are flattened to their type, message, top stack frames and a bounded
+ * chain of causes.
+ */
 public class ActionLogger {
+    static final int MAX_CAUSE_DEPTH = 5;
+    static final int MAX_STACK_FRAMES = 10;
+    private static final int INITIAL_BUFFER_SIZE = 256;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     private final Logger logger;
-    private final Action action;
+    private final String action;
     private final String awsAccountId;
     private final CallbackContext context;
     private final ResourceModel model;
-    private final ObjectMapper mapper = new ObjectMapper();
 
     public ActionLogger(Logger logger, Action action, String awsAccountId, CallbackContext context, ResourceModel model) {
         this.logger = logger;
-        this.action = action;
+        this.action = action == null ? null : action.name();
         this.awsAccountId = awsAccountId;
         this.context = context;
         this.model = model;
     }
 
     public void log(String message) {
-        Payload payload = new Payload(
-            action,
-            awsAccountId,
-            context.getRetryKey(),
-            context.getRemainingRetryCount(),
-            model.getName(),
-            message,
-            null);
-        try {
-            String json = mapper.writeValueAsString(payload);
-            logger.log(json);
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
-        }
+        write(message, null);
     }
 
     public void log(Exception exception) {
-        Payload payload = new Payload(
-            action,
-            awsAccountId,
-            context.getRetryKey(),
-            context.getRemainingRetryCount(),
-            model.getName(),
-            null,
-            exception);
+        write(null, exception);
+    }
+
+    private void write(String message, Throwable exception) {
         try {
-            String json = mapper.writeValueAsString(payload);
-            logger.log(json);
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
+            logger.log(toJson(message, exception));
+        } catch (IOException e) {
+            logger.log(String.format("Failed to write log line: %s", e.getMessage()));
+        }
+    }
+
+    String toJson(String message, Throwable exception) throws IOException {
+        StringWriter writer = new StringWriter(INITIAL_BUFFER_SIZE);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.writeStartObject();
+            writeStringField(generator, "action", action);
+            writeStringField(generator, "awsAccountId", awsAccountId);
+            String retryKey = context.getRetryKey();
+            writeStringField(generator, "retryKey", retryKey);
+            if (retryKey != null) {
+                generator.writeNumberField("stabilizationElapsedMillis",
+                    context.getStabilizationElapsedMillis(System.currentTimeMillis()));
+                generator.writeNumberField("stabilizationBudgetMillis", context.getStabilizationBudgetMillis());
+            }
+            writeStringField(generator, "resourceName", model.getName());
+            writeStringField(generator, "message", message);
+            if (exception != null) {
+                generator.writeFieldName("exception");
+                writeException(generator, exception, 0);
+            }
+            generator.writeEndObject();
         }
+        return writer.toString();
     }
 
-    @Data
-    @AllArgsConstructor
-    private static class Payload {
-        private final Action action;
-        private final String awsAccountId;
-        private final String retryKey;
-        private final Integer remainingRetryCount;
-        private final String resourceName;
-        private final String message;
-        private final Exception exception;
+    private static void writeException(JsonGenerator generator, Throwable exception, int depth) throws IOException {
+        generator.writeStartObject();
+        writeStringField(generator, "type", exception.getClass().getName());
+        writeStringField(generator, "message", exception.getMessage());
+
+        StackTraceElement[] stackTrace = exception.getStackTrace();
+        int frames = Math.min(stackTrace.length, MAX_STACK_FRAMES);
+        if (frames > 0) {
+            generator.writeArrayFieldStart("stackTrace");
+            for (int i = 0; i < frames; i++) {
+                generator.writeString(stackTrace[i].toString());
+            }
+            generator.writeEndArray();
+        }
+
+        Throwable cause = exception.getCause();
+        if (cause != null && cause != exception) {
+            if (depth + 1 < MAX_CAUSE_DEPTH) {
+                generator.writeFieldName("cause");
+                writeException(generator, cause, depth + 1);
+            } else {
+                generator.writeBooleanField("causeTruncated", true);
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeStringField(JsonGenerator generator, String name, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value);
+        }
     }
 }
@@ -0,0 +1,16 @@
+package com.amazon.synthetics.canary;
+
+import java.util.function.Function;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+
+/**
+ * Makes a service call with the credentials, rate limiter, attempt timeout and metrics of a
+ * handler invocation. Helpers that call services for a handler take the handler's
+ * {@link CanaryActionHandler#invoke} instead of calling the client directly.
+ */
+@FunctionalInterface
+public interface ApiInvoker {
+    <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT invoke(
+        RequestT request, Function<RequestT, ResponseT> call);
+}
@@ -1,10 +1,12 @@
 package com.amazon.synthetics.canary;
 
+import java.time.Duration;
 import java.util.Objects;
 import lombok.Builder;
 import lombok.Data;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
 
@@ -18,23 +20,38 @@ public class CallbackContext {
     private boolean canaryCreateStarted;
     private boolean canaryUpdateStarted;
     private boolean canaryDeleteStarted;
+    private boolean canaryTagsPending;
     private String retryKey;
-    private int remainingRetryCount;
+    private long stabilizationStartMillis;
+    private long stabilizationBudgetMillis;
     private CanaryState initialCanaryState;
+    private CanaryState lastObservedState;
+    private int pollAttempt;
 
+    // Contexts persisted by earlier versions still carry remainingRetryCount.
     @JsonPOJOBuilder(withPrefix = "")
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class CallbackContextBuilder {
     }
 
-    public void throwIfRetryLimitExceeded(int retryCount, String retryKey, ResourceModel model) {
+    /**
+     * Starts the clock the first time a retry key is seen and throws once the time spent
+     * waiting on that key exceeds the budget. The start time is kept in the context so the
+     * limit holds across invocations regardless of how often the handler polls.
+     */
+    public void throwIfStabilizationBudgetExceeded(Duration budget, String retryKey, long nowMillis, ResourceModel model) {
         if (!Objects.equals(this.retryKey, retryKey)) {
             this.retryKey = retryKey;
-            remainingRetryCount = retryCount;
+            stabilizationStartMillis = nowMillis;
         }
+        stabilizationBudgetMillis = budget.toMillis();
 
-        --remainingRetryCount;
-        if (remainingRetryCount == 0) {
+        if (getStabilizationElapsedMillis(nowMillis) >= stabilizationBudgetMillis) {
             throw new CfnNotStabilizedException(ResourceModel.TYPE_NAME, model.getName());
         }
     }
+
+    public long getStabilizationElapsedMillis(long nowMillis) {
+        return retryKey == null ? 0 : Math.max(nowMillis - stabilizationStartMillis, 0);
+    }
 }
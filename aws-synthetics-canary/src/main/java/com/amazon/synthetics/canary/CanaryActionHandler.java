@@ -1,9 +1,17 @@
 package com.amazon.synthetics.canary;
 
+import com.google.common.annotations.VisibleForTesting;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.lambda.LambdaClient;
 import software.amazon.awssdk.services.synthetics.SyntheticsClient;
 import software.amazon.awssdk.services.synthetics.model.Canary;
+import software.amazon.awssdk.services.synthetics.model.CanaryState;
 import software.amazon.cloudformation.Action;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
@@ -11,8 +19,33 @@ import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 public abstract class CanaryActionHandler extends BaseHandler<CallbackContext> {
+    /**
+     * How long an invocation is assumed to be allowed to run. The handler is not told its real limit:
+     * the RPDK does not pass the Lambda context on, and template.yml only configures the SAM test
+     * functions. One minute is a conservative assumption, not a measured limit, so only lower it.
+     */
+    static final long INVOCATION_TIME_LIMIT_MILLIS = 60_000;
+    private static final long PROGRESS_REPORTING_RESERVE_MILLIS = 5_000;
+    /**
+     * Polls may run until this long after the invocation started. A poll started just before then
+     * may still make a call that runs for its whole API call timeout, and the wrapper needs time to
+     * report progress afterwards, so the invocation ends within its assumed time limit.
+     */
+    static final long MAX_INLINE_POLLING_BUDGET_MILLIS = INVOCATION_TIME_LIMIT_MILLIS
+        - ClientProfile.API_CALL_TIMEOUT.toMillis()
+        - PROGRESS_REPORTING_RESERVE_MILLIS;
+    private static final long INITIAL_INLINE_POLL_INTERVAL_MILLIS = 500;
+    private static final long MAX_INLINE_POLL_INTERVAL_MILLIS = 4_000;
+    private static final int MIN_CALLBACK_DELAY_AFTER_SDK_RETRIES_SECONDS =
+        (int) TimeUnit.MILLISECONDS.toSeconds(ApiRateLimiter.MIN_BACKOFF_MILLIS);
+
     private final Action action;
+    private final PollingPolicy pollingPolicy;
     private ActionLogger logger;
+    private CanaryCache canaryCache;
+    private String rateLimitScope;
+    private final HandlerClients clients;
+    private long inlinePollingBudgetMillis = MAX_INLINE_POLLING_BUDGET_MILLIS;
 
     protected AmazonWebServicesClientProxy proxy;
     protected ResourceHandlerRequest<ResourceModel> request;
@@ -20,9 +53,24 @@ public abstract class CanaryActionHandler extends BaseHandler<CallbackContext> {
     protected ResourceModel model;
     protected SyntheticsClient syntheticsClient;
     protected LambdaClient lambdaClient;
+    protected HandlerMetrics metrics;
 
     public CanaryActionHandler(Action action) {
+        this(action, ExponentialBackoffPollingPolicy.DEFAULT);
+    }
+
+    public CanaryActionHandler(Action action, PollingPolicy pollingPolicy) {
+        this(action, pollingPolicy, HandlerClients.SHARED);
+    }
+
+    public CanaryActionHandler(Action action, HandlerClients clients) {
+        this(action, ExponentialBackoffPollingPolicy.DEFAULT, clients);
+    }
+
+    public CanaryActionHandler(Action action, PollingPolicy pollingPolicy, HandlerClients clients) {
         this.action = action;
+        this.pollingPolicy = pollingPolicy;
+        this.clients = clients;
     }
 
     @Override
@@ -35,16 +83,28 @@ public abstract class CanaryActionHandler extends BaseHandler<CallbackContext> {
         this.context = callbackContext != null ? callbackContext : CallbackContext.builder().build();
         this.model = request.getDesiredResourceState();
         this.logger = new ActionLogger(logger, action, request.getAwsAccountId(), context, model);
-        this.syntheticsClient = ClientBuilder.getSyntheticsClient();
-        this.lambdaClient = ClientBuilder.getLambdaClient();
+        this.metrics = new HandlerMetrics(action);
+        Region region = request.getRegion() != null ? Region.of(request.getRegion()) : null;
+        this.syntheticsClient = clients.getSyntheticsClient().apply(region, metrics);
+        this.lambdaClient = clients.getLambdaClient().apply(region, metrics);
+        this.canaryCache = new CanaryCache();
+        this.rateLimitScope = ApiRateLimiter.scope(request.getAwsAccountId(), request.getRegion());
 
         log("Invoking handler");
-        ProgressEvent<ResourceModel, CallbackContext> response;
+        final long invocationStartMillis = System.currentTimeMillis();
+        ProgressEvent<ResourceModel, CallbackContext> response = null;
         try {
             response = handleRequest();
+            response = pollInline(response, invocationStartMillis + inlinePollingBudgetMillis);
+        } catch (ApiRateLimiter.ThrottledException e) {
+            response = throttled(e);
         } catch (Exception e) {
             log(e);
             throw e;
+        } finally {
+            metrics.emit(logger,
+                response != null ? response.getStatus() : null,
+                response != null ? response.getCallbackDelaySeconds() : 0);
         }
         log("Handler invoked");
         return response;
@@ -52,11 +112,97 @@ public abstract class CanaryActionHandler extends BaseHandler<CallbackContext> {
 
     protected abstract ProgressEvent<ResourceModel, CallbackContext> handleRequest();
 
+    /**
+     * Hands a throttled call back to CloudFormation to be retried after the computed delay. The
+     * context is returned as it is, so handlers must not mark a step as started before the call
+     * that starts it has gone through. Read and list handlers cannot return IN_PROGRESS and fail
+     * with a throttling error instead.
+     */
+    private ProgressEvent<ResourceModel, CallbackContext> throttled(ApiRateLimiter.ThrottledException e) {
+        log(e.getMessage());
+        if (action == Action.READ || action == Action.LIST) {
+            throw new CfnThrottlingException(e);
+        }
+        return ProgressEvent.<ResourceModel, CallbackContext>builder()
+            .resourceModel(model)
+            .callbackContext(context)
+            .message(e.getMessage())
+            .status(OperationStatus.IN_PROGRESS)
+            .callbackDelaySeconds(e.getCallbackDelaySeconds())
+            .build();
+    }
+
+    /**
+     * Re-runs the handler in the same invocation while it is waiting on a state transition,
+     * for up to {@link #MAX_INLINE_POLLING_BUDGET_MILLIS} after the invocation started, instead of
+     * handing every poll back to CloudFormation. Polling starts at a sub-second
+     * interval and doubles up to a few seconds; the last IN_PROGRESS event is returned once
+     * the deadline would be exceeded. Every poll reads the canary from the service again.
+     */
+    private ProgressEvent<ResourceModel, CallbackContext> pollInline(ProgressEvent<ResourceModel, CallbackContext> response,
+                                                                   long deadlineMillis) {
+        long intervalMillis = INITIAL_INLINE_POLL_INTERVAL_MILLIS;
+        while (response.isInProgress() && System.currentTimeMillis() + intervalMillis < deadlineMillis) {
+            try {
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return response;
+            }
+            canaryCache.invalidate(model.getName());
+            response = handleRequest();
+            intervalMillis = Math.min(intervalMillis * 2, MAX_INLINE_POLL_INTERVAL_MILLIS);
+        }
+        return response;
+    }
+
+    @VisibleForTesting
+    void setInlinePollingBudgetMillis(long inlinePollingBudgetMillis) {
+        this.inlinePollingBudgetMillis = Math.min(inlinePollingBudgetMillis, MAX_INLINE_POLLING_BUDGET_MILLIS);
+    }
+
     protected Canary getCanaryOrThrow() {
-        return CanaryHelper.getCanaryOrThrow(proxy, syntheticsClient, model);
+        return observed(CanaryHelper.getCanaryOrThrow(proxy, rateLimited(syntheticsClient::getCanary), canaryCache, model.getName()));
     }
     protected Canary getCanaryOrNull() {
-        return CanaryHelper.getCanaryOrNull(proxy, syntheticsClient, model.getName());
+        return observed(CanaryHelper.getCanaryOrNull(proxy, rateLimited(syntheticsClient::getCanary), canaryCache, model.getName()));
+    }
+    /**
+     * Records the state of a canary the handler has read in the invocation's metrics.
+     */
+    private Canary observed(Canary canary) {
+        if (canary != null && canary.status() != null) {
+            metrics.setCanaryState(canary.status().state());
+        }
+        return canary;
+    }
+
+    /**
+     * Makes a call through the shared rate limiter of the request's account and region, and
+     * records it in the invocation's metrics.
+     */
+    protected <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT invoke(
+            RequestT apiRequest, Function<RequestT, ResponseT> call) {
+        return proxy.injectCredentialsAndInvokeV2(apiRequest, rateLimited(call));
+    }
+    private <RequestT extends AwsRequest, ResponseT> Function<RequestT, ResponseT> rateLimited(Function<RequestT, ResponseT> call) {
+        return clients.getRateLimiter().limit(rateLimitScope, metrics.record(ClientProfile.withAttemptTimeout(call)));
+    }
+
+    /**
+     * Makes a call that changes the canary. The cached canary is dropped whether or not the call
+     * succeeds, so the next read sees the result.
+     */
+    protected <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT mutateCanary(
+            String canaryName, RequestT mutation, Function<RequestT, ResponseT> call) {
+        try {
+            return invoke(mutation, call);
+        } finally {
+            invalidateCanary(canaryName);
+        }
+    }
+    protected void invalidateCanary(String canaryName) {
+        canaryCache.invalidate(canaryName);
     }
 
     protected void log(String message) {
@@ -66,22 +212,46 @@ public abstract class CanaryActionHandler extends BaseHandler<CallbackContext> {
         logger.log(exception);
     }
 
-    protected void throwIfRetryLimitExceeded(int retryCount, String retryKey) {
-        context.throwIfRetryLimitExceeded(retryCount, retryKey, model);
+    /**
+     * Fails the handler once it has waited on the retry key for longer than the budget allows for
+     * that state. Every retry key is named after the canary state that is being waited on.
+     */
+    protected void throwIfStabilizationBudgetExceeded(StabilizationBudget budget, String retryKey) {
+        context.throwIfStabilizationBudgetExceeded(
+            budget.get(CanaryState.fromValue(retryKey)), retryKey, System.currentTimeMillis(), model);
     }
 
-    protected ProgressEvent<ResourceModel, CallbackContext> waitingForCanaryStateTransition(String message, int retryCount, String retryKey) {
-        return waitingForCanaryStateTransition(message, message, retryCount, retryKey);
+    protected ProgressEvent<ResourceModel, CallbackContext> waitingForCanaryStateTransition(String message, StabilizationBudget budget, String retryKey) {
+        return waitingForCanaryStateTransition(message, message, budget, retryKey);
     }
-    protected ProgressEvent<ResourceModel, CallbackContext> waitingForCanaryStateTransition(String message, String log, int retryCount, String retryKey) {
-        throwIfRetryLimitExceeded(retryCount, retryKey);
+    protected ProgressEvent<ResourceModel, CallbackContext> waitingForCanaryStateTransition(String message, String log, StabilizationBudget budget, String retryKey) {
+        throwIfStabilizationBudgetExceeded(budget, retryKey);
         log(message);
         return ProgressEvent.<ResourceModel, CallbackContext>builder()
             .resourceModel(model)
             .callbackContext(context)
             .message(message)
             .status(OperationStatus.IN_PROGRESS)
-            .callbackDelaySeconds(5)
+            .callbackDelaySeconds(getCallbackDelaySeconds(CanaryState.fromValue(retryKey)))
             .build();
     }
+
+    /**
+     * Returns the delay before the next poll while the canary is in the given state. The attempt
+     * count starts over whenever the observed state changes. When the SDK had to retry a call in
+     * this invocation, the next poll waits at least as long as the handler's throttle backoff, so
+     * CloudFormation's retries do not stack on top of the SDK's.
+     */
+    protected int getCallbackDelaySeconds(CanaryState state) {
+        if (state != context.getLastObservedState()) {
+            context.setLastObservedState(state);
+            context.setPollAttempt(0);
+        }
+        int delay = pollingPolicy.getCallbackDelaySeconds(state, context.getRetryKey(), context.getPollAttempt());
+        context.setPollAttempt(context.getPollAttempt() + 1);
+        if (metrics.getSdkRetries() > 0) {
+            delay = Math.max(delay, MIN_CALLBACK_DELAY_AFTER_SDK_RETRIES_SECONDS);
+        }
+        return delay;
+    }
 }
@@ -0,0 +1,36 @@
+package com.amazon.synthetics.canary;
+
+import java.util.HashMap;
+import java.util.Map;
+import software.amazon.awssdk.services.synthetics.model.Canary;
+
+/**
+ * Remembers GetCanary results so that a handler reading the same canary more than once does not
+ * call the service again. Every invocation gets its own cache, which keeps results until they are
+ * invalidated. Results are not shared across invocations, since a handler polling for a state
+ * transition has to see the canary's current state.
+ *
+ * <p>Handlers invalidate the canary after every call that changes it, so a read that follows a
+ * Create, Update, Start, Stop or Delete always goes to the service. Canaries that were not found
+ * are never remembered.
+ */
+public class CanaryCache {
+    private final Map<String, Canary> entries = new HashMap<>();
+
+    /**
+     * Returns the remembered canary, or null if it has to be read from the service.
+     */
+    public Canary get(String canaryName) {
+        return entries.get(canaryName);
+    }
+
+    public void put(String canaryName, Canary canary) {
+        if (canary != null) {
+            entries.put(canaryName, canary);
+        }
+    }
+
+    public void invalidate(String canaryName) {
+        entries.remove(canaryName);
+    }
+}
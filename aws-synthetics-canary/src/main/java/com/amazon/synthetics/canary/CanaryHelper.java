@@ -1,6 +1,7 @@
 package com.amazon.synthetics.canary;
 
 import com.google.common.base.Strings;
+import java.util.function.Function;
 import software.amazon.awssdk.services.synthetics.SyntheticsClient;
 import software.amazon.awssdk.services.synthetics.model.ArtifactConfigOutput;
 import software.amazon.awssdk.services.synthetics.model.Canary;
@@ -72,14 +73,58 @@ public class CanaryHelper {
         }
     }
 
+    /**
+     * Same as {@link #getCanaryOrNull(AmazonWebServicesClientProxy, SyntheticsClient, String)},
+     * but serves the canary from the cache when it has been read before.
+     * @param getCanary makes the GetCanary call, e.g. a rate limited syntheticsClient::getCanary
+     */
+    public static Canary getCanaryOrNull(AmazonWebServicesClientProxy proxy,
+                                         Function<GetCanaryRequest, GetCanaryResponse> getCanary,
+                                         CanaryCache cache,
+                                         String canaryName) {
+        try {
+            return getCanary(proxy, getCanary, cache, canaryName);
+        } catch (ResourceNotFoundException e) {
+            return null;
+        }
+    }
+    public static Canary getCanaryOrThrow(AmazonWebServicesClientProxy proxy,
+                                          Function<GetCanaryRequest, GetCanaryResponse> getCanary,
+                                          CanaryCache cache,
+                                          String canaryName) {
+        try {
+            return getCanary(proxy, getCanary, cache, canaryName);
+        } catch (ResourceNotFoundException e) {
+            throw new CfnNotFoundException(ResourceModel.TYPE_NAME, canaryName, e);
+        }
+    }
+
+    private static Canary getCanary(AmazonWebServicesClientProxy proxy,
+                                    Function<GetCanaryRequest, GetCanaryResponse> getCanary,
+                                    CanaryCache cache,
+                                    String canaryName) {
+        Canary canary = cache.get(canaryName);
+        if (canary == null) {
+            canary = getCanary(proxy, getCanary, canaryName);
+            cache.put(canaryName, canary);
+        }
+        return canary;
+    }
+
     private static Canary getCanary(AmazonWebServicesClientProxy proxy,
                                     SyntheticsClient syntheticsClient,
                                     String canaryName) {
+        return getCanary(proxy, syntheticsClient::getCanary, canaryName);
+    }
+
+    private static Canary getCanary(AmazonWebServicesClientProxy proxy,
+                                    Function<GetCanaryRequest, GetCanaryResponse> getCanary,
+                                    String canaryName) {
         GetCanaryResponse response = proxy.injectCredentialsAndInvokeV2(
             GetCanaryRequest.builder()
                 .name(canaryName)
                 .build(),
-            syntheticsClient::getCanary);
+            getCanary);
         return response.canary();
     }
 }
@@ -0,0 +1,281 @@
+package com.amazon.synthetics.canary;
+
+import com.google.common.base.Strings;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.Getter;
+import software.amazon.awssdk.services.synthetics.model.ArtifactConfigInput;
+import software.amazon.awssdk.services.synthetics.model.Canary;
+import software.amazon.awssdk.services.synthetics.model.CanaryCodeInput;
+import software.amazon.awssdk.services.synthetics.model.CanaryRunConfigInput;
+import software.amazon.awssdk.services.synthetics.model.CanaryRunConfigOutput;
+import software.amazon.awssdk.services.synthetics.model.CanaryScheduleInput;
+import software.amazon.awssdk.services.synthetics.model.EncryptionMode;
+import software.amazon.awssdk.services.synthetics.model.S3EncryptionConfig;
+import software.amazon.awssdk.services.synthetics.model.UpdateCanaryRequest;
+import software.amazon.awssdk.services.synthetics.model.VisualReferenceInput;
+import software.amazon.awssdk.services.synthetics.model.VpcConfigInput;
+
+/**
+ * Field-level diff between the deployed canary and the desired model. Each sub-structure of
+ * UpdateCanaryRequest is only populated when something in it changed, and the diff is empty
+ * when UpdateCanary would not change anything.
+ *
+ * Properties that GetCanary does not return (inline code and environment variables) are
+ * compared against the previous resource state instead. Without a previous state they are
+ * treated as changed.
+ */
+@Getter
+public class CanaryUpdateDiff {
+    private static final String S3_PREFIX = "s3://";
+
+    private final List<String> changedFields = new ArrayList<>();
+    private final String runtimeVersion;
+    private CanaryCodeInput code;
+    private CanaryScheduleInput schedule;
+    private CanaryRunConfigInput runConfig;
+    private VpcConfigInput vpcConfig;
+    private String executionRoleArn;
+    private String artifactS3Location;
+    private Integer successRetentionPeriodInDays;
+    private Integer failureRetentionPeriodInDays;
+    private ArtifactConfigInput artifactConfig;
+    private VisualReferenceInput visualReference;
+    private String provisionedResourceCleanup;
+
+    private CanaryUpdateDiff(Canary canary, ResourceModel model, ResourceModel previousModel) {
+        runtimeVersion = model.getRuntimeVersion();
+        if (!Objects.equals(canary.runtimeVersion(), runtimeVersion)) {
+            changedFields.add("RuntimeVersion");
+        }
+        diffCode(canary, model, previousModel);
+        diffSchedule(canary, model);
+        diffRunConfig(canary, model, previousModel);
+        diffVpcConfig(canary, model);
+        diffScalars(canary, model);
+        diffArtifactConfig(canary, model);
+        diffVisualReference(canary, model);
+    }
+
+    public static CanaryUpdateDiff between(Canary canary, ResourceModel model, ResourceModel previousModel) {
+        return new CanaryUpdateDiff(canary, model, previousModel);
+    }
+
+    public boolean isEmpty() {
+        return changedFields.isEmpty();
+    }
+
+    /**
+     * Builds a request carrying only the changed sub-structures. The runtime version is always
+     * included so that a request with no other changes still re-provisions the canary.
+     */
+    public UpdateCanaryRequest toRequest(String canaryName) {
+        return UpdateCanaryRequest.builder()
+            .name(canaryName)
+            .runtimeVersion(runtimeVersion)
+            .code(code)
+            .schedule(schedule)
+            .runConfig(runConfig)
+            .vpcConfig(vpcConfig)
+            .executionRoleArn(executionRoleArn)
+            .artifactS3Location(artifactS3Location)
+            .successRetentionPeriodInDays(successRetentionPeriodInDays)
+            .failureRetentionPeriodInDays(failureRetentionPeriodInDays)
+            .artifactConfig(artifactConfig)
+            .visualReference(visualReference)
+            .provisionedResourceCleanup(provisionedResourceCleanup)
+            .build();
+    }
+
+    private void diffCode(Canary canary, ResourceModel model, ResourceModel previousModel) {
+        Code desired = model.getCode();
+        boolean handlerUnchanged = canary.code() != null && Objects.equals(canary.code().handler(), desired.getHandler());
+        if (handlerUnchanged && isDeployedCode(model, previousModel)) {
+            return;
+        }
+        changedFields.add("Code");
+        code = CanaryCodeInput.builder()
+            .handler(desired.getHandler())
+            .s3Bucket(desired.getS3Bucket())
+            .s3Key(desired.getS3Key())
+            .s3Version(desired.getS3ObjectVersion())
+            .zipFile(ModelHelper.hasInlineCode(desired) ? CodeBundleCache.getZipFile(model) : null)
+            .build();
+    }
+
+    private static boolean isDeployedCode(ResourceModel model, ResourceModel previousModel) {
+        if (previousModel == null || previousModel.getCode() == null) {
+            return false;
+        }
+        Code desired = model.getCode();
+        Code previous = previousModel.getCode();
+        if (ModelHelper.hasInlineCode(desired)) {
+            return Objects.equals(CodeBundleCache.digest(model), CodeBundleCache.digest(previousModel));
+        }
+        // The object behind an unversioned key may have been replaced, so S3 code only counts
+        // as unchanged when it is pinned to the same object version.
+        return desired.getS3ObjectVersion() != null
+            && Objects.equals(desired.getS3Bucket(), previous.getS3Bucket())
+            && Objects.equals(desired.getS3Key(), previous.getS3Key())
+            && Objects.equals(desired.getS3ObjectVersion(), previous.getS3ObjectVersion())
+            && Objects.equals(model.getRuntimeVersion(), previousModel.getRuntimeVersion());
+    }
+
+    private void diffSchedule(Canary canary, ResourceModel model) {
+        String expression = model.getSchedule().getExpression();
+        Long durationInSeconds = !Strings.isNullOrEmpty(model.getSchedule().getDurationInSeconds()) ?
+            Long.valueOf(model.getSchedule().getDurationInSeconds()) : null;
+        String currentExpression = canary.schedule() != null ? canary.schedule().expression() : null;
+        Long currentDurationInSeconds = canary.schedule() != null ? canary.schedule().durationInSeconds() : null;
+
+        // An unset duration means the canary runs until stopped, which the service reports as 0.
+        if (Objects.equals(expression, currentExpression)
+            && Objects.equals(valueOrZero(durationInSeconds), valueOrZero(currentDurationInSeconds))) {
+            return;
+        }
+        changedFields.add("Schedule");
+        schedule = CanaryScheduleInput.builder()
+            .expression(expression)
+            .durationInSeconds(durationInSeconds)
+            .build();
+    }
+
+    private void diffRunConfig(Canary canary, ResourceModel model, ResourceModel previousModel) {
+        RunConfig desired = model.getRunConfig();
+        if (desired == null) {
+            return;
+        }
+        CanaryRunConfigOutput current = canary.runConfig() != null ? canary.runConfig() : CanaryRunConfigOutput.builder().build();
+        RunConfig previous = previousModel != null ? previousModel.getRunConfig() : null;
+
+        Integer timeoutInSeconds = current.timeoutInSeconds();
+        Integer memoryInMB = current.memoryInMB();
+        Boolean activeTracing = current.activeTracing() != null ? current.activeTracing() : false;
+        Map<String, String> environmentVariables = desired.getEnvironmentVariables();
+        boolean changed = false;
+
+        // Removing the timeout from the template resets it to the service default.
+        boolean timeoutRemoved = desired.getTimeoutInSeconds() == null
+            && previous != null && previous.getTimeoutInSeconds() != null;
+        if ((desired.getTimeoutInSeconds() != null || timeoutRemoved)
+            && !Objects.equals(timeoutInSeconds, desired.getTimeoutInSeconds())) {
+            timeoutInSeconds = desired.getTimeoutInSeconds();
+            changed = true;
+        }
+        if (desired.getMemoryInMB() != null && !Objects.equals(memoryInMB, desired.getMemoryInMB())) {
+            memoryInMB = desired.getMemoryInMB();
+            changed = true;
+        }
+        if (desired.getActiveTracing() != null && !Objects.equals(activeTracing, desired.getActiveTracing())) {
+            activeTracing = desired.getActiveTracing();
+            changed = true;
+        }
+        // Environment variables cannot be read back from the service.
+        if (environmentVariables != null
+            && (previous == null || !Objects.equals(environmentVariables, previous.getEnvironmentVariables()))) {
+            changed = true;
+        }
+
+        if (changed) {
+            changedFields.add("RunConfig");
+            runConfig = CanaryRunConfigInput.builder()
+                .timeoutInSeconds(timeoutInSeconds)
+                .memoryInMB(memoryInMB)
+                .activeTracing(activeTracing)
+                .environmentVariables(environmentVariables)
+                .build();
+        }
+    }
+
+    private void diffVpcConfig(Canary canary, ResourceModel model) {
+        List<String> subnetIds = Collections.emptyList();
+        List<String> securityGroupIds = Collections.emptyList();
+        if (!ModelHelper.isNullOrEmpty(model.getVPCConfig())) {
+            subnetIds = model.getVPCConfig().getSubnetIds();
+            securityGroupIds = model.getVPCConfig().getSecurityGroupIds();
+        }
+        List<String> currentSubnetIds = canary.vpcConfig() != null ? canary.vpcConfig().subnetIds() : Collections.emptyList();
+        List<String> currentSecurityGroupIds = canary.vpcConfig() != null ? canary.vpcConfig().securityGroupIds() : Collections.emptyList();
+
+        if (new HashSet<>(subnetIds).equals(new HashSet<>(currentSubnetIds))
+            && new HashSet<>(securityGroupIds).equals(new HashSet<>(currentSecurityGroupIds))) {
+            return;
+        }
+        changedFields.add("VPCConfig");
+        vpcConfig = VpcConfigInput.builder()
+            .subnetIds(subnetIds)
+            .securityGroupIds(securityGroupIds)
+            .build();
+    }
+
+    private void diffScalars(Canary canary, ResourceModel model) {
+        if (model.getExecutionRoleArn() != null && !Objects.equals(canary.executionRoleArn(), model.getExecutionRoleArn())) {
+            changedFields.add("ExecutionRoleArn");
+            executionRoleArn = model.getExecutionRoleArn();
+        }
+        if (model.getArtifactS3Location() != null
+            && !Objects.equals(normalizeS3Location(canary.artifactS3Location()), normalizeS3Location(model.getArtifactS3Location()))) {
+            changedFields.add("ArtifactS3Location");
+            artifactS3Location = model.getArtifactS3Location();
+        }
+        if (model.getSuccessRetentionPeriod() != null
+            && !Objects.equals(canary.successRetentionPeriodInDays(), model.getSuccessRetentionPeriod())) {
+            changedFields.add("SuccessRetentionPeriod");
+            successRetentionPeriodInDays = model.getSuccessRetentionPeriod();
+        }
+        if (model.getFailureRetentionPeriod() != null
+            && !Objects.equals(canary.failureRetentionPeriodInDays(), model.getFailureRetentionPeriod())) {
+            changedFields.add("FailureRetentionPeriod");
+            failureRetentionPeriodInDays = model.getFailureRetentionPeriod();
+        }
+        if (ModelHelper.provisionedResourceCleanupSettingHasUpdate(canary, model)) {
+            changedFields.add("ProvisionedResourceCleanup");
+            provisionedResourceCleanup = ModelHelper.getProvisionedResourceCleanupSetting(model);
+        }
+    }
+
+    private void diffArtifactConfig(Canary canary, ResourceModel model) {
+        ArtifactConfigInput desired = ModelHelper.getArtifactConfigInput(model.getArtifactConfig());
+        S3EncryptionConfig desiredEncryption = desired.s3Encryption();
+        S3EncryptionConfig currentEncryption = CanaryHelper.isNullOrEmpty(canary.artifactConfig()) ?
+            null : canary.artifactConfig().s3Encryption();
+
+        String desiredMode = desiredEncryption.encryptionModeAsString();
+        String currentMode = currentEncryption != null ? currentEncryption.encryptionModeAsString() : null;
+        String currentKmsKeyArn = currentEncryption != null ? currentEncryption.kmsKeyArn() : null;
+        if (Objects.equals(encryptionModeOrDefault(desiredMode), encryptionModeOrDefault(currentMode))
+            && Objects.equals(desiredEncryption.kmsKeyArn(), currentKmsKeyArn)) {
+            return;
+        }
+        changedFields.add("ArtifactConfig");
+        artifactConfig = desired;
+    }
+
+    private void diffVisualReference(Canary canary, ResourceModel model) {
+        if (!ModelHelper.visualReferenceNeedsUpdate(canary.visualReference(), model.getVisualReference())) {
+            return;
+        }
+        changedFields.add("VisualReference");
+        visualReference = ModelHelper.getVisualReferenceInput(model.getVisualReference());
+    }
+
+    private static long valueOrZero(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private static String normalizeS3Location(String location) {
+        if (location == null) {
+            return null;
+        }
+        String normalized = location.startsWith(S3_PREFIX) ? location.substring(S3_PREFIX.length()) : location;
+        return normalized.endsWith("/") ? normalized.substring(0, normalized.length() - 1) : normalized;
+    }
+
+    private static String encryptionModeOrDefault(String encryptionMode) {
+        return encryptionMode != null ? encryptionMode : EncryptionMode.SSE_S3.toString();
+    }
+}
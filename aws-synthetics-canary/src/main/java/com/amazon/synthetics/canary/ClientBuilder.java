@@ -2,7 +2,9 @@ package com.amazon.synthetics.canary;
 
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.lambda.LambdaClient;
+import software.amazon.awssdk.services.lambda.LambdaClientBuilder;
 import software.amazon.awssdk.services.synthetics.SyntheticsClient;
+import software.amazon.awssdk.services.synthetics.SyntheticsClientBuilder;
 
 import java.net.URI;
 import java.time.Duration;
@@ -11,16 +13,65 @@ import software.amazon.awssdk.core.retry.RetryPolicy;
 import software.amazon.cloudformation.LambdaWrapper;
 
 public class ClientBuilder {
+    private static final ClientCache<SyntheticsClient> SYNTHETICS_CLIENTS = new ClientCache<>(ClientBuilder::buildSyntheticsClient);
+    private static final ClientCache<LambdaClient> LAMBDA_CLIENTS = new ClientCache<>(ClientBuilder::buildLambdaClient);
+
     public static SyntheticsClient getSyntheticsClient() {
-        return SyntheticsClient.builder()
-                .httpClient(LambdaWrapper.HTTP_CLIENT)
-                .build();
+        return buildSyntheticsClient(null);
     }
  
     public static LambdaClient getLambdaClient() {
-        return LambdaClient.builder()
+        return buildLambdaClient(null);
+    }
+
+    /**
+     * Returns a Synthetics client for the region that is reused across warm invocations.
+     */
+    public static SyntheticsClient getSyntheticsClient(Region region) {
+        return SYNTHETICS_CLIENTS.get(region);
+    }
+
+    /**
+     * Same as {@link #getSyntheticsClient(Region)}, and records in the invocation's metrics
+     * whether the client was already cached.
+     */
+    public static SyntheticsClient getSyntheticsClient(Region region, HandlerMetrics metrics) {
+        return SYNTHETICS_CLIENTS.get(region, metrics::recordClientCacheLookup);
+    }
+
+    /**
+     * Returns a Lambda client for the region that is reused across warm invocations.
+     */
+    public static LambdaClient getLambdaClient(Region region) {
+        return LAMBDA_CLIENTS.get(region);
+    }
+
+    /**
+     * Same as {@link #getLambdaClient(Region)}, and records in the invocation's metrics whether
+     * the client was already cached.
+     */
+    public static LambdaClient getLambdaClient(Region region, HandlerMetrics metrics) {
+        return LAMBDA_CLIENTS.get(region, metrics::recordClientCacheLookup);
+    }
+
+    private static SyntheticsClient buildSyntheticsClient(Region region) {
+        SyntheticsClientBuilder builder = SyntheticsClient.builder()
                 .httpClient(LambdaWrapper.HTTP_CLIENT)
-                .build();
+                .overrideConfiguration(ClientProfile.overrideConfiguration());
+        if (region != null) {
+            builder.region(region);
+        }
+        return builder.build();
+    }
+
+    private static LambdaClient buildLambdaClient(Region region) {
+        LambdaClientBuilder builder = LambdaClient.builder()
+                .httpClient(LambdaWrapper.HTTP_CLIENT)
+                .overrideConfiguration(ClientProfile.overrideConfiguration());
+        if (region != null) {
+            builder.region(region);
+        }
+        return builder.build();
     }
 
     /**
@@ -0,0 +1,47 @@
+package com.amazon.synthetics.canary;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import software.amazon.awssdk.core.SdkClient;
+import software.amazon.awssdk.regions.Region;
+
+/**
+ * Holds SDK clients for the lifetime of the Lambda container so that warm invocations
+ * skip credential provider setup, endpoint resolution and interceptor chain construction.
+ * Clients are keyed by region, which also determines the partition, and built at most once per
+ * region.
+ */
+public class ClientCache<T extends SdkClient> {
+    private static final String DEFAULT_KEY = "default";
+
+    private final Function<Region, T> factory;
+    private final Map<String, T> clients = new ConcurrentHashMap<>();
+
+    public ClientCache(Function<Region, T> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Returns the client for the given region, building it on first use.
+     * A null region falls back to the SDK's default region resolution.
+     */
+    public T get(Region region) {
+        return get(region, hit -> { });
+    }
+
+    /**
+     * Same as {@link #get(Region)}, and tells {@code onLookup} whether the client was already cached.
+     */
+    public T get(Region region, Consumer<Boolean> onLookup) {
+        String key = region == null ? DEFAULT_KEY : region.id();
+        T client = clients.get(key);
+        if (client != null) {
+            onLookup.accept(true);
+            return client;
+        }
+        onLookup.accept(false);
+        return clients.computeIfAbsent(key, k -> factory.apply(region));
+    }
+}
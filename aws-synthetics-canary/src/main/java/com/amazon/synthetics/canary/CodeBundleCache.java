@@ -0,0 +1,103 @@
+package com.amazon.synthetics.canary;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.utils.BinaryUtils;
+
+/**
+ * Keeps the zipped form of recently packaged inline code for the lifetime of the Lambda
+ * container. Entries are keyed by a SHA-256 digest of the script, bundle files, base64 ZIP,
+ * handler and runtime version, so any change to what ends up in the archive produces a new key.
+ * Bundle files are digested in path order, so the key does not depend on template order.
+ */
+public class CodeBundleCache {
+    static final int MAX_ENTRIES = 32;
+
+    private static final Map<String, SdkBytes> BUNDLES = new LinkedHashMap<String, SdkBytes>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SdkBytes> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+
+    /**
+     * Returns the zipped inline code for the model, packaging it only if the same code,
+     * handler and runtime version have not been packaged recently.
+     */
+    public static SdkBytes getZipFile(ResourceModel model) {
+        String digest = digest(model);
+        synchronized (BUNDLES) {
+            SdkBytes zipFile = BUNDLES.get(digest);
+            if (zipFile != null) {
+                HITS.incrementAndGet();
+                return zipFile;
+            }
+        }
+        MISSES.incrementAndGet();
+        SdkBytes zipFile = ModelHelper.packageInlineCode(model);
+        synchronized (BUNDLES) {
+            BUNDLES.put(digest, zipFile);
+        }
+        return zipFile;
+    }
+
+    /**
+     * Returns the digest identifying the model's inline code bundle, or null if the model
+     * does not carry inline code.
+     */
+    public static String digest(ResourceModel model) {
+        if (model == null || !ModelHelper.hasInlineCode(model.getCode())) {
+            return null;
+        }
+        Code code = model.getCode();
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            update(sha256, code.getScript());
+            update(sha256, code.getHandler());
+            update(sha256, model.getRuntimeVersion());
+            // The count keeps the fields that follow aligned however many files there are.
+            update(sha256, code.getFiles() == null ? null : Integer.toString(code.getFiles().size()));
+            if (code.getFiles() != null) {
+                for (Map.Entry<String, String> file : new TreeMap<>(code.getFiles()).entrySet()) {
+                    update(sha256, file.getKey());
+                    update(sha256, file.getValue());
+                }
+            }
+            update(sha256, code.getZipFile());
+            return BinaryUtils.toHex(sha256.digest());
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static long getHits() {
+        return HITS.get();
+    }
+
+    static long getMisses() {
+        return MISSES.get();
+    }
+
+    static int size() {
+        synchronized (BUNDLES) {
+            return BUNDLES.size();
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        // Separator so that ("ab", "c") and ("a", "bc") digest differently.
+        digest.update((byte) 0);
+    }
+}
@@ -8,5 +8,7 @@ class Configuration extends BaseConfiguration {
 
     public Configuration() {
         super("aws-synthetics-canary.json");
+        // The wrapper builds its configuration while the container initializes.
+        Primer.primeOnInit();
     }
 }
@@ -1,5 +1,7 @@
 package com.amazon.synthetics.canary;
 
+import java.time.Duration;
+
 import com.google.common.base.Strings;
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
 import software.amazon.awssdk.services.synthetics.model.CanaryState;
@@ -17,12 +19,15 @@ import software.amazon.cloudformation.exceptions.*;
 import software.amazon.cloudformation.proxy.*;
 
 public class CreateHandler extends CanaryActionHandler {
-    private static final int DEFAULT_CALLBACK_DELAY_SECONDS = 10;
-    private static final int MAX_RETRY_TIMES = 120;
+    private static final StabilizationBudget STABILIZATION_BUDGET = StabilizationBudget.of(Duration.ofMinutes(10));
     private static final int DEFAULT_MEMORY_IN_MB = 960;
 
     public CreateHandler() {
-        super(Action.CREATE);
+        this(HandlerClients.SHARED);
+    }
+
+    public CreateHandler(HandlerClients clients) {
+        super(Action.CREATE, clients);
     }
 
     @Override
@@ -41,7 +46,7 @@ public class CreateHandler extends CanaryActionHandler {
             return waitingForCanaryStateTransition(
                 "Creating canary",
                 "Canary is in state CREATING.",
-                MAX_RETRY_TIMES,
+                STABILIZATION_BUDGET,
                 "CREATING");
         } else if (canary.status().state() == CanaryState.ERROR) {
             log(String.format("Canary is in state ERROR. %s", canary.status().stateReason()));
@@ -65,13 +70,14 @@ public class CreateHandler extends CanaryActionHandler {
             // There is a race condition here. We will get an exception if someone calls
             // DeleteCanary, StartCanary, or UpdateCanary before we call StartCanary.
 
-            proxy.injectCredentialsAndInvokeV2(
+            mutateCanary(
+                canary.name(),
                 StartCanaryRequest.builder()
                     .name(canary.name())
                     .build(),
                 syntheticsClient::startCanary);
 
-            return waitingForCanaryStateTransition("Starting canary", MAX_RETRY_TIMES, "READY");
+            return waitingForCanaryStateTransition("Starting canary", STABILIZATION_BUDGET, "READY");
         } else {
             return ProgressEvent.defaultSuccessHandler(ModelHelper.constructModel(canary, model));
         }
@@ -85,7 +91,7 @@ public class CreateHandler extends CanaryActionHandler {
             return waitingForCanaryStateTransition(
                 "Starting canary",
                 "Canary is in state STARTING.",
-                MAX_RETRY_TIMES,
+                STABILIZATION_BUDGET,
                 "STARTING");
         } else {
             log("Canary is in STARTING state even though StartCanaryAfterCreation was false.");
@@ -99,7 +105,7 @@ public class CreateHandler extends CanaryActionHandler {
                 .s3Bucket(model.getCode().getS3Bucket())
                 .s3Key(model.getCode().getS3Key())
                 .s3Version(model.getCode().getS3ObjectVersion())
-                .zipFile(model.getCode().getScript() != null ? ModelHelper.compressRawScript(model) : null)
+                .zipFile(ModelHelper.hasInlineCode(model.getCode()) ? CodeBundleCache.getZipFile(model) : null)
                 .build();
 
         Long durationInSeconds = !Strings.isNullOrEmpty(model.getSchedule().getDurationInSeconds()) ?
@@ -152,7 +158,11 @@ public class CreateHandler extends CanaryActionHandler {
                 .provisionedResourceCleanup(ModelHelper.getProvisionedResourceCleanupSetting(model))
                 .build();
         try {
-            proxy.injectCredentialsAndInvokeV2(createCanaryRequest, syntheticsClient::createCanary);
+            mutateCanary(model.getName(), createCanaryRequest, syntheticsClient::createCanary);
+        } catch (final ApiRateLimiter.ThrottledException e) {
+            // CreateCanary was not accepted; start over when the handler is invoked again.
+            context.setCanaryCreateStarted(false);
+            throw e;
         } catch (final ValidationException e) {
             if ( e.getMessage().contains("Canary name already exists") ) {
                 throw new CfnAlreadyExistsException(ResourceModel.TYPE_NAME, e.getMessage(), e);
@@ -177,7 +187,7 @@ public class CreateHandler extends CanaryActionHandler {
                 .callbackContext(context)
                 .resourceModel(model)
                 .status(OperationStatus.IN_PROGRESS)
-                .callbackDelaySeconds(DEFAULT_CALLBACK_DELAY_SECONDS)
+                .callbackDelaySeconds(getCallbackDelaySeconds(CanaryState.CREATING))
                 .build();
     }
 }
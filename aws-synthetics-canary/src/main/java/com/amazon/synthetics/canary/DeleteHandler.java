@@ -1,5 +1,6 @@
 package com.amazon.synthetics.canary;
 
+import java.time.Duration;
 import java.util.EnumSet;
 import java.util.Set;
 
@@ -9,7 +10,10 @@ import software.amazon.cloudformation.exceptions.CfnResourceConflictException;
 import software.amazon.cloudformation.proxy.*;
 
 public class DeleteHandler extends CanaryActionHandler {
-    private static final int MAX_RETRY_TIMES = 10;
+    private static final StabilizationBudget STABILIZATION_BUDGET = StabilizationBudget.of(Duration.ofSeconds(50))
+        .with(CanaryState.UPDATING, UpdateHandler.STABILIZATION_BUDGET.get(CanaryState.UPDATING))
+        .with(CanaryState.RUNNING, StabilizationBudget.STOP_BUDGET)
+        .with(CanaryState.STOPPING, StabilizationBudget.STOP_BUDGET);
 
     private static final Set<CanaryStateReasonCode> UNSUCCESSFUL_DELETION_REASON_CODES = EnumSet.of(
         CanaryStateReasonCode.ROLLBACK_COMPLETE,
@@ -18,7 +22,11 @@ public class DeleteHandler extends CanaryActionHandler {
     );
 
     public DeleteHandler() {
-        super(Action.DELETE);
+        this(HandlerClients.SHARED);
+    }
+
+    public DeleteHandler(HandlerClients clients) {
+        super(Action.DELETE, clients);
     }
 
     @Override
@@ -39,13 +47,13 @@ public class DeleteHandler extends CanaryActionHandler {
                 .build();
         } else if (canary.status().state() == CanaryState.STARTING) {
             String message = "Canary is in state STARTING. It must finish starting before it can be stopped and deleted.";
-            return waitingForCanaryStateTransition(message, MAX_RETRY_TIMES, "STARTING");
+            return waitingForCanaryStateTransition(message, STABILIZATION_BUDGET, "STARTING");
         } else if (canary.status().state() == CanaryState.UPDATING) {
             String message = "Canary is in state UPDATING. It must finish updating before it can be deleted.";
-            return waitingForCanaryStateTransition(message, MAX_RETRY_TIMES, "UPDATING");
+            return waitingForCanaryStateTransition(message, STABILIZATION_BUDGET, "UPDATING");
         } else if (canary.status().state() == CanaryState.STOPPING) {
             String message = "Canary is in state STOPPING. It must finish stopping before it can be deleted.";
-            return waitingForCanaryStateTransition(message, MAX_RETRY_TIMES, "STOPPING");
+            return waitingForCanaryStateTransition(message, STABILIZATION_BUDGET, "STOPPING");
         } else if (canary.status().state() == CanaryState.RUNNING) {
             return handleCanaryInStateRunning(canary);
         } else if (canary.status().state() == CanaryState.DELETING) {
@@ -59,7 +67,8 @@ public class DeleteHandler extends CanaryActionHandler {
         String message = "Canary is in state RUNNING. It must be stopped before it can be deleted.";
         try {
             // Handle race condition where an external process calls StopCanary before we do.
-            proxy.injectCredentialsAndInvokeV2(
+            mutateCanary(
+                canary.name(),
                 StopCanaryRequest.builder()
                     .name(canary.name())
                     .build(),
@@ -67,14 +76,15 @@ public class DeleteHandler extends CanaryActionHandler {
         } catch (ConflictException e) {
             log("Caught ConflictException when trying to stop canary.");
         }
-        return waitingForCanaryStateTransition(message, MAX_RETRY_TIMES, "RUNNING");
+        return waitingForCanaryStateTransition(message, STABILIZATION_BUDGET, "RUNNING");
     }
 
     private ProgressEvent<ResourceModel, CallbackContext> deleteCanary(Canary canary) {
         // The canary will be deleted once DeleteCanary returns.
         log("Deleting canary.");
         try {
-            proxy.injectCredentialsAndInvokeV2(
+            mutateCanary(
+                canary.name(),
                 DeleteCanaryRequest.builder()
                     .name(canary.name())
                     .deleteLambda(model.getDeleteLambdaResourcesOnCanaryDeletion() != null ?
@@ -117,7 +127,7 @@ public class DeleteHandler extends CanaryActionHandler {
                 );
             } else {
                 String message = "Confirming that canary was deleted.";
-                return waitingForCanaryStateTransition(message, MAX_RETRY_TIMES, "DELETING");
+                return waitingForCanaryStateTransition(message, STABILIZATION_BUDGET, "DELETING");
             }
         }
     }
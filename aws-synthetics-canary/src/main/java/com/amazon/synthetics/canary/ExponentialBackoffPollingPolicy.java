@@ -0,0 +1,56 @@
+package com.amazon.synthetics.canary;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+import lombok.Value;
+import software.amazon.awssdk.services.synthetics.model.CanaryState;
+
+/**
+ * Polls quickly right after a transition starts and backs off exponentially up to a
+ * per-state cap. Each delay is reduced by up to JITTER_RATIO at random so that canaries
+ * created together do not keep polling in lockstep.
+ */
+public class ExponentialBackoffPollingPolicy implements PollingPolicy {
+    private static final double MULTIPLIER = 1.5;
+    private static final double JITTER_RATIO = 0.2;
+    private static final Backoff DEFAULT_BACKOFF = new Backoff(5, 30);
+
+    private static final Map<CanaryState, Backoff> BACKOFF_BY_STATE = new EnumMap<>(CanaryState.class);
+    static {
+        // CREATING and UPDATING provision Lambda and VPC resources and can take minutes.
+        BACKOFF_BY_STATE.put(CanaryState.CREATING, new Backoff(5, 30));
+        BACKOFF_BY_STATE.put(CanaryState.UPDATING, new Backoff(5, 30));
+        // The remaining transitions usually finish within seconds.
+        BACKOFF_BY_STATE.put(CanaryState.READY, new Backoff(2, 15));
+        BACKOFF_BY_STATE.put(CanaryState.STARTING, new Backoff(2, 15));
+        BACKOFF_BY_STATE.put(CanaryState.RUNNING, new Backoff(2, 15));
+        BACKOFF_BY_STATE.put(CanaryState.STOPPING, new Backoff(2, 15));
+        BACKOFF_BY_STATE.put(CanaryState.DELETING, new Backoff(2, 15));
+    }
+
+    public static final ExponentialBackoffPollingPolicy DEFAULT =
+        new ExponentialBackoffPollingPolicy(() -> ThreadLocalRandom.current().nextDouble());
+
+    private final DoubleSupplier random;
+
+    ExponentialBackoffPollingPolicy(DoubleSupplier random) {
+        this.random = random;
+    }
+
+    @Override
+    public int getCallbackDelaySeconds(CanaryState state, String retryKey, int attempt) {
+        Backoff backoff = state != null ? BACKOFF_BY_STATE.getOrDefault(state, DEFAULT_BACKOFF) : DEFAULT_BACKOFF;
+        double delay = Math.min(backoff.getMaxDelaySeconds(),
+            backoff.getInitialDelaySeconds() * Math.pow(MULTIPLIER, Math.max(attempt, 0)));
+        delay -= delay * JITTER_RATIO * random.getAsDouble();
+        return Math.max(1, (int) Math.round(delay));
+    }
+
+    @Value
+    private static class Backoff {
+        int initialDelaySeconds;
+        int maxDelaySeconds;
+    }
+}
@@ -0,0 +1,25 @@
+package com.amazon.synthetics.canary;
+
+import java.util.function.BiFunction;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.lambda.LambdaClient;
+import software.amazon.awssdk.services.synthetics.SyntheticsClient;
+
+/**
+ * Where a handler gets its service clients, by region, and the rate limiter its calls go
+ * through. Client lookups are recorded in the invocation's metrics. Handlers use the cached clients and the container's shared limiter unless
+ * they are constructed with something else.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class HandlerClients {
+    public static final HandlerClients SHARED = new HandlerClients(
+        ClientBuilder::getSyntheticsClient, ClientBuilder::getLambdaClient, ApiRateLimiter.SHARED);
+
+    BiFunction<Region, HandlerMetrics, SyntheticsClient> syntheticsClient;
+    BiFunction<Region, HandlerMetrics, LambdaClient> lambdaClient;
+    ApiRateLimiter rateLimiter;
+}
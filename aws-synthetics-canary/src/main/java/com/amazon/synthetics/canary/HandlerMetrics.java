@@ -0,0 +1,185 @@
+package com.amazon.synthetics.canary;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+import software.amazon.awssdk.services.synthetics.model.CanaryState;
+import software.amazon.cloudformation.Action;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.OperationStatus;
+
+/**
+ * Collects the metrics of one handler invocation and writes them as a single CloudWatch Embedded
+ * Metric Format line, so CloudWatch extracts them from the log without any call being made.
+ * Metrics are dimensioned by action and, once a canary has been read, by the last canary state
+ * that was seen.
+ *
+ * <p>Service calls are counted by the SDK: {@link #record} adds this object as the request's
+ * metric publisher, which reports every finished call, including the attempts it took.
+ */
+public class HandlerMetrics implements MetricPublisher {
+    static final String NAMESPACE = "CloudFormation/Synthetics/Canary";
+    private static final int INITIAL_BUFFER_SIZE = 512;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final String action;
+    private final LongSupplier clock;
+    private final long startMillis;
+    private final AtomicInteger syntheticsApiCalls = new AtomicInteger();
+    private final AtomicInteger lambdaApiCalls = new AtomicInteger();
+    private final AtomicInteger sdkRetries = new AtomicInteger();
+    private final AtomicInteger clientCacheHits = new AtomicInteger();
+    private final AtomicInteger clientCacheMisses = new AtomicInteger();
+    private volatile CanaryState canaryState;
+
+    public HandlerMetrics(Action action) {
+        this(action, System::currentTimeMillis);
+    }
+
+    HandlerMetrics(Action action, LongSupplier clock) {
+        this.action = action == null ? null : action.name();
+        this.clock = clock;
+        this.startMillis = clock.getAsLong();
+    }
+
+    /**
+     * Wraps a client call so the SDK reports it to these metrics. The publisher is added inside the
+     * call because the proxy replaces the request's override configuration when it injects
+     * credentials.
+     */
+    public <RequestT extends AwsRequest, ResponseT> Function<RequestT, ResponseT> record(Function<RequestT, ResponseT> call) {
+        return request -> call.apply(withPublisher(request));
+    }
+
+    @SuppressWarnings("unchecked")
+    <RequestT extends AwsRequest> RequestT withPublisher(RequestT request) {
+        AwsRequestOverrideConfiguration overrideConfiguration = request.overrideConfiguration()
+            .map(AwsRequestOverrideConfiguration::toBuilder)
+            .orElseGet(AwsRequestOverrideConfiguration::builder)
+            .addMetricPublisher(this)
+            .build();
+        return (RequestT) request.toBuilder().overrideConfiguration(overrideConfiguration).build();
+    }
+
+    public void setCanaryState(CanaryState canaryState) {
+        if (canaryState != null) {
+            this.canaryState = canaryState;
+        }
+    }
+
+    /**
+     * Counts a service client lookup, which misses when the client had to be built.
+     */
+    public void recordClientCacheLookup(boolean hit) {
+        (hit ? clientCacheHits : clientCacheMisses).incrementAndGet();
+    }
+
+    @Override
+    public void publish(MetricCollection metrics) {
+        String serviceId = metrics.metricValues(CoreMetric.SERVICE_ID).stream().findFirst().orElse("");
+        if ("lambda".equalsIgnoreCase(serviceId)) {
+            lambdaApiCalls.incrementAndGet();
+        } else {
+            syntheticsApiCalls.incrementAndGet();
+        }
+        metrics.metricValues(CoreMetric.RETRY_COUNT).forEach(sdkRetries::addAndGet);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Returns how many times the SDK retried the calls made so far.
+     */
+    public int getSdkRetries() {
+        return sdkRetries.get();
+    }
+
+    /**
+     * Writes the metrics line. A null status means the handler failed with an exception; the
+     * callback delay is only reported while the handler is in progress.
+     */
+    public void emit(Logger logger, OperationStatus status, int callbackDelaySeconds) {
+        try {
+            logger.log(toEmf(status, callbackDelaySeconds));
+        } catch (IOException e) {
+            logger.log(String.format("Failed to write metrics: %s", e.getMessage()));
+        }
+    }
+
+    String toEmf(OperationStatus status, int callbackDelaySeconds) throws IOException {
+        long now = clock.getAsLong();
+        boolean inProgress = status == OperationStatus.IN_PROGRESS;
+        StringWriter writer = new StringWriter(INITIAL_BUFFER_SIZE);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("_aws");
+            generator.writeNumberField("Timestamp", now);
+            generator.writeArrayFieldStart("CloudWatchMetrics");
+            generator.writeStartObject();
+            generator.writeStringField("Namespace", NAMESPACE);
+            generator.writeArrayFieldStart("Dimensions");
+            writeDimensionSet(generator, "Action");
+            if (canaryState != null) {
+                writeDimensionSet(generator, "Action", "CanaryState");
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("Metrics");
+            writeMetricDefinition(generator, "HandlerDuration", "Milliseconds");
+            writeMetricDefinition(generator, "SyntheticsApiCalls", "Count");
+            writeMetricDefinition(generator, "LambdaApiCalls", "Count");
+            writeMetricDefinition(generator, "SdkRetries", "Count");
+            writeMetricDefinition(generator, "ClientCacheHits", "Count");
+            writeMetricDefinition(generator, "ClientCacheMisses", "Count");
+            if (inProgress) {
+                writeMetricDefinition(generator, "CallbackDelay", "Seconds");
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndArray();
+            generator.writeEndObject();
+
+            generator.writeStringField("Action", action == null ? "UNKNOWN" : action);
+            if (canaryState != null) {
+                generator.writeStringField("CanaryState", canaryState.toString());
+            }
+            generator.writeStringField("OperationStatus", status == null ? "EXCEPTION" : status.name());
+            generator.writeNumberField("HandlerDuration", now - startMillis);
+            generator.writeNumberField("SyntheticsApiCalls", syntheticsApiCalls.get());
+            generator.writeNumberField("LambdaApiCalls", lambdaApiCalls.get());
+            generator.writeNumberField("SdkRetries", sdkRetries.get());
+            generator.writeNumberField("ClientCacheHits", clientCacheHits.get());
+            generator.writeNumberField("ClientCacheMisses", clientCacheMisses.get());
+            if (inProgress) {
+                generator.writeNumberField("CallbackDelay", callbackDelaySeconds);
+            }
+            generator.writeEndObject();
+        }
+        return writer.toString();
+    }
+
+    private static void writeDimensionSet(JsonGenerator generator, String... dimensions) throws IOException {
+        generator.writeStartArray();
+        for (String dimension : dimensions) {
+            generator.writeString(dimension);
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeMetricDefinition(JsonGenerator generator, String name, String unit) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("Name", name);
+        generator.writeStringField("Unit", unit);
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,27 @@
+package com.amazon.synthetics.canary;
+
+import lombok.Value;
+
+/**
+ * How much ListHandler reads in one invocation. It requests DescribeCanaries pages of a fixed size
+ * and keeps reading them until there are no more, the response holds maxModels models, or the time
+ * budget is spent. Both budgets are checked between pages, so a response can exceed maxModels by
+ * less than one page.
+ */
+@Value
+public class ListBudget {
+    // DescribeCanaries accepts between 1 and 20 results per page.
+    static final int MAX_PAGE_SIZE = 20;
+    static final int DEFAULT_MAX_MODELS = 1000;
+    static final long DEFAULT_TIME_BUDGET_MILLIS = 10_000;
+
+    public static final ListBudget DEFAULT = of(MAX_PAGE_SIZE, DEFAULT_MAX_MODELS, DEFAULT_TIME_BUDGET_MILLIS);
+
+    int pageSize;
+    int maxModels;
+    long timeBudgetMillis;
+
+    public static ListBudget of(int pageSize, int maxModels, long timeBudgetMillis) {
+        return new ListBudget(Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE), maxModels, timeBudgetMillis);
+    }
+}
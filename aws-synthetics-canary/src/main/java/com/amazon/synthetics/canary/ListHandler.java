@@ -11,8 +11,19 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class ListHandler extends CanaryActionHandler {
+    private final ListBudget budget;
+
     public ListHandler() {
-        super(Action.LIST);
+        this(HandlerClients.SHARED);
+    }
+
+    public ListHandler(HandlerClients clients) {
+        this(ListBudget.DEFAULT, clients);
+    }
+
+    public ListHandler(ListBudget budget, HandlerClients clients) {
+        super(Action.LIST, clients);
+        this.budget = budget;
     }
 
     @Override
@@ -27,28 +38,36 @@ public class ListHandler extends CanaryActionHandler {
 
     private List<ResourceModel> listAllCanaries() {
         List<ResourceModel> models = new ArrayList<>();
-        final DescribeCanariesRequest describeCanariesRequest = DescribeCanariesRequest.builder()
-                .nextToken(request.getNextToken())
-                .build();
-
-        final DescribeCanariesResponse describeCanariesResponse;
-
-       try {
-           describeCanariesResponse = proxy.injectCredentialsAndInvokeV2(describeCanariesRequest, syntheticsClient::describeCanaries);
-
-           describeCanariesResponse.canaries().forEach(canary -> {
-               ResourceModel model = ResourceModel.builder().build();
-               model = ModelHelper.constructModel(canary, model);
-               models.add(model);
-           });
-       } catch (ValidationException ex) {
-           log(ex);
-           throw new CfnInvalidRequestException(ex);
-       } catch (SyntheticsException ex) {
-           log(ex);
-           throw new CfnGeneralServiceException(ex);
-       }
-       request.setNextToken(describeCanariesResponse.nextToken());
-       return models;
+        final long deadlineMillis = System.currentTimeMillis() + budget.getTimeBudgetMillis();
+        String nextToken = request.getNextToken();
+        int pages = 0;
+
+        try {
+            do {
+                final DescribeCanariesRequest describeCanariesRequest = DescribeCanariesRequest.builder()
+                        .nextToken(nextToken)
+                        .maxResults(budget.getPageSize())
+                        .build();
+                final DescribeCanariesResponse describeCanariesResponse =
+                        invoke(describeCanariesRequest, syntheticsClient::describeCanaries);
+                pages++;
+
+                // The list contract only needs the primary identifier; full models come from ReadHandler.
+                describeCanariesResponse.canaries().forEach(canary ->
+                    models.add(ResourceModel.builder().name(canary.name()).build()));
+                nextToken = describeCanariesResponse.nextToken();
+            } while (nextToken != null
+                && models.size() < budget.getMaxModels()
+                && System.currentTimeMillis() < deadlineMillis);
+        } catch (ValidationException ex) {
+            log(ex);
+            throw new CfnInvalidRequestException(ex);
+        } catch (SyntheticsException ex) {
+            log(ex);
+            throw new CfnGeneralServiceException(ex);
+        }
+        log(String.format("Listed %d canaries from %d pages", models.size(), pages));
+        request.setNextToken(nextToken);
+        return models;
     }
 }
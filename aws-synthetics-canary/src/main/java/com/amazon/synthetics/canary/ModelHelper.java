@@ -13,28 +13,16 @@ import software.amazon.awssdk.services.synthetics.model.S3EncryptionConfig;
 import software.amazon.awssdk.services.synthetics.model.VisualReferenceInput;
 import software.amazon.awssdk.services.synthetics.model.VisualReferenceOutput;
 import software.amazon.awssdk.services.synthetics.model.VpcConfigOutput;
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 public class ModelHelper {
-    private static final String NODE_MODULES_DIR = "/nodejs/node_modules/";
-    private static final String JS_SUFFIX = ".js";
-
-    public static final String ADD_TAGS = "ADD_TAGS";
-    public static final String REMOVE_TAGS = "REMOVE_TAGS";
-
     private static final List<String> TAGGING_PERMISSIONS = Arrays.asList(
         "synthetics:TagResource",
         "synthetics:UntagResource",
@@ -45,12 +33,6 @@ public class ModelHelper {
     );
     private static final Pattern TAGGING_PERMISSIONS_PATTERN = Pattern.compile(String.join("|", TAGGING_PERMISSIONS));
 
-    // Python Runtime
-    private static final String PYTHON_DIR = "/python/";
-    private static final String PY_SUFFIX = ".py";
-    private static final String PYTHON_PATTERN = "^syn-python-.*";
-    private static final Pattern python_pattern = Pattern.compile(PYTHON_PATTERN);
-
     public static ResourceModel constructModel(Canary canary, ResourceModel model) {
         Map<String, String> tags = canary.tags();
         model.setId(canary.id());
@@ -124,58 +106,81 @@ public class ModelHelper {
                 .vpcId(vpcConfigOutput.vpcId()).build();
     }
 
-    public static SdkBytes compressRawScript(ResourceModel model) {
-        // Handler name is in the format <function_name>.handler.
-        // Need to strip out the .handler suffix
-
-        String functionName = model.getCode().getHandler().split("\\.")[0];
-        String runtimeLanguage = getRuntimeLanguage(model.getRuntimeVersion());
-        String functionNameWithType = "";
-        String zipOutputFilePath = "";
-
-        /**
-         Runtime is Node
-         **/
-        if ( runtimeLanguage.equalsIgnoreCase("nodejs")) {
-            functionNameWithType = functionName + JS_SUFFIX;
-            zipOutputFilePath = NODE_MODULES_DIR + functionNameWithType;
-            System.out.println("zipOutputFilePath: " + zipOutputFilePath);
-        }
+    public static boolean hasInlineCode(Code code) {
+        return code != null && (code.getScript() != null || code.getFiles() != null || code.getZipFile() != null);
+    }
 
-        /**
-         Runtime is Python
-         **/
-        if ( runtimeLanguage.equalsIgnoreCase("python")) {
-            functionNameWithType = functionName + PY_SUFFIX;
-            zipOutputFilePath = PYTHON_DIR + functionNameWithType;
+    /**
+     * Builds the ZipFile for a model carrying inline code: a single Script, a bundle of Files,
+     * or a ready-made base64 ZipFile, which is passed on unchanged.
+     */
+    public static SdkBytes packageInlineCode(ResourceModel model) {
+        Code code = model.getCode();
+        if (code.getZipFile() != null) {
+            try {
+                return SdkBytes.fromByteArrayUnsafe(Base64.getDecoder().decode(code.getZipFile()));
+            } catch (IllegalArgumentException e) {
+                throw new CfnInvalidRequestException("Code.ZipFile is not valid base64: " + e.getMessage());
+            }
+        }
+        if (code.getFiles() != null) {
+            return compressFiles(model, ScriptPackager.DEFLATED);
         }
+        return compressRawScript(model);
+    }
 
-        String script = model.getCode().getScript();
+    /**
+     * Zips a bundle of files under the runtime's code directory. Paths must stay inside that
+     * directory and the handler's file must be part of the bundle.
+     */
+    public static SdkBytes compressFiles(ResourceModel model, ScriptPackager packager) {
+        RuntimeDescriptor runtime = inlineCodeRuntime(model, "Code.Files");
+        Map<String, String> files = model.getCode().getFiles();
+        for (String path : files.keySet()) {
+            if (!isRelativePath(path)) {
+                throw new CfnInvalidRequestException(String.format("Code.Files path %s must be relative and stay inside the code directory", path));
+            }
+        }
+        String handlerFile = runtime.handlerFile(model.getCode().getHandler());
+        if (!files.containsKey(handlerFile)) {
+            throw new CfnInvalidRequestException(String.format("Code.Files must contain %s for handler %s", handlerFile, model.getCode().getHandler()));
+        }
+        return packager.zip(runtime.getPackagingDirectory(), files);
+    }
 
-        ByteArrayOutputStream byteArrayOutputStream = null;
-        InputStream inputStream = null;
-        ZipOutputStream zipByteOutputStream = null;
-        try {
-            byteArrayOutputStream = new ByteArrayOutputStream();
-            zipByteOutputStream = new ZipOutputStream(byteArrayOutputStream);
-            inputStream = new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8));
+    public static SdkBytes compressRawScript(ResourceModel model) {
+        return compressRawScript(model, ScriptPackager.DEFLATED);
+    }
 
-            ZipEntry zipEntry = new ZipEntry(zipOutputFilePath);
-            zipByteOutputStream.putNextEntry(zipEntry);
+    /**
+     * Zips the inline script at the path the runtime loads it from. Unknown runtimes are rejected
+     * here rather than packaged as Node.js.
+     */
+    public static SdkBytes compressRawScript(ResourceModel model, ScriptPackager packager) {
+        RuntimeDescriptor runtime = inlineCodeRuntime(model, "Code.Script");
+        return packager.zip(runtime.scriptEntryPath(model.getCode().getHandler()), model.getCode().getScript());
+    }
 
-            byte[] buffer = new byte[1024];
-            int len;
+    private static RuntimeDescriptor inlineCodeRuntime(ResourceModel model, String property) {
+        RuntimeDescriptor runtime = RuntimeDescriptor.of(model.getRuntimeVersion());
+        if (!runtime.isKnown()) {
+            throw new CfnInvalidRequestException(String.format(
+                "Runtime version %s is not known, so %s cannot be packaged; provide the code through S3 or Code.ZipFile instead",
+                model.getRuntimeVersion(), property));
+        }
+        return runtime;
+    }
 
-            while ((len = inputStream.read(buffer)) > 0) {
-                zipByteOutputStream.write(buffer, 0, len);
+    private static boolean isRelativePath(String path) {
+        if (path.isEmpty() || path.startsWith("/") || path.contains("\\")) {
+            return false;
+        }
+        for (String segment : path.split("/", -1)) {
+            if (segment.isEmpty() || segment.equals(".") || segment.equals("..")) {
+                return false;
             }
-            zipByteOutputStream.closeEntry();
-            zipByteOutputStream.close();
-            inputStream.close();
-        } catch (IOException ioe) {
-            ioe.printStackTrace();
         }
-        return SdkBytes.fromByteBuffer(ByteBuffer.wrap(byteArrayOutputStream.toByteArray()));
+        return true;
     }
 
     public static String buildCanaryArn(ResourceHandlerRequest<ResourceModel> request, String canaryName) {
@@ -206,62 +211,52 @@ public class ModelHelper {
         return tagMap;
     }
 
-    public static Map<String, Map<String, String>> buildTagDiff(List<Tag> requestedTags, Map<String, String> existingTags) {
-        Map<String, String> modelTagMap = new HashMap<>();
-        Set<Map.Entry<String, String>> modelTagsES = null;
-        Set<Map.Entry<String, String>> canaryTags = null;
-        Set<Map.Entry<String, String>> modelTagsCopyES = null;
-        Map<String, Map<String, String>> store = new HashMap<String, Map<String, String>>();
-        Map<String, String> copyExistingTags = new HashMap<>(existingTags);
-
+    /**
+     * Compares the tags in the template with the tags on a resource. Tags whose key or value
+     * differs are added; tags missing from the template are removed, except those with the
+     * reserved "aws:" prefix. When the template has no tags at all, every existing tag is
+     * removed. If a key repeats in the template, the last value wins.
+     */
+    public static TagDiff buildTagDiff(List<Tag> requestedTags, Map<String, String> existingTags) {
+        if (existingTags == null) {
+            existingTags = Collections.emptyMap();
+        }
         if (requestedTags == null || requestedTags.isEmpty()) {
             // If no tags were provided in template, remove all tags
-            store.put(ADD_TAGS, new HashMap<>());
-            store.put(REMOVE_TAGS, existingTags);
- 
-            return store;
+            return TagDiff.of(null, existingTags);
         }
 
+        Map<String, String> modelTagMap = new HashMap<>((int) (requestedTags.size() / 0.75f) + 1);
         for (Tag tag : requestedTags) {
             modelTagMap.put(tag.getKey(), tag.getValue());
         }
-        modelTagsES = modelTagMap.entrySet();
-        modelTagsCopyES = new HashSet<Map.Entry<String, String>>(modelTagMap.entrySet());
-
-        canaryTags = copyExistingTags.entrySet();
-
-        Set<Map.Entry<String, String>> finalCanaryTags = canaryTags;
-        // Get an iterator
-        Iterator<Map.Entry<String, String>> modelIterator = modelTagsES.iterator();
-        while (modelIterator.hasNext()) {
-            Map.Entry<String, String> modelEntry = modelIterator.next();
-            if (finalCanaryTags.contains(modelEntry)) {
-                modelIterator.remove();
+
+        Map<String, String> tagsToAdd = null;
+        for (Map.Entry<String, String> modelEntry : modelTagMap.entrySet()) {
+            String key = modelEntry.getKey();
+            String value = modelEntry.getValue();
+            String existingValue = existingTags.get(key);
+            boolean unchanged = existingValue != null ? existingValue.equals(value)
+                : value == null && existingTags.containsKey(key);
+            if (!unchanged) {
+                if (tagsToAdd == null) {
+                    tagsToAdd = new HashMap<>();
+                }
+                tagsToAdd.put(key, value);
             }
         }
-        // Store all the tags that need to be added to the canary
-        store.put(ADD_TAGS, modelTagMap);
 
-        Iterator<Map.Entry<String, String>> canaryTagIterator = finalCanaryTags.iterator();
-        while (canaryTagIterator.hasNext()) {
-            Map.Entry<String, String> canaryEntry = canaryTagIterator.next();
-            try {
-                if (modelTagsCopyES.contains(canaryEntry)) {
-                    canaryTagIterator.remove();
-                }
-                if (canaryEntry.getKey().toString().startsWith("aws:")) {
-                    canaryTagIterator.remove();
+        Map<String, String> tagsToRemove = null;
+        for (Map.Entry<String, String> existingEntry : existingTags.entrySet()) {
+            String key = existingEntry.getKey();
+            if (!modelTagMap.containsKey(key) && !key.startsWith("aws:")) {
+                if (tagsToRemove == null) {
+                    tagsToRemove = new HashMap<>();
                 }
-                if (!modelTagMap.isEmpty() && modelTagMap.containsKey(canaryEntry.getKey())) {
-                    canaryTagIterator.remove();
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
+                tagsToRemove.put(key, existingEntry.getValue());
             }
         }
-        // Store all the tags that need to be removed to the canary
-        store.put(REMOVE_TAGS, copyExistingTags);
-        return store;
+        return TagDiff.of(tagsToAdd, tagsToRemove);
     }
 
     public static boolean isNullOrEmpty(VPCConfig vpcConfig) {
@@ -272,52 +267,41 @@ public class ModelHelper {
             || vpcConfig.getSecurityGroupIds().isEmpty();
     }
 
-    private static String getRuntimeLanguage(String runtimeVersion) {
-        Matcher python_matcher = python_pattern.matcher(runtimeVersion);
-        // python runtime
-        if (python_matcher.matches()) {
-            return "python";
-        }
-        // default
-        return "nodejs";
-    }
-
+    /**
+     * Returns true when the deployed visual reference differs from the desired one. An unset
+     * visual reference leaves the deployed one as it is.
+     */
     public static boolean visualReferenceNeedsUpdate(VisualReferenceOutput existingVisualReference, VisualReference newVisualReference) {
         if (newVisualReference == null) {
             return false;
         }
-
         if (existingVisualReference == null
-                || newVisualReference.getBaseScreenshots() == null
-                || existingVisualReference.baseScreenshots() != null && existingVisualReference.baseScreenshots().size() != newVisualReference.getBaseScreenshots().size()
-                || newVisualReference.getBaseCanaryRunId() != existingVisualReference.baseCanaryRunId()) {
+                || !Objects.equals(newVisualReference.getBaseCanaryRunId(), existingVisualReference.baseCanaryRunId())) {
             return true;
         }
 
-        for(int item = 0; item < newVisualReference.getBaseScreenshots().size(); item++) {
-            // Screenshots
-            if (newVisualReference.getBaseScreenshots().get(item).getScreenshotName() != existingVisualReference.baseScreenshots().get(item).screenshotName()){
-                return true;
-            }
-
-            // Ignore boundaries
-            if (existingVisualReference.baseScreenshots().get(item).ignoreCoordinates() == null) {
-                continue;
-            }
-            if (existingVisualReference.baseScreenshots().get(item).ignoreCoordinates() != null
-                    && existingVisualReference.baseScreenshots().get(item).ignoreCoordinates().size() != newVisualReference.getBaseScreenshots().get(item).getIgnoreCoordinates().size()){
+        List<BaseScreenshot> newScreenshots = newVisualReference.getBaseScreenshots() != null ?
+                newVisualReference.getBaseScreenshots() : Collections.emptyList();
+        List<software.amazon.awssdk.services.synthetics.model.BaseScreenshot> existingScreenshots =
+                existingVisualReference.baseScreenshots() != null ? existingVisualReference.baseScreenshots() : Collections.emptyList();
+        if (newScreenshots.size() != existingScreenshots.size()) {
+            return true;
+        }
+        for (int item = 0; item < newScreenshots.size(); item++) {
+            BaseScreenshot newScreenshot = newScreenshots.get(item);
+            software.amazon.awssdk.services.synthetics.model.BaseScreenshot existingScreenshot = existingScreenshots.get(item);
+            if (!Objects.equals(newScreenshot.getScreenshotName(), existingScreenshot.screenshotName())
+                    || !Objects.equals(orEmpty(newScreenshot.getIgnoreCoordinates()), orEmpty(existingScreenshot.ignoreCoordinates()))) {
                 return true;
             }
-
-            for(int ignoreItem = 0; ignoreItem < existingVisualReference.baseScreenshots().get(item).ignoreCoordinates().size(); ignoreItem++) {
-                if (existingVisualReference.baseScreenshots().get(item).ignoreCoordinates().get(ignoreItem) != newVisualReference.getBaseScreenshots().get(item).getIgnoreCoordinates().get(ignoreItem)) {
-                    return true;
-                }
-            }
         }
         return false;
     }
 
+    private static List<String> orEmpty(List<String> values) {
+        return values != null ? values : Collections.emptyList();
+    }
+
     public static VisualReferenceInput getVisualReferenceInput(VisualReference newVisualReference) {
         if (newVisualReference == null) {
             return null;
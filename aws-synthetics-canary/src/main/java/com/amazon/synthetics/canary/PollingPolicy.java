@@ -0,0 +1,17 @@
+package com.amazon.synthetics.canary;
+
+import software.amazon.awssdk.services.synthetics.model.CanaryState;
+
+/**
+ * Decides how long CloudFormation should wait before invoking the handler again
+ * while a canary transitions out of a given state.
+ */
+public interface PollingPolicy {
+    /**
+     * @param state the state the canary was last observed in
+     * @param retryKey the key of the transition being waited on
+     * @param attempt number of polls already made while the canary was in this state, starting at 0
+     * @return callback delay in seconds
+     */
+    int getCallbackDelaySeconds(CanaryState state, String retryKey, int attempt);
+}
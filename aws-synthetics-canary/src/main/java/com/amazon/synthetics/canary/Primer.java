@@ -0,0 +1,102 @@
+package com.amazon.synthetics.canary;
+
+import com.amazonaws.services.lambda.runtime.LambdaRuntime;
+import com.fasterxml.jackson.core.type.TypeReference;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.synthetics.model.CanaryState;
+import software.amazon.awssdk.services.synthetics.model.ResourceToTag;
+import software.amazon.cloudformation.Action;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.resource.Serializer;
+
+/**
+ * Runs the code paths every first invocation needs while the Lambda container initializes, so
+ * class loading, Jackson and RPDK serializer setup, regex compilation and client construction
+ * are paid during init, and captured in the snapshot when SnapStart is enabled, instead of on
+ * the first request. Nothing here makes a network call: clients are built but never used.
+ */
+public final class Primer {
+    /**
+     * Opt-out: set to "true" to skip priming, for example to compare init and first invocation
+     * times with and without it.
+     */
+    static final String DISABLED_ENV = "PRIMING_DISABLED";
+    static final String REGION_ENV = "AWS_REGION";
+
+    private static final AtomicBoolean PRIMED = new AtomicBoolean();
+
+    private Primer() {
+    }
+
+    /**
+     * Primes once per container unless disabled and logs how long it took through the Lambda
+     * runtime's logger, which shows up next to the Init Duration of the container's first REPORT
+     * line.
+     */
+    public static void primeOnInit() {
+        if ("true".equalsIgnoreCase(System.getenv(DISABLED_ENV)) || !PRIMED.compareAndSet(false, true)) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        try {
+            prime(System.getenv(REGION_ENV));
+            LambdaRuntime.getLogger().log(String.format("Priming finished in %d ms",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)));
+        } catch (RuntimeException | IOException e) {
+            // Priming is only an optimization; the first invocation pays the cost instead.
+            LambdaRuntime.getLogger().log(String.format("Priming failed after %d ms: %s",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), e));
+        }
+    }
+
+    static void prime(String awsRegion) throws IOException {
+        if (awsRegion != null && !awsRegion.isEmpty()) {
+            Region region = Region.of(awsRegion);
+            ClientBuilder.getSyntheticsClient(region);
+            ClientBuilder.getLambdaClient(region);
+        }
+
+        ResourceModel model = sampleModel();
+        CallbackContext context = CallbackContext.builder()
+            .canaryCreateStarted(true)
+            .retryKey("READY")
+            .initialCanaryState(CanaryState.CREATING)
+            .lastObservedState(CanaryState.READY)
+            .build();
+        Serializer serializer = new Serializer();
+        serializer.deserialize(serializer.serialize(model), new TypeReference<ResourceModel>() {});
+        serializer.deserialize(serializer.serialize(context), new TypeReference<CallbackContext>() {});
+
+        ModelHelper.compressRawScript(model);
+        ModelHelper.buildTagDiff(model.getTags(), Collections.singletonMap("removed", "value"));
+        ModelHelper.buildReplicateTags(model.getResourcesToReplicateTags());
+
+        new ActionLogger(message -> { }, Action.CREATE, null, context, model).toJson("priming", null);
+        HandlerMetrics metrics = new HandlerMetrics(Action.CREATE);
+        metrics.setCanaryState(CanaryState.READY);
+        metrics.toEmf(OperationStatus.IN_PROGRESS, 1);
+    }
+
+    private static ResourceModel sampleModel() {
+        return ResourceModel.builder()
+            .name("priming-canary")
+            .artifactS3Location("s3://priming-bucket/canary")
+            .executionRoleArn("arn:aws:iam::123456789012:role/SyntheticsRole")
+            .runtimeVersion("syn-nodejs-puppeteer-9.1")
+            .code(Code.builder()
+                .handler("index.handler")
+                .script("exports.handler = async () => {};")
+                .build())
+            .schedule(Schedule.builder().expression("rate(5 minutes)").durationInSeconds("0").build())
+            .runConfig(RunConfig.builder().timeoutInSeconds(60).memoryInMB(1000).activeTracing(false).build())
+            .tags(Collections.singletonList(Tag.builder().key("key").value("value").build()))
+            .resourcesToReplicateTags(Arrays.asList(ResourceToTag.LAMBDA_FUNCTION.toString()))
+            .startCanaryAfterCreation(true)
+            .build();
+    }
+}
@@ -6,7 +6,11 @@ import software.amazon.cloudformation.proxy.*;
 
 public class ReadHandler extends CanaryActionHandler {
     public ReadHandler() {
-        super(Action.READ);
+        this(HandlerClients.SHARED);
+    }
+
+    public ReadHandler(HandlerClients clients) {
+        super(Action.READ, clients);
     }
 
     @Override
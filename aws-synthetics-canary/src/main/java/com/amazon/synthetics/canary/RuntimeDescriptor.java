@@ -0,0 +1,103 @@
+package com.amazon.synthetics.canary;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * What the handlers need to know about a Synthetics runtime version to package inline code:
+ * where the script goes inside the code ZIP and which file suffix it takes. Descriptors come from
+ * a table of runtime families keyed by version prefix. A new runtime of an existing family needs
+ * no code change and a new family needs one table row. Each version string is resolved once and
+ * cached.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class RuntimeDescriptor {
+    private static final String NODE_MODULES_DIR = "/nodejs/node_modules/";
+    private static final String JS_SUFFIX = ".js";
+    private static final String PYTHON_DIR = "/python/";
+    private static final String PY_SUFFIX = ".py";
+    // Version strings come from templates, so the cache stops growing past what real runtimes need.
+    static final int MAX_CACHED_VERSIONS = 256;
+
+    private static final List<Family> FAMILIES = Arrays.asList(
+        new Family("syn-python-", PYTHON_DIR, PY_SUFFIX),
+        new Family("syn-nodejs-", NODE_MODULES_DIR, JS_SUFFIX),
+        // The first runtime, syn-1.0, predates language names in versions and runs Node.js.
+        new Family("syn-1.", NODE_MODULES_DIR, JS_SUFFIX)
+    );
+    private static final Map<String, RuntimeDescriptor> CACHE = new ConcurrentHashMap<>();
+
+    String runtimeVersion;
+    // Null when the version does not match any known runtime family.
+    String packagingDirectory;
+    String fileSuffix;
+
+    /**
+     * Returns the descriptor for a runtime version. Versions outside every known family get a
+     * descriptor that is not {@link #isKnown() known} rather than being treated as Node.js.
+     */
+    public static RuntimeDescriptor of(String runtimeVersion) {
+        if (runtimeVersion == null) {
+            return resolve(null);
+        }
+        RuntimeDescriptor descriptor = CACHE.get(runtimeVersion);
+        if (descriptor != null) {
+            return descriptor;
+        }
+        descriptor = resolve(runtimeVersion);
+        if (CACHE.size() < MAX_CACHED_VERSIONS) {
+            CACHE.putIfAbsent(runtimeVersion, descriptor);
+        }
+        return descriptor;
+    }
+
+    private static RuntimeDescriptor resolve(String runtimeVersion) {
+        if (runtimeVersion != null) {
+            for (Family family : FAMILIES) {
+                if (runtimeVersion.startsWith(family.prefix)) {
+                    return new RuntimeDescriptor(runtimeVersion, family.packagingDirectory, family.fileSuffix);
+                }
+            }
+        }
+        return new RuntimeDescriptor(runtimeVersion, null, null);
+    }
+
+    /**
+     * Whether the handler knows where the runtime loads inline code from.
+     */
+    public boolean isKnown() {
+        return packagingDirectory != null;
+    }
+
+    /**
+     * Path of the script inside the code ZIP for a handler named {@code <file>.<function>}.
+     */
+    public String scriptEntryPath(String handler) {
+        return packagingDirectory + handlerFile(handler);
+    }
+
+    /**
+     * Path of the handler's file relative to the packaging directory.
+     */
+    public String handlerFile(String handler) {
+        return handler.split("\\.")[0] + fileSuffix;
+    }
+
+    private static final class Family {
+        private final String prefix;
+        private final String packagingDirectory;
+        private final String fileSuffix;
+
+        private Family(String prefix, String packagingDirectory, String fileSuffix) {
+            this.prefix = prefix;
+            this.packagingDirectory = packagingDirectory;
+            this.fileSuffix = fileSuffix;
+        }
+    }
+}
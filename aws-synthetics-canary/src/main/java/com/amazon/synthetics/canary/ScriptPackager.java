@@ -0,0 +1,145 @@
+package com.amazon.synthetics.canary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+
+/**
+ * Packages inline code into the ZIP that CreateCanary and UpdateCanary expect, either a single
+ * script or a bundle of files. Content is written straight into an output buffer sized for the
+ * archive, which is then handed to SdkBytes as is. Entries carry a fixed timestamp and bundles
+ * are written in path order, so the same code always produces the same bytes.
+ */
+public class ScriptPackager {
+    // Local file header, central directory header and end of central directory record.
+    private static final int ZIP_OVERHEAD_BYTES = 30 + 46 + 22;
+    // Deflate can grow incompressible input slightly; the data descriptor adds 16 bytes.
+    private static final int DEFLATE_SLACK_BYTES = 64;
+    private static final LocalDateTime ENTRY_TIME = LocalDateTime.of(1980, 2, 1, 0, 0);
+
+    public static final ScriptPackager DEFLATED = new ScriptPackager(Deflater.DEFAULT_COMPRESSION);
+    public static final ScriptPackager STORED = new ScriptPackager(Deflater.NO_COMPRESSION);
+
+    private final int level;
+
+    /**
+     * @param level a java.util.zip.Deflater level; NO_COMPRESSION stores the script uncompressed
+     */
+    public ScriptPackager(int level) {
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Invalid deflate level: " + level);
+        }
+        this.level = level;
+    }
+
+    public SdkBytes zip(String entryPath, String script) {
+        byte[] content = script.getBytes(StandardCharsets.UTF_8);
+        byte[] name = entryPath.getBytes(StandardCharsets.UTF_8);
+        boolean stored = level == Deflater.NO_COMPRESSION;
+
+        ZipEntry entry = new ZipEntry(entryPath);
+        entry.setTimeLocal(ENTRY_TIME);
+        if (stored) {
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(content.length);
+            entry.setCompressedSize(content.length);
+            entry.setCrc(crc.getValue());
+        }
+
+        int estimatedSize = content.length + 2 * name.length + ZIP_OVERHEAD_BYTES;
+        if (!stored) {
+            estimatedSize += content.length / 1000 + DEFLATE_SLACK_BYTES;
+        }
+        ExposedByteArrayOutputStream output = new ExposedByteArrayOutputStream(estimatedSize);
+        try (ZipOutputStream zip = new ZipOutputStream(output)) {
+            zip.setLevel(level);
+            zip.putNextEntry(entry);
+            zip.write(content);
+            zip.closeEntry();
+        } catch (IOException e) {
+            throw new CfnInternalFailureException(e);
+        }
+        return SdkBytes.fromByteArrayUnsafe(output.toExactByteArray());
+    }
+
+    /**
+     * Zips a bundle of files under the given directory in a single pass, in path order. Deflated
+     * entries are encoded through a fixed-size buffer as they are compressed, so apart from the
+     * archive itself memory use does not grow with the size of the bundle. Stored entries need
+     * their size and CRC up front and are encoded one file at a time.
+     *
+     * @param directory prefix for every entry, ending with a slash
+     * @param files relative path to file content
+     */
+    public SdkBytes zip(String directory, Map<String, String> files) {
+        SortedMap<String, String> ordered = new TreeMap<>(files);
+        boolean stored = level == Deflater.NO_COMPRESSION;
+
+        int estimatedSize = ZIP_OVERHEAD_BYTES;
+        for (Map.Entry<String, String> file : ordered.entrySet()) {
+            int nameLength = directory.length() + file.getKey().length();
+            estimatedSize += file.getValue().length() + 2 * nameLength + ZIP_OVERHEAD_BYTES;
+            if (!stored) {
+                estimatedSize += file.getValue().length() / 1000 + DEFLATE_SLACK_BYTES;
+            }
+        }
+        ExposedByteArrayOutputStream output = new ExposedByteArrayOutputStream(estimatedSize);
+        try (ZipOutputStream zip = new ZipOutputStream(output)) {
+            zip.setLevel(level);
+            // Never closed: closing it would close the archive. Flushed after every entry.
+            Writer writer = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+            for (Map.Entry<String, String> file : ordered.entrySet()) {
+                ZipEntry entry = new ZipEntry(directory + file.getKey());
+                entry.setTimeLocal(ENTRY_TIME);
+                if (stored) {
+                    byte[] content = file.getValue().getBytes(StandardCharsets.UTF_8);
+                    CRC32 crc = new CRC32();
+                    crc.update(content);
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(content.length);
+                    entry.setCompressedSize(content.length);
+                    entry.setCrc(crc.getValue());
+                    zip.putNextEntry(entry);
+                    zip.write(content);
+                } else {
+                    zip.putNextEntry(entry);
+                    writer.write(file.getValue());
+                    writer.flush();
+                }
+                zip.closeEntry();
+            }
+        } catch (IOException e) {
+            throw new CfnInternalFailureException(e);
+        }
+        return SdkBytes.fromByteArrayUnsafe(output.toExactByteArray());
+    }
+
+    /**
+     * Returns the internal buffer when it is exactly full, which is always the case for
+     * stored entries, and a trimmed copy otherwise.
+     */
+    private static class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+        ExposedByteArrayOutputStream(int size) {
+            super(size);
+        }
+
+        byte[] toExactByteArray() {
+            return count == buf.length ? buf : Arrays.copyOf(buf, count);
+        }
+    }
+}
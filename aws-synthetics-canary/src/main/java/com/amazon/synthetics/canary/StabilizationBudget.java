@@ -0,0 +1,47 @@
+package com.amazon.synthetics.canary;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import software.amazon.awssdk.services.synthetics.model.CanaryState;
+
+/**
+ * Wall-clock limits on how long a handler waits for a canary to leave each state. Unlike a retry
+ * count, the limits do not depend on how often the handler polls. States without a limit of their
+ * own share the default limit.
+ */
+public class StabilizationBudget {
+    /**
+     * A stop lets the current run finish, and a canary run may be allowed up to 14 minutes.
+     */
+    static final Duration STOP_BUDGET = Duration.ofMinutes(15);
+
+    private final Duration defaultBudget;
+    private final Map<CanaryState, Duration> stateBudgets;
+
+    private StabilizationBudget(Duration defaultBudget, Map<CanaryState, Duration> stateBudgets) {
+        this.defaultBudget = defaultBudget;
+        this.stateBudgets = stateBudgets;
+    }
+
+    /**
+     * Creates a budget that allows the given duration for every state.
+     */
+    public static StabilizationBudget of(Duration defaultBudget) {
+        return new StabilizationBudget(defaultBudget, new EnumMap<>(CanaryState.class));
+    }
+
+    /**
+     * Returns a copy of this budget that allows the given duration for the given state.
+     */
+    public StabilizationBudget with(CanaryState state, Duration budget) {
+        Map<CanaryState, Duration> stateBudgets = new EnumMap<>(CanaryState.class);
+        stateBudgets.putAll(this.stateBudgets);
+        stateBudgets.put(state, budget);
+        return new StabilizationBudget(defaultBudget, stateBudgets);
+    }
+
+    public Duration get(CanaryState state) {
+        return stateBudgets.getOrDefault(state, defaultBudget);
+    }
+}
@@ -0,0 +1,182 @@
+package com.amazon.synthetics.canary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.lambda.LambdaClient;
+import software.amazon.awssdk.services.lambda.model.ListTagsRequest;
+import software.amazon.awssdk.services.synthetics.SyntheticsClient;
+import software.amazon.awssdk.services.synthetics.model.TagResourceRequest;
+import software.amazon.awssdk.services.synthetics.model.UntagResourceRequest;
+
+/**
+ * Applies tag changes to a canary and its Lambda function. The two resources are tagged
+ * concurrently on a small shared pool; on each resource new and changed tags are applied
+ * before stale ones are removed. Every call is made through the handler's {@link ApiInvoker}.
+ */
+public class TagReconciler {
+    private static final int POOL_SIZE = 4;
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(POOL_SIZE, runnable -> {
+        Thread thread = new Thread(runnable, "canary-tag-reconciler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ApiInvoker invoker;
+    private final SyntheticsClient syntheticsClient;
+    private final LambdaClient lambdaClient;
+    private final Consumer<String> log;
+
+    public TagReconciler(ApiInvoker invoker,
+                         SyntheticsClient syntheticsClient,
+                         LambdaClient lambdaClient,
+                         Consumer<String> log) {
+        this.invoker = invoker;
+        this.syntheticsClient = syntheticsClient;
+        this.lambdaClient = lambdaClient;
+        this.log = log;
+    }
+
+    /**
+     * Starts reading the Lambda function's tags so the call can overlap with UpdateCanary.
+     * Use {@link #join} to wait for the result.
+     */
+    public CompletableFuture<Map<String, String>> listLambdaTagsAsync(String lambdaArn) {
+        return CompletableFuture.supplyAsync(() -> {
+            log.accept("Retrieving list of existing Lambda tags");
+            Map<String, String> tags = invoker.invoke(
+                ListTagsRequest.builder().resource(lambdaArn).build(),
+                lambdaClient::listTags).tags();
+            log.accept("Successfully retrieved existing Lambda tags");
+            return tags;
+        }, EXECUTOR);
+    }
+
+    /**
+     * Applies both tag diffs, tagging the canary and the Lambda function concurrently. A null
+     * Lambda ARN leaves the function untouched, as does an empty diff. The canary ARN may be
+     * null when the canary's diff is empty.
+     *
+     * @return null when every call succeeded, or the combined messages of calls that failed
+     *         only because tagging permissions are missing
+     * @throws RuntimeException the first failure of any other kind, with further failures attached
+     *         as suppressed exceptions
+     */
+    public String reconcile(String canaryArn, TagDiff canaryTagDiff, String lambdaArn, TagDiff lambdaTagDiff) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        if (!canaryTagDiff.isEmpty()) {
+            futures.add(CompletableFuture.runAsync(() -> tagCanary(canaryArn, canaryTagDiff), EXECUTOR));
+        }
+        if (lambdaArn != null && !lambdaTagDiff.isEmpty()) {
+            futures.add(CompletableFuture.runAsync(() -> tagLambda(lambdaArn, lambdaTagDiff), EXECUTOR));
+        }
+
+        List<AwsServiceException> permissionFailures = new ArrayList<>();
+        RuntimeException failure = null;
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                join(future);
+            } catch (AwsServiceException e) {
+                if (ModelHelper.isMissingTaggingPermissionsError(e)) {
+                    permissionFailures.add(e);
+                } else {
+                    failure = addFailure(failure, e);
+                }
+            } catch (RuntimeException e) {
+                failure = addFailure(failure, e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        if (permissionFailures.isEmpty()) {
+            return null;
+        }
+        return permissionFailures.stream()
+            .map(AwsServiceException::getMessage)
+            .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Waits for the future and rethrows the exception it failed with, unwrapped.
+     */
+    static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void tagCanary(String canaryArn, TagDiff tagDiff) {
+        Map<String, String> addTags = tagDiff.getTagsToAdd();
+        Map<String, String> removeTags = tagDiff.getTagsToRemove();
+
+        if (!addTags.isEmpty()) {
+            log.accept(String.format("Adding/updating %s canary tags", addTags.size()));
+            invoker.invoke(
+                TagResourceRequest.builder()
+                    .resourceArn(canaryArn)
+                    .tags(addTags)
+                    .build(),
+                syntheticsClient::tagResource);
+            log.accept(String.format("Successfully added/updated %s canary tags", addTags.size()));
+        }
+
+        if (!removeTags.isEmpty()) {
+            log.accept(String.format("Removing %s canary tags", removeTags.size()));
+            invoker.invoke(
+                UntagResourceRequest.builder()
+                    .resourceArn(canaryArn)
+                    .tagKeys(removeTags.keySet())
+                    .build(),
+                syntheticsClient::untagResource);
+            log.accept(String.format("Successfully removed %s canary tags", removeTags.size()));
+        }
+    }
+
+    private void tagLambda(String lambdaArn, TagDiff tagDiff) {
+        Map<String, String> addTags = tagDiff.getTagsToAdd();
+        Map<String, String> removeTags = tagDiff.getTagsToRemove();
+
+        if (!addTags.isEmpty()) {
+            log.accept(String.format("Adding/updating %s Lambda tags", addTags.size()));
+            invoker.invoke(
+                software.amazon.awssdk.services.lambda.model.TagResourceRequest.builder()
+                    .resource(lambdaArn)
+                    .tags(addTags)
+                    .build(),
+                lambdaClient::tagResource);
+            log.accept(String.format("Successfully added/updated %s Lambda tags", addTags.size()));
+        }
+
+        if (!removeTags.isEmpty()) {
+            log.accept(String.format("Removing %s Lambda tags", removeTags.size()));
+            invoker.invoke(
+                software.amazon.awssdk.services.lambda.model.UntagResourceRequest.builder()
+                    .resource(lambdaArn)
+                    .tagKeys(removeTags.keySet())
+                    .build(),
+                lambdaClient::untagResource);
+            log.accept(String.format("Successfully removed %s Lambda tags", removeTags.size()));
+        }
+    }
+
+    private static RuntimeException addFailure(RuntimeException first, RuntimeException next) {
+        if (first == null) {
+            return next;
+        }
+        first.addSuppressed(next);
+        return first;
+    }
+}
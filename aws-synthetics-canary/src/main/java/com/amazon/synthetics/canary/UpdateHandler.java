@@ -2,27 +2,19 @@ package com.amazon.synthetics.canary;
 
 import com.google.common.base.Strings;
 
-import java.util.HashMap;
-import java.util.Objects;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
-import software.amazon.awssdk.services.lambda.model.ListTagsRequest;
-import software.amazon.awssdk.services.lambda.model.ListTagsResponse;
-import software.amazon.awssdk.services.synthetics.model.ArtifactConfigInput;
 import software.amazon.awssdk.services.synthetics.model.Canary;
-import software.amazon.awssdk.services.synthetics.model.CanaryCodeInput;
-import software.amazon.awssdk.services.synthetics.model.CanaryRunConfigInput;
-import software.amazon.awssdk.services.synthetics.model.CanaryScheduleInput;
 import software.amazon.awssdk.services.synthetics.model.CanaryState;
 import software.amazon.awssdk.services.synthetics.model.ResourceToTag;
 import software.amazon.awssdk.services.synthetics.model.StartCanaryRequest;
 import software.amazon.awssdk.services.synthetics.model.StopCanaryRequest;
-import software.amazon.awssdk.services.synthetics.model.TagResourceRequest;
-import software.amazon.awssdk.services.synthetics.model.UntagResourceRequest;
 import software.amazon.awssdk.services.synthetics.model.UpdateCanaryRequest;
 import software.amazon.awssdk.services.synthetics.model.ValidationException;
-import software.amazon.awssdk.services.synthetics.model.VisualReferenceInput;
-import software.amazon.awssdk.services.synthetics.model.VpcConfigInput;
 import software.amazon.cloudformation.Action;
 import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
 import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
@@ -31,22 +23,36 @@ import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 
 
-import java.util.Collections;
 import java.util.Map;
 
 public class UpdateHandler extends CanaryActionHandler {
-    private static final int CALLBACK_DELAY_SECONDS = 10;
-    private static final int MAX_RETRY_TIMES = 120;
-    private static final String ADD_TAGS = "ADD_TAGS";
-    private static final String REMOVE_TAGS = "REMOVE_TAGS";
+    static final StabilizationBudget STABILIZATION_BUDGET = StabilizationBudget.of(Duration.ofMinutes(10))
+        .with(CanaryState.RUNNING, StabilizationBudget.STOP_BUDGET)
+        .with(CanaryState.STOPPING, StabilizationBudget.STOP_BUDGET);
+    private static final Set<CanaryState> SKIPPABLE_UPDATE_STATES = EnumSet.of(
+        CanaryState.READY,
+        CanaryState.STOPPED,
+        CanaryState.RUNNING
+    );
 
     public UpdateHandler() {
-        super(Action.UPDATE);
+        this(HandlerClients.SHARED);
+    }
+
+    public UpdateHandler(HandlerClients clients) {
+        super(Action.UPDATE, clients);
     }
 
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest() {
         Canary canary = getCanaryOrThrow();
+        if (context.isCanaryTagsPending()) {
+            ProgressEvent<ResourceModel, CallbackContext> tagFailure = retryPendingTags(canary);
+            if (tagFailure != null) {
+                return tagFailure;
+            }
+            canary = getCanaryOrThrow();
+        }
         if (!context.isCanaryUpdateStarted()) {
             if (canary.status().state() == CanaryState.CREATING) {
                 String message = "Canary is in state CREATING and cannot be updated.";
@@ -68,10 +74,10 @@ public class UpdateHandler extends CanaryActionHandler {
                     .build();
             } else if (canary.status().state() == CanaryState.STARTING) {
                 String message = "Canary is in state STARTING. It must finish starting before it can be updated.";
-                return waitingForCanaryStateTransition(message, MAX_RETRY_TIMES, "STARTING");
+                return waitingForCanaryStateTransition(message, STABILIZATION_BUDGET, "STARTING");
             } else if (canary.status().state() == CanaryState.STOPPING) {
                 String message = "Canary is in state STOPPING. It must finish stopping before it can be updated.";
-                return waitingForCanaryStateTransition(message, MAX_RETRY_TIMES, "STOPPING");
+                return waitingForCanaryStateTransition(message, STABILIZATION_BUDGET, "STOPPING");
             } else {
                 context.setInitialCanaryState(canary.status().state());
                 context.setCanaryUpdateStarted(true);
@@ -80,7 +86,7 @@ public class UpdateHandler extends CanaryActionHandler {
         }
 
         if (canary.status().state() == CanaryState.UPDATING) {
-            return waitingForCanaryStateTransition("Update in progress", MAX_RETRY_TIMES, "UPDATING");
+            return waitingForCanaryStateTransition("Update in progress", STABILIZATION_BUDGET, "UPDATING");
         } else if (canary.status().state() == CanaryState.ERROR) {
             log(String.format("Canary is in state ERROR. %s", canary.status().stateReason()));
             return ProgressEvent.failed(
@@ -95,7 +101,7 @@ public class UpdateHandler extends CanaryActionHandler {
         } else if (canary.status().state() == CanaryState.RUNNING) {
             return handleCanaryInStateRunning(canary);
         } else if (canary.status().state() == CanaryState.STOPPING) {
-            return waitingForCanaryStateTransition("Stopping canary", MAX_RETRY_TIMES, "STOPPING");
+            return waitingForCanaryStateTransition("Stopping canary", STABILIZATION_BUDGET, "STOPPING");
         }
 
         return ProgressEvent.<ResourceModel, CallbackContext>builder()
@@ -125,13 +131,14 @@ public class UpdateHandler extends CanaryActionHandler {
             // There is a race condition here. We will get an exception if someone calls
             // DeleteCanary, StartCanary, or UpdateCanary before we call StartCanary.
 
-            proxy.injectCredentialsAndInvokeV2(
+            mutateCanary(
+                canary.name(),
                 StartCanaryRequest.builder()
                     .name(canary.name())
                     .build(),
                 syntheticsClient::startCanary);
 
-            return waitingForCanaryStateTransition("Starting canary", MAX_RETRY_TIMES, "READY");
+            return waitingForCanaryStateTransition("Starting canary", STABILIZATION_BUDGET, "READY");
         } else {
             return ProgressEvent.defaultSuccessHandler(ModelHelper.constructModel(canary, model));
         }
@@ -145,7 +152,7 @@ public class UpdateHandler extends CanaryActionHandler {
             return waitingForCanaryStateTransition(
                 "Starting canary",
                 "Canary is in state STARTING.",
-                MAX_RETRY_TIMES,
+                STABILIZATION_BUDGET,
                 "STARTING");
         } else {
             log("Canary is in STARTING state even though StartCanaryAfterCreation was false.");
@@ -174,177 +181,137 @@ public class UpdateHandler extends CanaryActionHandler {
             if (model.getStartCanaryAfterCreation() == null || !model.getStartCanaryAfterCreation()) {
                 // There is a race condition here. We will get an exception if someone calls
                 // DeleteCanary, StopCanary, or UpdateCanary before we call StopCanary.
-                proxy.injectCredentialsAndInvokeV2(
+                mutateCanary(
+                    canary.name(),
                     StopCanaryRequest.builder()
                         .name(canary.name())
                         .build(),
                     syntheticsClient::stopCanary);
 
-                return waitingForCanaryStateTransition("Stopping canary", MAX_RETRY_TIMES, "RUNNING");
+                return waitingForCanaryStateTransition("Stopping canary", STABILIZATION_BUDGET, "RUNNING");
             }
         }
 
         return ProgressEvent.defaultSuccessHandler(ModelHelper.constructModel(canary, model));
     }
 
-    private ProgressEvent<ResourceModel, CallbackContext> updateCanary(Canary canary) {
-        String handlerName = canary.code().handler();
-        String scheduleExpression = canary.schedule().expression();
-        String durationInSecs = canary.schedule().durationInSeconds()!= null ? canary.schedule().durationInSeconds().toString() : null;
-        Integer timeoutInSeconds = canary.runConfig() != null ? canary.runConfig().timeoutInSeconds() : null;
-        Boolean activeTracing = canary.runConfig() != null && canary.runConfig().activeTracing() != null ? canary.runConfig().activeTracing() : false;
-        Map<String, String> environmentVariables = null;
-        Integer memoryInMB = canary.runConfig() != null ? canary.runConfig().memoryInMB() : null;
-        Integer successRetentionPeriodInDays = canary.successRetentionPeriodInDays();
-        Integer failureRetentionPeriodInDays = canary.failureRetentionPeriodInDays();
-        String executionRoleArn = canary.executionRoleArn();
-        String artifactS3Location = canary.artifactS3Location();
-        VpcConfigInput vpcConfigInput = null;
-        VisualReferenceInput visualReferenceInput = null;
-        ArtifactConfigInput artifactConfigInput = null;
-        String provisionedResourceCleanupSetting = canary.provisionedResourceCleanupAsString();
-
-        if (!Objects.equals(handlerName, model.getCode().getHandler())) {
-            log("Updating handler");
-            handlerName = model.getCode().getHandler();
-        }
-
-        if (!Objects.equals(scheduleExpression, model.getSchedule().getExpression())) {
-            log("Updating scheduleExpression");
-            scheduleExpression = model.getSchedule().getExpression();
+    /**
+     * Finishes an update that did not need UpdateCanary. The canary never enters UPDATING, so
+     * it is re-read (tags may have changed) and handled as if the update had just completed,
+     * ignoring any state reason left over from an earlier operation.
+     */
+    private ProgressEvent<ResourceModel, CallbackContext> completeWithoutUpdate() {
+        Canary canary = getCanaryOrThrow();
+        Canary unchanged = canary.toBuilder()
+            .status(canary.status().toBuilder().stateReason(null).build())
+            .build();
+        if (unchanged.status().state() == CanaryState.RUNNING) {
+            return handleCanaryInStateRunning(unchanged);
+        } else if (unchanged.status().state() == CanaryState.READY || unchanged.status().state() == CanaryState.STOPPED) {
+            return handleCanaryInStateReadyOrStopped(unchanged);
         }
+        // Someone else changed the canary in the meantime; follow it like any other update.
+        return handleRequest();
+    }
 
-        if (!Objects.equals(durationInSecs, model.getSchedule().getDurationInSeconds())) {
-            log("Updating durationInSecs");
-            durationInSecs = model.getSchedule().getDurationInSeconds();
+    private ProgressEvent<ResourceModel, CallbackContext> updateCanary(Canary canary) {
+        final CanaryUpdateDiff diff = CanaryUpdateDiff.between(canary, model, request.getPreviousResourceState());
+        // A canary in ERROR is always sent an update so that provisioning is retried.
+        final boolean skipUpdate = diff.isEmpty() && SKIPPABLE_UPDATE_STATES.contains(canary.status().state());
+        if (skipUpdate) {
+            log("No canary properties changed, skipping UpdateCanary");
+        } else {
+            log(String.format("Updating %s", diff.getChangedFields()));
         }
+        final UpdateCanaryRequest updateCanaryRequest = diff.toRequest(model.getName());
 
-        if (model.getRunConfig() != null) {
-            if (!Objects.equals(timeoutInSeconds, model.getRunConfig().getTimeoutInSeconds())) {
-                log("Updating timeoutInSeconds");
-                timeoutInSeconds = model.getRunConfig().getTimeoutInSeconds();
-            }
-
-            if (model.getRunConfig().getMemoryInMB() != null &&
-                !Objects.equals(memoryInMB, model.getRunConfig().getMemoryInMB())) {
-                log("Updating memory");
-                memoryInMB = model.getRunConfig().getMemoryInMB();
-            }
-
-            if (model.getRunConfig().getActiveTracing() != null && !Objects.equals(activeTracing, model.getRunConfig().getActiveTracing())) {
-                log("Updating active tracing");
-                activeTracing = Boolean.TRUE.equals(model.getRunConfig().getActiveTracing());
+        final TagReconciler tagReconciler = new TagReconciler(this::invoke, syntheticsClient, lambdaClient, this::log);
+        // Read the Lambda function's tags while UpdateCanary is in flight.
+        final CompletableFuture<Map<String, String>> lambdaTagsFuture = listLambdaTagsAsync(tagReconciler, canary);
+        boolean updateSent = false;
+        try {
+            if (!skipUpdate) {
+                mutateCanary(model.getName(), updateCanaryRequest, syntheticsClient::updateCanary);
+                updateSent = true;
             }
 
-            // Since we cannot get environment variables in the get call, as far as the value is present in the request, we replace
-            if (model.getRunConfig().getEnvironmentVariables() != null) {
-                log("Replacing environment variables");
-                environmentVariables = model.getRunConfig().getEnvironmentVariables();
+            ProgressEvent<ResourceModel, CallbackContext> tagFailure = reconcileTags(canary, tagReconciler, lambdaTagsFuture);
+            if (tagFailure != null) {
+                return tagFailure;
             }
         }
-
-        if (!ModelHelper.isNullOrEmpty(model.getVPCConfig())) {
-            log("Updating vpcConfig");
-            vpcConfigInput = VpcConfigInput.builder()
-                .subnetIds(model.getVPCConfig().getSubnetIds())
-                .securityGroupIds(model.getVPCConfig().getSecurityGroupIds())
-                .build();
-        } else {
-            vpcConfigInput = VpcConfigInput.builder()
-                .subnetIds(Collections.emptyList())
-                .securityGroupIds(Collections.emptyList())
-                .build();
-        }
-
-        if (!Objects.equals(successRetentionPeriodInDays, model.getSuccessRetentionPeriod())) {
-            log("Updating successRetentionPeriodInDays");
-            successRetentionPeriodInDays = model.getSuccessRetentionPeriod();
-        }
-
-        if (!Objects.equals(failureRetentionPeriodInDays, model.getFailureRetentionPeriod())) {
-            log("Updating failureRetentionPeriodInDays");
-            failureRetentionPeriodInDays = model.getFailureRetentionPeriod();
-        }
-
-        if (!Objects.equals(executionRoleArn, model.getExecutionRoleArn())) {
-            log("Updating executionRoleArn");
-            executionRoleArn = model.getExecutionRoleArn();
+        catch (final ApiRateLimiter.ThrottledException e) {
+            if (updateSent) {
+                // The canary is already updating, so the next invocation only retries the tag calls.
+                context.setCanaryTagsPending(true);
+                throw e;
+            }
+            // Nothing was sent, or only tags whose diff is rebuilt from the canary, so the step runs again.
+            context.setCanaryUpdateStarted(false);
+            context.setInitialCanaryState(null);
+            throw e;
+        } catch (final ValidationException e) {
+            throw new CfnInvalidRequestException(e);
+        } catch (final Exception e) {
+            throw new CfnGeneralServiceException(e);
         }
-
-        if (!ModelHelper.visualReferenceNeedsUpdate(canary.visualReference(), model.getVisualReference())) {
-            log("Updating VisualReference");
-            visualReferenceInput = ModelHelper.getVisualReferenceInput(model.getVisualReference());
+        if (skipUpdate) {
+            return completeWithoutUpdate();
         }
+        return ProgressEvent.<ResourceModel, CallbackContext>builder()
+                .callbackContext(context)
+                .resourceModel(model)
+                .status(OperationStatus.IN_PROGRESS)
+                .callbackDelaySeconds(getCallbackDelaySeconds(CanaryState.UPDATING))
+                .build();
+    }
 
-        if (!Objects.equals(artifactS3Location, model.getArtifactS3Location())) {
-            log("Updating ArtifactS3Location");
-            artifactS3Location = model.getArtifactS3Location();
+    /**
+     * Retries the tag calls that were throttled after UpdateCanary had been accepted. The diffs
+     * are rebuilt from the canary's current tags, so calls that went through are not repeated.
+     * The tags stay pending if they are throttled again.
+     *
+     * @return a failure event, or null once the tags are in place
+     */
+    private ProgressEvent<ResourceModel, CallbackContext> retryPendingTags(Canary canary) {
+        log("Retrying tag changes after the canary update");
+        final TagReconciler tagReconciler = new TagReconciler(this::invoke, syntheticsClient, lambdaClient, this::log);
+        final ProgressEvent<ResourceModel, CallbackContext> tagFailure;
+        try {
+            tagFailure = reconcileTags(canary, tagReconciler, listLambdaTagsAsync(tagReconciler, canary));
+        } catch (final ApiRateLimiter.ThrottledException e) {
+            throw e;
+        } catch (final ValidationException e) {
+            throw new CfnInvalidRequestException(e);
+        } catch (final Exception e) {
+            throw new CfnGeneralServiceException(e);
         }
-
-        if (ModelHelper.provisionedResourceCleanupSettingHasUpdate(canary, model)) {
-            log("Updating ProvisionedResourceCleanup");
-            provisionedResourceCleanupSetting = ModelHelper.getProvisionedResourceCleanupSetting(model);
+        if (tagFailure == null) {
+            context.setCanaryTagsPending(false);
         }
+        return tagFailure;
+    }
 
-        final CanaryCodeInput canaryCodeInput = CanaryCodeInput.builder()
-                .handler(handlerName)
-                .s3Bucket(model.getCode().getS3Bucket())
-                .s3Key(model.getCode().getS3Key())
-                .s3Version(model.getCode().getS3ObjectVersion())
-                .zipFile(model.getCode().getScript() != null ? ModelHelper.compressRawScript(model) : null)
-                .build();
-
-        final CanaryScheduleInput canaryScheduleInput = CanaryScheduleInput.builder()
-                .expression(scheduleExpression)
-                .durationInSeconds(durationInSecs != null ? Long.valueOf(durationInSecs) : null).build();
-
-        final CanaryRunConfigInput canaryRunConfigInput = CanaryRunConfigInput.builder()
-                .timeoutInSeconds(timeoutInSeconds)
-                .memoryInMB(memoryInMB)
-                .activeTracing(activeTracing)
-                .environmentVariables(environmentVariables)
-                .build();
-
-        final UpdateCanaryRequest updateCanaryRequest = UpdateCanaryRequest.builder()
-                .name(model.getName())
-                .artifactS3Location(artifactS3Location)
-                .code(canaryCodeInput)
-                .executionRoleArn(executionRoleArn)
-                .runtimeVersion(model.getRuntimeVersion())
-                .schedule(canaryScheduleInput)
-                .runConfig(canaryRunConfigInput)
-                .successRetentionPeriodInDays(successRetentionPeriodInDays)
-                .failureRetentionPeriodInDays(failureRetentionPeriodInDays)
-                .vpcConfig(vpcConfigInput)
-                .artifactConfig(ModelHelper.getArtifactConfigInput(model.getArtifactConfig()))
-                .visualReference(visualReferenceInput)
-                .provisionedResourceCleanup(provisionedResourceCleanupSetting)
-                .build();
+    private CompletableFuture<Map<String, String>> listLambdaTagsAsync(TagReconciler tagReconciler, Canary canary) {
+        return replicateLambdaTags() ? tagReconciler.listLambdaTagsAsync(lambdaArn(canary)) : null;
+    }
 
+    /**
+     * Brings the tags of the canary, and of its Lambda function when they are replicated, in line
+     * with the model.
+     *
+     * @return a failure event when tagging permissions are missing, otherwise null
+     */
+    private ProgressEvent<ResourceModel, CallbackContext> reconcileTags(Canary canary,
+                                                                       TagReconciler tagReconciler,
+                                                                       CompletableFuture<Map<String, String>> lambdaTagsFuture) {
         // Build diff of tags between existing canary tags and new tags to apply to canary
-        Map<String, Map<String, String>> canaryTagDiff = ModelHelper.buildTagDiff(model.getTags(), canary.tags());
- 
-        Map<String, Map<String, String>> lambdaTagDiff = Map.of(
-                ADD_TAGS, new HashMap<>(),
-                REMOVE_TAGS, new HashMap<>()
-        );
-        String lambdaArn = canary.engineArn().substring(0, canary.engineArn().lastIndexOf(":"));
-        boolean replicateLambdaTags = model.getResourcesToReplicateTags() != null && model.getResourcesToReplicateTags().contains(ResourceToTag.LAMBDA_FUNCTION.toString());
- 
-        // Get list of current tags applied to Lambda function
-        if (replicateLambdaTags) {
+        TagDiff canaryTagDiff = ModelHelper.buildTagDiff(model.getTags(), canary.tags());
+        TagDiff lambdaTagDiff = null;
+        if (lambdaTagsFuture != null) {
             try {
-                log("Retrieving list of existing Lambda tags");
-                ListTagsRequest listTagsRequest = ListTagsRequest
-                        .builder()
-                        .resource(lambdaArn)
-                        .build();
- 
-                ListTagsResponse listTagsResponse = proxy.injectCredentialsAndInvokeV2(listTagsRequest, lambdaClient::listTags);
-                Map<String, String> previousLambdaTags = listTagsResponse.tags();
- 
                 // Build diff of tags between existing Lambda function tags and new tags to apply to Lambda function
-                lambdaTagDiff = ModelHelper.buildTagDiff(model.getTags(), previousLambdaTags);
+                lambdaTagDiff = ModelHelper.buildTagDiff(model.getTags(), TagReconciler.join(lambdaTagsFuture));
             } catch (final AwsServiceException e) {
                 if (ModelHelper.isMissingTaggingPermissionsError(e)) {
                     log(String.format("Failed to retrieve existing Lambda tags: %s", e.getMessage()));
@@ -355,93 +322,36 @@ public class UpdateHandler extends CanaryActionHandler {
                             e.getMessage()
                     );
                 }
- 
-                throw e;
-            }
- 
-            log("Successfully retrieved existing Lambda tags");
-        }
-        try {
-            proxy.injectCredentialsAndInvokeV2(updateCanaryRequest, syntheticsClient::updateCanary);
-            try {
-                Map<String, String> canaryAddTags = canaryTagDiff.get(ADD_TAGS);
-                Map<String, String> canaryRemoveTags = canaryTagDiff.get(REMOVE_TAGS);
-                Map<String, String> lambdaAddTags = lambdaTagDiff.get(ADD_TAGS);
-                Map<String, String> lambdaRemoveTags = lambdaTagDiff.get(REMOVE_TAGS);
- 
-                // Add/update tag names/values on canary if necessary
-                if (!canaryAddTags.isEmpty()) {
-                    int modifiedCanaryTagsCount = canaryAddTags.size();
-                    log(String.format("Adding/updating %s canary tags", modifiedCanaryTagsCount));
-                    TagResourceRequest tagResourceRequest = TagResourceRequest.builder()
-                            .resourceArn(ModelHelper.buildCanaryArn(request, model.getName()))
-                            .tags(canaryAddTags)
-                            .build();
-                    proxy.injectCredentialsAndInvokeV2(tagResourceRequest, syntheticsClient::tagResource);
-                    log(String.format("Successfully added/updated %s canary tags", modifiedCanaryTagsCount));
-                }
 
-                // Add/update tag names/values on Lambda function if necessary
-                if (replicateLambdaTags && !lambdaAddTags.isEmpty()) {
-                    int modifiedLambdaTagsCount = lambdaAddTags.size();
-                    log(String.format("Adding/updating %s Lambda tags", modifiedLambdaTagsCount));
-                    software.amazon.awssdk.services.lambda.model.TagResourceRequest lambdaTagResourceRequest = software.amazon.awssdk.services.lambda.model.TagResourceRequest.builder()
-                            .resource(lambdaArn)
-                            .tags(lambdaAddTags)
-                            .build();
- 
-                    proxy.injectCredentialsAndInvokeV2(lambdaTagResourceRequest, lambdaClient::tagResource);
-                    log(String.format("Successfully added/updated %s Lambda tags", modifiedLambdaTagsCount));
-                }
- 
-                // Remove tags on canary if necessary
-                if (!canaryRemoveTags.isEmpty()) {
-                    int removedCanaryTagsCount = canaryRemoveTags.size();
-                    log(String.format("Removing %s canary tags", removedCanaryTagsCount));
-                    UntagResourceRequest untagResourceRequest = UntagResourceRequest.builder()
-                            .resourceArn(ModelHelper.buildCanaryArn(request, model.getName()))
-                            .tagKeys(canaryRemoveTags.keySet())
-                            .build();
-                    proxy.injectCredentialsAndInvokeV2(untagResourceRequest, syntheticsClient::untagResource);
-                    log(String.format("Successfully removed %s canary tags", removedCanaryTagsCount));
-                }
-
-                // Remove tags on Lambda function if necessary
-                if (replicateLambdaTags && !lambdaRemoveTags.isEmpty()) {
-                    int removedLambdaTagsCount = lambdaRemoveTags.size();
-                    log(String.format("Removing %s Lambda tags", removedLambdaTagsCount));
-                    software.amazon.awssdk.services.lambda.model.UntagResourceRequest lambdaUntagResourceRequest = software.amazon.awssdk.services.lambda.model.UntagResourceRequest.builder()
-                            .resource(lambdaArn)
-                            .tagKeys(lambdaRemoveTags.keySet())
-                            .build();
- 
-                    proxy.injectCredentialsAndInvokeV2(lambdaUntagResourceRequest, lambdaClient::untagResource);
-                    log(String.format("Successfully removed %s Lambda tags", removedLambdaTagsCount));
-                }
-            } catch (final AwsServiceException e) {
-                if (ModelHelper.isMissingTaggingPermissionsError(e)) {
-                    log(String.format("Failed to modify tags on canary/Lambda during update: %s", e.getMessage()));
-                    return ProgressEvent.<ResourceModel, CallbackContext>failed(
-                            model,
-                            context,
-                            HandlerErrorCode.UnauthorizedTaggingOperation,
-                            e.getMessage()
-                    );
-                }
- 
                 throw e;
             }
         }
-        catch (final ValidationException e) {
-            throw new CfnInvalidRequestException(e);
-        } catch (final Exception e) {
-            throw new CfnGeneralServiceException(e);
+
+        String taggingPermissionError = tagReconciler.reconcile(
+            canaryTagDiff.isEmpty() ? null : ModelHelper.buildCanaryArn(request, model.getName()),
+            canaryTagDiff,
+            lambdaTagsFuture != null ? lambdaArn(canary) : null,
+            lambdaTagDiff);
+        // The canary's tags are part of GetCanary, so later reads must not see the old ones.
+        invalidateCanary(model.getName());
+        if (taggingPermissionError != null) {
+            log(String.format("Failed to modify tags on canary/Lambda during update: %s", taggingPermissionError));
+            return ProgressEvent.<ResourceModel, CallbackContext>failed(
+                    model,
+                    context,
+                    HandlerErrorCode.UnauthorizedTaggingOperation,
+                    taggingPermissionError
+            );
         }
-        return ProgressEvent.<ResourceModel, CallbackContext>builder()
-                .callbackContext(context)
-                .resourceModel(model)
-                .status(OperationStatus.IN_PROGRESS)
-                .callbackDelaySeconds(CALLBACK_DELAY_SECONDS)
-                .build();
+        return null;
+    }
+
+    private boolean replicateLambdaTags() {
+        return model.getResourcesToReplicateTags() != null
+            && model.getResourcesToReplicateTags().contains(ResourceToTag.LAMBDA_FUNCTION.toString());
+    }
+
+    private static String lambdaArn(Canary canary) {
+        return canary.engineArn().substring(0, canary.engineArn().lastIndexOf(":"));
     }
 }
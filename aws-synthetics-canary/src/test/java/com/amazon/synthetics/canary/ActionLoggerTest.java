@@ -0,0 +1,71 @@
+package com.amazon.synthetics.canary;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.Action;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ActionLoggerTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final List<String> lines = new ArrayList<>();
+    private final CallbackContext context = CallbackContext.builder().build();
+    private final ActionLogger actionLogger = new ActionLogger(
+        lines::add, Action.CREATE, "123456789012", context, ResourceModel.builder().name("canary").build());
+
+    @Test
+    public void log_message_writesFieldsInFixedOrder() throws Exception {
+        actionLogger.log("Creating canary.");
+
+        JsonNode json = MAPPER.readTree(lines.get(0));
+        List<String> fieldNames = new ArrayList<>();
+        Iterator<String> iterator = json.fieldNames();
+        iterator.forEachRemaining(fieldNames::add);
+        assertThat(fieldNames).containsExactly("action", "awsAccountId", "resourceName", "message");
+        assertThat(json.get("action").asText()).isEqualTo("CREATE");
+        assertThat(json.get("message").asText()).isEqualTo("Creating canary.");
+    }
+
+    @Test
+    public void log_message_includesStabilizationProgress() throws Exception {
+        context.setRetryKey("CREATING");
+        context.setStabilizationStartMillis(System.currentTimeMillis());
+        context.setStabilizationBudgetMillis(600_000);
+
+        actionLogger.log("Creating canary");
+
+        JsonNode json = MAPPER.readTree(lines.get(0));
+        assertThat(json.get("retryKey").asText()).isEqualTo("CREATING");
+        assertThat(json.get("stabilizationElapsedMillis").asLong()).isBetween(0L, 600_000L);
+        assertThat(json.get("stabilizationBudgetMillis").asLong()).isEqualTo(600_000L);
+    }
+
+    @Test
+    public void log_exception_flattensCauseChainWithBoundedDepth() throws Exception {
+        Exception exception = new IllegalStateException("level 0");
+        Throwable innermost = exception;
+        for (int i = 1; i <= ActionLogger.MAX_CAUSE_DEPTH + 2; i++) {
+            Throwable cause = new RuntimeException("level " + i);
+            innermost.initCause(cause);
+            innermost = cause;
+        }
+
+        actionLogger.log(exception);
+
+        JsonNode node = MAPPER.readTree(lines.get(0)).get("exception");
+        assertThat(node.get("type").asText()).isEqualTo(IllegalStateException.class.getName());
+        assertThat(node.get("stackTrace").size()).isLessThanOrEqualTo(ActionLogger.MAX_STACK_FRAMES);
+        int depth = 1;
+        while (node.has("cause")) {
+            node = node.get("cause");
+            depth++;
+        }
+        assertThat(depth).isEqualTo(ActionLogger.MAX_CAUSE_DEPTH);
+        assertThat(node.get("causeTruncated").asBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,45 @@
+package com.amazon.synthetics.canary;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.exceptions.CfnNotStabilizedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CallbackContextTest {
+    private static final Duration BUDGET = Duration.ofMinutes(10);
+    private static final ResourceModel MODEL = ResourceModel.builder().name("canary").build();
+
+    @Test
+    public void throwIfStabilizationBudgetExceeded_withinBudget_recordsStartAndBudget() {
+        CallbackContext context = CallbackContext.builder().build();
+
+        context.throwIfStabilizationBudgetExceeded(BUDGET, "CREATING", 1_000, MODEL);
+        context.throwIfStabilizationBudgetExceeded(BUDGET, "CREATING", 61_000, MODEL);
+
+        assertThat(context.getStabilizationStartMillis()).isEqualTo(1_000);
+        assertThat(context.getStabilizationBudgetMillis()).isEqualTo(BUDGET.toMillis());
+        assertThat(context.getStabilizationElapsedMillis(61_000)).isEqualTo(60_000);
+    }
+
+    @Test
+    public void throwIfStabilizationBudgetExceeded_budgetElapsed_throws() {
+        CallbackContext context = CallbackContext.builder().build();
+        context.throwIfStabilizationBudgetExceeded(BUDGET, "CREATING", 0, MODEL);
+
+        assertThatThrownBy(() -> context.throwIfStabilizationBudgetExceeded(BUDGET, "CREATING", BUDGET.toMillis(), MODEL))
+            .isInstanceOf(CfnNotStabilizedException.class);
+    }
+
+    @Test
+    public void throwIfStabilizationBudgetExceeded_newRetryKey_restartsClock() {
+        CallbackContext context = CallbackContext.builder().build();
+        context.throwIfStabilizationBudgetExceeded(BUDGET, "CREATING", 0, MODEL);
+
+        context.throwIfStabilizationBudgetExceeded(BUDGET, "READY", BUDGET.toMillis() + 1, MODEL);
+
+        assertThat(context.getRetryKey()).isEqualTo("READY");
+        assertThat(context.getStabilizationElapsedMillis(BUDGET.toMillis() + 1)).isEqualTo(0);
+    }
+}
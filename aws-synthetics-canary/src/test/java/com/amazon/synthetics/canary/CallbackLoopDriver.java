@@ -0,0 +1,121 @@
+package com.amazon.synthetics.canary;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import lombok.Value;
+import software.amazon.cloudformation.exceptions.BaseHandlerException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Credentials;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+/**
+ * Replays CloudFormation's callback loop against the real handlers, backed by
+ * {@link FakeSynthetics} and {@link FakeLambda}. Every IN_PROGRESS event advances a simulated
+ * clock by its callback delay, and the callback context is passed on through JSON as
+ * CloudFormation would, so a whole create, update or delete runs in milliseconds while the
+ * reported stabilization time reflects what CloudFormation would have waited.
+ */
+public class CallbackLoopDriver {
+    static final int MAX_INVOCATIONS = 1_000;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final AtomicLong nowMillis = new AtomicLong(0);
+    private final FakeLambda lambda = new FakeLambda();
+    private final FakeSynthetics synthetics = new FakeSynthetics(nowMillis::get, lambda);
+    // Throttle backoff has to follow the simulated clock, not the container's.
+    private final HandlerClients clients = new HandlerClients((region, metrics) -> synthetics, (region, metrics) -> lambda,
+        new ApiRateLimiter(0, () -> TimeUnit.MILLISECONDS.toNanos(nowMillis.get())));
+    private final AmazonWebServicesClientProxy proxy = new AmazonWebServicesClientProxy(
+        new LoggerProxy(), new Credentials("accessKey", "secretKey", "token"), () -> Duration.ofMinutes(15).toMillis());
+    private final Logger logger;
+
+    public CallbackLoopDriver(Logger logger) {
+        this.logger = logger;
+    }
+
+    public FakeSynthetics getSynthetics() {
+        return synthetics;
+    }
+
+    public FakeLambda getLambda() {
+        return lambda;
+    }
+
+    /**
+     * Builds the handler against the fakes and invokes it until it stops returning IN_PROGRESS.
+     * Handler exceptions end the loop as a failure with the exception's error code, as the wrapper
+     * would report them.
+     */
+    public Result run(Function<HandlerClients, ? extends CanaryActionHandler> handlerFactory,
+                      ResourceHandlerRequest<ResourceModel> request) {
+        CanaryActionHandler handler = handlerFactory.apply(clients);
+        // Inline polls sleep on the wall clock, which the fakes do not follow.
+        handler.setInlinePollingBudgetMillis(0);
+        synthetics.resetCalls();
+        lambda.resetCalls();
+        long startMillis = nowMillis.get();
+        CallbackContext context = null;
+        for (int invocations = 1; invocations <= MAX_INVOCATIONS; invocations++) {
+            ProgressEvent<ResourceModel, CallbackContext> event;
+            try {
+                event = handler.handleRequest(proxy, request, context, logger);
+            } catch (BaseHandlerException e) {
+                event = ProgressEvent.failed(request.getDesiredResourceState(), context, e.getErrorCode(), e.getMessage());
+            }
+            if (event.getStatus() != OperationStatus.IN_PROGRESS) {
+                Result result = new Result(event.getStatus(), event.getErrorCode(), event.getMessage(), invocations,
+                    nowMillis.get() - startMillis, apiCalls(), synthetics.getThrottledCalls());
+                logger.log(String.format("Callback loop finished: %s", result));
+                return result;
+            }
+            nowMillis.addAndGet(TimeUnit.SECONDS.toMillis(event.getCallbackDelaySeconds()));
+            context = roundTrip(event.getCallbackContext());
+        }
+        throw new IllegalStateException(String.format("Handler still in progress after %d invocations", MAX_INVOCATIONS));
+    }
+
+    private Map<String, Integer> apiCalls() {
+        Map<String, Integer> calls = new TreeMap<>();
+        synthetics.getCalls().forEach((operation, count) -> calls.put("synthetics:" + operation, count));
+        lambda.getCalls().forEach((operation, count) -> calls.put("lambda:" + operation, count));
+        return calls;
+    }
+
+    private static CallbackContext roundTrip(CallbackContext context) {
+        if (context == null) {
+            return null;
+        }
+        try {
+            return MAPPER.readValue(MAPPER.writeValueAsString(context), CallbackContext.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Value
+    public static class Result {
+        OperationStatus status;
+        HandlerErrorCode errorCode;
+        String message;
+        int invocations;
+        long stabilizationMillis;
+        Map<String, Integer> apiCalls;
+        int throttledCalls;
+
+        public int getTotalApiCalls() {
+            return apiCalls.values().stream().mapToInt(Integer::intValue).sum();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.amazon.synthetics.canary;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.synthetics.model.Canary;
+import software.amazon.awssdk.services.synthetics.model.CanaryState;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CallbackLoopDriverTest extends TestBase {
+    private static final String RUNTIME_VERSION = "syn-nodejs-2.0-beta";
+
+    private final CallbackLoopDriver driver = new CallbackLoopDriver(logger);
+
+    @Test
+    public void create_startCanaryAfterCreation_stabilizesInRunning() {
+        driver.getSynthetics()
+            .withLatency(CanaryState.CREATING, Duration.ofSeconds(40))
+            .withLatency(CanaryState.STARTING, Duration.ofSeconds(20));
+
+        CallbackLoopDriver.Result result = driver.run(CreateHandler::new, request(buildModel(RUNTIME_VERSION, false, true, false, null)));
+
+        assertThat(result.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(driver.getSynthetics().findCanary(CANARY_NAME).status().state()).isEqualTo(CanaryState.RUNNING);
+        assertThat(result.getStabilizationMillis()).isGreaterThanOrEqualTo(Duration.ofSeconds(60).toMillis());
+        assertThat(result.getApiCalls())
+            .containsEntry("synthetics:CreateCanary", 1)
+            .containsEntry("synthetics:StartCanary", 1);
+        assertThat(result.getThrottledCalls()).isZero();
+    }
+
+    @Test
+    public void update_runningCanary_replicatesTagsAndKeepsRunning() {
+        driver.run(CreateHandler::new, request(buildModel(RUNTIME_VERSION, false, true, true, null)));
+        ResourceModel previous = buildModel(RUNTIME_VERSION, false, true, true, null);
+        ResourceModel desired = buildModel(RUNTIME_VERSION, false, true, true, null);
+        desired.getTags().add(Tag.builder().key("added").value("value").build());
+
+        CallbackLoopDriver.Result result = driver.run(UpdateHandler::new, ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(desired)
+            .previousResourceState(previous)
+            .awsPartition("aws")
+            .region(FakeSynthetics.REGION)
+            .awsAccountId(FakeSynthetics.ACCOUNT_ID)
+            .build());
+
+        Canary canary = driver.getSynthetics().findCanary(CANARY_NAME);
+        assertThat(result.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(canary.status().state()).isEqualTo(CanaryState.RUNNING);
+        assertThat(canary.tags()).containsEntry("added", "value");
+        assertThat(driver.getLambda().tags(FakeSynthetics.functionArn(canary))).containsEntry("added", "value");
+        assertThat(result.getApiCalls()).containsKey("lambda:ListTags");
+    }
+
+    @Test
+    public void delete_runningCanary_stopsThenDeletes() {
+        driver.run(CreateHandler::new, request(buildModel(RUNTIME_VERSION, false, true, false, null)));
+        driver.getSynthetics()
+            .withLatency(CanaryState.STOPPING, Duration.ofSeconds(10))
+            .withLatency(CanaryState.DELETING, Duration.ofSeconds(10));
+
+        CallbackLoopDriver.Result result = driver.run(DeleteHandler::new, request(buildModel(RUNTIME_VERSION, false, true, false, null)));
+
+        assertThat(result.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(driver.getSynthetics().findCanary(CANARY_NAME)).isNull();
+        assertThat(result.getStabilizationMillis()).isGreaterThanOrEqualTo(Duration.ofSeconds(20).toMillis());
+        assertThat(result.getApiCalls())
+            .containsEntry("synthetics:StopCanary", 1)
+            .containsEntry("synthetics:DeleteCanary", 1);
+    }
+
+    @Test
+    public void create_throttled_backsOffAndStabilizes() {
+        CallbackLoopDriver.Result unthrottled = new CallbackLoopDriver(logger)
+            .run(CreateHandler::new, request(buildModel(RUNTIME_VERSION, false, true, false, null)));
+        driver.getSynthetics().throttleEvery(3);
+
+        CallbackLoopDriver.Result result = driver.run(CreateHandler::new, request(buildModel(RUNTIME_VERSION, false, true, false, null)));
+
+        assertThat(result.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(driver.getSynthetics().findCanary(CANARY_NAME).status().state()).isEqualTo(CanaryState.RUNNING);
+        assertThat(result.getThrottledCalls()).isPositive();
+        assertThat(result.getInvocations()).isGreaterThan(unthrottled.getInvocations());
+    }
+
+    private static ResourceHandlerRequest<ResourceModel> request(ResourceModel model) {
+        return ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .awsPartition("aws")
+            .region(FakeSynthetics.REGION)
+            .awsAccountId(FakeSynthetics.ACCOUNT_ID)
+            .build();
+    }
+}
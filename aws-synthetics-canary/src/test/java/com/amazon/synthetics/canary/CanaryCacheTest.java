@@ -0,0 +1,30 @@
+package com.amazon.synthetics.canary;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.synthetics.model.Canary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CanaryCacheTest {
+    private static final Canary CANARY = Canary.builder().name("canary-1").build();
+
+    @Test
+    public void get_servesCanaryUntilInvalidated() {
+        CanaryCache cache = new CanaryCache();
+
+        cache.put("canary-1", CANARY);
+        assertThat(cache.get("canary-1")).isSameAs(CANARY);
+
+        cache.invalidate("canary-1");
+        assertThat(cache.get("canary-1")).isNull();
+    }
+
+    @Test
+    public void put_canaryNotFound_isNotRemembered() {
+        CanaryCache cache = new CanaryCache();
+
+        cache.put("canary-1", null);
+
+        assertThat(cache.get("canary-1")).isNull();
+    }
+}
@@ -0,0 +1,175 @@
+package com.amazon.synthetics.canary;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.synthetics.model.Canary;
+import software.amazon.awssdk.services.synthetics.model.CanaryCodeOutput;
+import software.amazon.awssdk.services.synthetics.model.CanaryRunConfigOutput;
+import software.amazon.awssdk.services.synthetics.model.CanaryScheduleOutput;
+import software.amazon.awssdk.services.synthetics.model.CanaryState;
+import software.amazon.awssdk.services.synthetics.model.CanaryStatus;
+import software.amazon.awssdk.services.synthetics.model.UpdateCanaryRequest;
+import software.amazon.awssdk.services.synthetics.model.VisualReferenceOutput;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CanaryUpdateDiffTest {
+    static final String SCRIPT = "exports.handler = async () => 'ok';";
+
+    static ResourceModel desiredModel() {
+        return ResourceModel.builder()
+            .name("canary")
+            .code(Code.builder().handler("index.handler").script(SCRIPT).build())
+            .schedule(Schedule.builder().expression("rate(5 minutes)").build())
+            .runtimeVersion("syn-nodejs-puppeteer-9.1")
+            .executionRoleArn("arn:aws:iam::123456789012:role/canary")
+            .artifactS3Location("s3://bucket/prefix")
+            .runConfig(RunConfig.builder().timeoutInSeconds(60).build())
+            .startCanaryAfterCreation(true)
+            .build();
+    }
+
+    static Canary deployedCanary(CanaryState state) {
+        return Canary.builder()
+            .name("canary")
+            .code(CanaryCodeOutput.builder().handler("index.handler").build())
+            .schedule(CanaryScheduleOutput.builder().expression("rate(5 minutes)").durationInSeconds(0L).build())
+            .runtimeVersion("syn-nodejs-puppeteer-9.1")
+            .executionRoleArn("arn:aws:iam::123456789012:role/canary")
+            .artifactS3Location("bucket/prefix")
+            .runConfig(CanaryRunConfigOutput.builder().timeoutInSeconds(60).memoryInMB(960).activeTracing(false).build())
+            .engineArn("arn:aws:lambda:us-west-2:123456789012:function:canary:1")
+            .status(CanaryStatus.builder().state(state).build())
+            .build();
+    }
+
+    @Test
+    public void between_unchangedCanary_isEmpty() {
+        CanaryUpdateDiff diff = CanaryUpdateDiff.between(deployedCanary(CanaryState.RUNNING), desiredModel(), desiredModel());
+
+        assertThat(diff.isEmpty()).isTrue();
+        UpdateCanaryRequest request = diff.toRequest("canary");
+        assertThat(request.code()).isNull();
+        assertThat(request.schedule()).isNull();
+        assertThat(request.runConfig()).isNull();
+        assertThat(request.vpcConfig()).isNull();
+        assertThat(request.artifactConfig()).isNull();
+        assertThat(request.runtimeVersion()).isEqualTo("syn-nodejs-puppeteer-9.1");
+    }
+
+    @Test
+    public void between_withoutPreviousState_sendsCode() {
+        CanaryUpdateDiff diff = CanaryUpdateDiff.between(deployedCanary(CanaryState.RUNNING), desiredModel(), null);
+
+        assertThat(diff.getChangedFields()).containsExactly("Code");
+        assertThat(diff.getCode().zipFile()).isEqualTo(ModelHelper.compressRawScript(desiredModel()));
+    }
+
+    @Test
+    public void between_changedSchedule_onlySendsSchedule() {
+        ResourceModel model = desiredModel();
+        model.getSchedule().setExpression("rate(10 minutes)");
+
+        CanaryUpdateDiff diff = CanaryUpdateDiff.between(deployedCanary(CanaryState.RUNNING), model, desiredModel());
+
+        assertThat(diff.getChangedFields()).containsExactly("Schedule");
+        assertThat(diff.getSchedule().expression()).isEqualTo("rate(10 minutes)");
+        assertThat(diff.getCode()).isNull();
+    }
+
+    @Test
+    public void between_changedTimeout_sendsWholeRunConfig() {
+        ResourceModel model = desiredModel();
+        model.getRunConfig().setTimeoutInSeconds(120);
+
+        CanaryUpdateDiff diff = CanaryUpdateDiff.between(deployedCanary(CanaryState.RUNNING), model, desiredModel());
+
+        assertThat(diff.getChangedFields()).containsExactly("RunConfig");
+        assertThat(diff.getRunConfig().timeoutInSeconds()).isEqualTo(120);
+        assertThat(diff.getRunConfig().memoryInMB()).isEqualTo(960);
+        assertThat(diff.getRunConfig().activeTracing()).isFalse();
+    }
+
+    @Test
+    public void between_changedEnvironmentVariables_sendsRunConfig() {
+        ResourceModel model = desiredModel();
+        model.getRunConfig().setEnvironmentVariables(Collections.singletonMap("KEY", "value"));
+
+        CanaryUpdateDiff diff = CanaryUpdateDiff.between(deployedCanary(CanaryState.RUNNING), model, desiredModel());
+
+        assertThat(diff.getChangedFields()).containsExactly("RunConfig");
+        assertThat(diff.getRunConfig().environmentVariables()).containsEntry("KEY", "value");
+    }
+
+    @Test
+    public void between_changedScript_sendsCode() {
+        ResourceModel model = desiredModel();
+        model.getCode().setScript(SCRIPT + "\n");
+
+        CanaryUpdateDiff diff = CanaryUpdateDiff.between(deployedCanary(CanaryState.RUNNING), model, desiredModel());
+
+        assertThat(diff.getChangedFields()).containsExactly("Code");
+    }
+
+    @Test
+    public void between_unchangedFilesBundle_skipsCode() {
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put("index.js", SCRIPT);
+        files.put("lib/helpers.js", "module.exports = {};");
+        ResourceModel model = desiredModel();
+        model.getCode().setScript(null);
+        model.getCode().setFiles(files);
+        ResourceModel previous = desiredModel();
+        previous.getCode().setScript(null);
+        previous.getCode().setFiles(new TreeMap<>(files));
+
+        assertThat(CanaryUpdateDiff.between(deployedCanary(CanaryState.RUNNING), model, previous).getCode()).isNull();
+
+        previous.getCode().getFiles().put("lib/helpers.js", "module.exports = { old: true };");
+        CanaryUpdateDiff diff = CanaryUpdateDiff.between(deployedCanary(CanaryState.RUNNING), model, previous);
+        assertThat(diff.getChangedFields()).containsExactly("Code");
+        assertThat(diff.getCode().zipFile()).isEqualTo(ScriptPackager.DEFLATED.zip("/nodejs/node_modules/", files));
+    }
+
+    @Test
+    public void between_removedVpcConfig_sendsEmptyVpcConfig() {
+        Canary canary = deployedCanary(CanaryState.RUNNING).toBuilder()
+            .vpcConfig(software.amazon.awssdk.services.synthetics.model.VpcConfigOutput.builder()
+                .subnetIds("subnet-1")
+                .securityGroupIds("sg-1")
+                .build())
+            .build();
+
+        CanaryUpdateDiff diff = CanaryUpdateDiff.between(canary, desiredModel(), desiredModel());
+
+        assertThat(diff.getChangedFields()).containsExactly("VPCConfig");
+        assertThat(diff.getVpcConfig().subnetIds()).isEmpty();
+        assertThat(diff.getVpcConfig().securityGroupIds()).isEmpty();
+    }
+
+    @Test
+    public void between_visualReferenceChangedOutOfBand_sendsVisualReference() {
+        VisualReference visualReference = VisualReference.builder()
+            .baseCanaryRunId("lastrun")
+            .baseScreenshots(Collections.emptyList())
+            .build();
+        ResourceModel model = desiredModel();
+        model.setVisualReference(visualReference);
+        ResourceModel previous = desiredModel();
+        previous.setVisualReference(visualReference);
+        Canary canary = deployedCanary(CanaryState.RUNNING).toBuilder()
+            .visualReference(VisualReferenceOutput.builder().baseCanaryRunId("run-id").build())
+            .build();
+
+        CanaryUpdateDiff diff = CanaryUpdateDiff.between(canary, model, previous);
+
+        assertThat(diff.getChangedFields()).containsExactly("VisualReference");
+        assertThat(diff.getVisualReference().baseCanaryRunId()).isEqualTo("lastrun");
+        assertThat(CanaryUpdateDiff.between(canary.toBuilder()
+            .visualReference(VisualReferenceOutput.builder().baseCanaryRunId("lastrun").build())
+            .build(), model, previous).isEmpty()).isTrue();
+    }
+}
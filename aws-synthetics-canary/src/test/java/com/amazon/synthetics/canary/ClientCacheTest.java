@@ -0,0 +1,48 @@
+package com.amazon.synthetics.canary;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.synthetics.SyntheticsClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class ClientCacheTest {
+    @Test
+    public void get_sameRegion_reusesClient() {
+        AtomicInteger builds = new AtomicInteger();
+        ClientCache<SyntheticsClient> cache = new ClientCache<>(region -> {
+            builds.incrementAndGet();
+            return mock(SyntheticsClient.class);
+        });
+        List<Boolean> lookups = new ArrayList<>();
+
+        SyntheticsClient first = cache.get(Region.US_WEST_2, lookups::add);
+        SyntheticsClient second = cache.get(Region.US_WEST_2, lookups::add);
+
+        assertThat(second).isSameAs(first);
+        assertThat(builds.get()).isEqualTo(1);
+        assertThat(lookups).containsExactly(false, true);
+    }
+
+    @Test
+    public void get_differentRegion_buildsNewClient() {
+        ClientCache<SyntheticsClient> cache = new ClientCache<>(region -> mock(SyntheticsClient.class));
+
+        SyntheticsClient usWest2 = cache.get(Region.US_WEST_2);
+        SyntheticsClient cnNorth1 = cache.get(Region.CN_NORTH_1);
+
+        assertThat(cnNorth1).isNotSameAs(usWest2);
+    }
+
+    @Test
+    public void get_nullRegion_usesDefaultClient() {
+        ClientCache<SyntheticsClient> cache = new ClientCache<>(region -> mock(SyntheticsClient.class));
+
+        assertThat(cache.get(null)).isSameAs(cache.get(null));
+    }
+}
@@ -0,0 +1,63 @@
+package com.amazon.synthetics.canary;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AnonymousCredentialsProvider;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.services.synthetics.model.CreateCanaryRequest;
+import software.amazon.awssdk.services.synthetics.model.GetCanaryRequest;
+import software.amazon.awssdk.services.synthetics.model.StartCanaryRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClientProfileTest {
+    @Test
+    public void applyAttemptTimeout_read_isShort() {
+        GetCanaryRequest request = ClientProfile.applyAttemptTimeout(GetCanaryRequest.builder().name("canary").build());
+
+        assertThat(request.overrideConfiguration().get().apiCallAttemptTimeout()).contains(Duration.ofSeconds(5));
+        assertThat(request.name()).isEqualTo("canary");
+    }
+
+    @Test
+    public void applyAttemptTimeout_create_isLonger() {
+        CreateCanaryRequest request = ClientProfile.applyAttemptTimeout(CreateCanaryRequest.builder().name("canary").build());
+
+        assertThat(request.overrideConfiguration().get().apiCallAttemptTimeout()).contains(Duration.ofSeconds(30));
+    }
+
+    @Test
+    public void applyAttemptTimeout_keepsInjectedCredentials() {
+        AnonymousCredentialsProvider credentials = AnonymousCredentialsProvider.create();
+        GetCanaryRequest request = ClientProfile.applyAttemptTimeout(GetCanaryRequest.builder()
+            .name("canary")
+            .overrideConfiguration(AwsRequestOverrideConfiguration.builder().credentialsProvider(credentials).build())
+            .build());
+
+        assertThat(request.overrideConfiguration().get().credentialsProvider()).contains(credentials);
+        assertThat(request.overrideConfiguration().get().apiCallAttemptTimeout()).contains(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void applyAttemptTimeout_otherOperations_useClientDefault() {
+        StartCanaryRequest request = StartCanaryRequest.builder().name("canary").build();
+
+        assertThat(ClientProfile.applyAttemptTimeout(request)).isSameAs(request);
+    }
+
+    @Test
+    public void overrideConfiguration_boundsAttemptsAndTime() {
+        ClientOverrideConfiguration configuration = ClientProfile.overrideConfiguration();
+
+        assertThat(configuration.retryStrategy()).isPresent();
+        assertThat(configuration.retryStrategy().get().maxAttempts()).isEqualTo(ClientProfile.MAX_ATTEMPTS);
+        assertThat(configuration.apiCallAttemptTimeout()).contains(ClientProfile.DEFAULT_ATTEMPT_TIMEOUT);
+        assertThat(configuration.apiCallTimeout()).contains(ClientProfile.API_CALL_TIMEOUT);
+    }
+
+    @Test
+    public void minThrottleBackoff_exceedsSdkBackoff() {
+        assertThat(ApiRateLimiter.MIN_BACKOFF_MILLIS).isGreaterThan(ClientProfile.SDK_MAX_THROTTLE_BACKOFF_MILLIS);
+    }
+}
@@ -0,0 +1,85 @@
+package com.amazon.synthetics.canary;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CodeBundleCacheTest extends TestBase {
+    @Test
+    public void getZipFile_sameCode_returnsCachedBundle() {
+        ResourceModel model = buildModel();
+        model.getCode().setScript("exports.handler = async () => 'cached';");
+
+        long misses = CodeBundleCache.getMisses();
+        assertThat(CodeBundleCache.getZipFile(model)).isSameAs(CodeBundleCache.getZipFile(buildModelWithScript(model)));
+        assertThat(CodeBundleCache.getMisses()).isEqualTo(misses + 1);
+        assertThat(CodeBundleCache.getZipFile(model)).isEqualTo(ModelHelper.compressRawScript(model));
+    }
+
+    @Test
+    public void digest_changesWithScriptHandlerAndRuntime() {
+        ResourceModel model = buildModel();
+        String digest = CodeBundleCache.digest(model);
+
+        ResourceModel otherScript = buildModel();
+        otherScript.getCode().setScript(model.getCode().getScript() + "\n");
+        ResourceModel otherHandler = buildModel();
+        otherHandler.getCode().setHandler("other.handler");
+        ResourceModel otherRuntime = buildModel();
+        otherRuntime.setRuntimeVersion("syn-nodejs-puppeteer-9.1");
+
+        assertThat(CodeBundleCache.digest(buildModel())).isEqualTo(digest);
+        assertThat(CodeBundleCache.digest(otherScript)).isNotEqualTo(digest);
+        assertThat(CodeBundleCache.digest(otherHandler)).isNotEqualTo(digest);
+        assertThat(CodeBundleCache.digest(otherRuntime)).isNotEqualTo(digest);
+    }
+
+    @Test
+    public void getZipFile_boundedNumberOfEntries() {
+        for (int i = 0; i <= CodeBundleCache.MAX_ENTRIES; i++) {
+            ResourceModel model = buildModel();
+            model.getCode().setScript("exports.handler = async () => " + i + ";");
+            CodeBundleCache.getZipFile(model);
+        }
+
+        assertThat(CodeBundleCache.size()).isEqualTo(CodeBundleCache.MAX_ENTRIES);
+    }
+
+    @Test
+    public void digest_withoutInlineScript_isNull() {
+        ResourceModel model = buildModel();
+        model.getCode().setScript(null);
+
+        assertThat(CodeBundleCache.digest(model)).isNull();
+        assertThat(CodeBundleCache.digest(null)).isNull();
+    }
+
+    @Test
+    public void digest_files_ignoresOrderButNotContent() {
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put("pageLoadBlueprint.js", "exports.handler = async () => 'ok';");
+        files.put("lib/helpers.js", "module.exports = {};");
+        Map<String, String> reordered = new TreeMap<>(files);
+        Map<String, String> changed = new TreeMap<>(files);
+        changed.put("lib/helpers.js", "module.exports = { changed: true };");
+
+        assertThat(CodeBundleCache.digest(buildModelWithFiles(files))).isEqualTo(CodeBundleCache.digest(buildModelWithFiles(reordered)));
+        assertThat(CodeBundleCache.digest(buildModelWithFiles(files))).isNotEqualTo(CodeBundleCache.digest(buildModelWithFiles(changed)));
+    }
+
+    private static ResourceModel buildModelWithScript(ResourceModel source) {
+        ResourceModel model = buildModel();
+        model.getCode().setScript(source.getCode().getScript());
+        return model;
+    }
+
+    private static ResourceModel buildModelWithFiles(Map<String, String> files) {
+        ResourceModel model = buildModel();
+        model.getCode().setScript(null);
+        model.getCode().setFiles(files);
+        return model;
+    }
+}
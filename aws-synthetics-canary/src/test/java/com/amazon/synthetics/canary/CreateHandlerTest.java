@@ -22,11 +22,13 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 
 public class CreateHandlerTest extends TestBase {
-    private CreateHandler handler = new CreateHandler();
+    private CreateHandler handler = withoutInlinePolling(new CreateHandler(clients));
 
     @Test
     public void handleRequest_returnsInProgress() {
@@ -38,6 +40,18 @@ public class CreateHandlerTest extends TestBase {
         verify(proxy).injectCredentialsAndInvokeV2(any(CreateCanaryRequest.class), any());
     }
 
+    @Test
+    public void handleRequest_createCanaryThrottled_returnsInProgressWithDelay() {
+        doThrow(new ApiRateLimiter.ThrottledException("scope", 7, null))
+                .when(proxy).injectCredentialsAndInvokeV2(any(CreateCanaryRequest.class), any());
+
+        ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, REQUEST, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(7);
+        assertThat(response.getCallbackContext().isCanaryCreateStarted()).isFalse();
+    }
+
     @Test
     public void handleRequest_createCanaryWithTags_AccessDenied() {
         ResourceModel model = buildModel(true);
@@ -155,6 +169,41 @@ public class CreateHandlerTest extends TestBase {
         verify(proxy).injectCredentialsAndInvokeV2(eq(GetCanaryRequest.builder().name(CANARY_NAME).build()), any());
     }
 
+    @Test
+    public void handleRequest_inlinePolling_canaryBecomesReady_returnsSuccessInSameInvocation() {
+        final CreateHandler inlinePollingHandler = new CreateHandler(clients);
+        inlinePollingHandler.setInlinePollingBudgetMillis(5_000);
+        when(proxy.injectCredentialsAndInvokeV2(eq(GetCanaryRequest.builder().name(CANARY_NAME).build()), any()))
+            .thenReturn(GetCanaryResponse.builder().canary(createCanaryWithState(CanaryState.CREATING, null)).build())
+            .thenReturn(GetCanaryResponse.builder().canary(createCanaryWithState(CanaryState.READY, null)).build());
+
+        ProgressEvent<ResourceModel, CallbackContext> response = inlinePollingHandler.handleRequest(
+            proxy, REQUEST, CallbackContext.builder().canaryCreateStarted(true).build(), logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(eq(GetCanaryRequest.builder().name(CANARY_NAME).build()), any());
+    }
+
+    @Test
+    public void handleRequest_inlinePolling_budgetExhausted_returnsInProgress() {
+        final CreateHandler inlinePollingHandler = new CreateHandler(clients);
+        inlinePollingHandler.setInlinePollingBudgetMillis(1_000);
+        configureGetCanaryResponse(CanaryState.CREATING);
+
+        ProgressEvent<ResourceModel, CallbackContext> response = inlinePollingHandler.handleRequest(
+            proxy, REQUEST, CallbackContext.builder().canaryCreateStarted(true).build(), logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(eq(GetCanaryRequest.builder().name(CANARY_NAME).build()), any());
+    }
+
+    @Test
+    public void maxInlinePollingBudget_leavesRoomForOneMoreCallWithinInvocationLimit() {
+        assertThat(CanaryActionHandler.MAX_INLINE_POLLING_BUDGET_MILLIS).isPositive();
+        assertThat(CanaryActionHandler.MAX_INLINE_POLLING_BUDGET_MILLIS + ClientProfile.API_CALL_TIMEOUT.toMillis())
+            .isLessThan(CanaryActionHandler.INVOCATION_TIME_LIMIT_MILLIS);
+    }
+
     @Test
     public void handleRequest_inProgress_canaryStateIsError_fails() {
         configureGetCanaryResponse(CanaryState.ERROR, ERROR_STATE_REASON);
@@ -284,7 +333,11 @@ public class CreateHandlerTest extends TestBase {
                 .canary(canary)
                 .build();
         final CallbackContext inputContext = CallbackContext.builder().build();
-        final CallbackContext outputContext = CallbackContext.builder().canaryCreateStarted(true).build();
+        final CallbackContext outputContext = CallbackContext.builder()
+                .canaryCreateStarted(true)
+                .lastObservedState(CanaryState.CREATING)
+                .pollAttempt(1)
+                .build();
 
         doReturn(createCanaryResponse)
                 .when(proxy).injectCredentialsAndInvokeV2(eq(buildCreateCanaryRequest(false, model)), any());
@@ -294,7 +347,7 @@ public class CreateHandlerTest extends TestBase {
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
         assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(outputContext);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(10);
+        assertThat(response.getCallbackDelaySeconds()).isBetween(4, 5);
         assertThat(response.getResourceModel()).isEqualTo(modelClone);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
@@ -319,7 +372,11 @@ public class CreateHandlerTest extends TestBase {
                 .canary(canary)
                 .build();
         final CallbackContext inputContext = CallbackContext.builder().build();
-        final CallbackContext outputContext = CallbackContext.builder().canaryCreateStarted(true).build();
+        final CallbackContext outputContext = CallbackContext.builder()
+                .canaryCreateStarted(true)
+                .lastObservedState(CanaryState.CREATING)
+                .pollAttempt(1)
+                .build();
 
         doReturn(createCanaryResponse)
                 .when(proxy).injectCredentialsAndInvokeV2(eq(buildCreateCanaryRequest(true, model)), any());
@@ -329,7 +386,7 @@ public class CreateHandlerTest extends TestBase {
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
         assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(outputContext);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(10);
+        assertThat(response.getCallbackDelaySeconds()).isBetween(4, 5);
         assertThat(response.getResourceModel()).isEqualTo(modelClone);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
@@ -347,12 +404,16 @@ public class CreateHandlerTest extends TestBase {
                 null,
                 null,
                 "pageLoadBlueprint.handler",
+                null,
+                null,
                 null);
         final Code codeClone = new Code("s3bucket",
                 "s3Key",
                 null,
                 null,
                 "pageLoadBlueprint.handler",
+                null,
+                null,
                 null);
         model.setCode(code);
         modelClone.setCode(codeClone);
@@ -375,7 +436,11 @@ public class CreateHandlerTest extends TestBase {
                 .canary(canary)
                 .build();
         final CallbackContext inputContext = CallbackContext.builder().build();
-        final CallbackContext outputContext = CallbackContext.builder().canaryCreateStarted(true).build();
+        final CallbackContext outputContext = CallbackContext.builder()
+                .canaryCreateStarted(true)
+                .lastObservedState(CanaryState.CREATING)
+                .pollAttempt(1)
+                .build();
 
         doReturn(createCanaryResponse)
                 .when(proxy).injectCredentialsAndInvokeV2(eq(buildCreateCanaryRequest(true, model)), any());
@@ -385,7 +450,7 @@ public class CreateHandlerTest extends TestBase {
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
         assertThat(response.getCallbackContext()).isEqualToComparingFieldByField(outputContext);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(10);
+        assertThat(response.getCallbackDelaySeconds()).isBetween(4, 5);
         assertThat(response.getResourceModel()).isEqualTo(modelClone);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
@@ -9,6 +9,7 @@ import software.amazon.awssdk.services.synthetics.model.CanaryState;
 import software.amazon.awssdk.services.synthetics.model.CanaryStateReasonCode;
 import software.amazon.awssdk.services.synthetics.model.ConflictException;
 import software.amazon.awssdk.services.synthetics.model.DeleteCanaryRequest;
+import software.amazon.awssdk.services.synthetics.model.GetCanaryRequest;
 import software.amazon.awssdk.services.synthetics.model.ResourceNotFoundException;
 import software.amazon.awssdk.services.synthetics.model.StopCanaryRequest;
 import software.amazon.cloudformation.exceptions.CfnNotFoundException;
@@ -22,11 +23,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class DeleteHandlerTest extends TestBase {
-    private DeleteHandler handler = new DeleteHandler();
+    private DeleteHandler handler = withoutInlinePolling(new DeleteHandler(clients));
 
     @Test
     public void handleRequest_canaryStateIsCreating_fails() {
@@ -211,6 +213,26 @@ public class DeleteHandlerTest extends TestBase {
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
     }
 
+    @Test
+    public void handleRequest_canaryStateIsDeleting_readsCanaryOnce() {
+        configureGetCanaryResponse(CanaryState.DELETING);
+
+        ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, REQUEST, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        verify(proxy).injectCredentialsAndInvokeV2(eq(GetCanaryRequest.builder().name(CANARY_NAME).build()), any());
+    }
+
+    @Test
+    public void handleRequest_deleteCanary_readsCanaryAgainAfterDelete() {
+        configureGetCanaryResponse(CanaryState.READY);
+
+        handler.handleRequest(proxy, REQUEST, null, logger);
+
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(eq(GetCanaryRequest.builder().name(CANARY_NAME).build()), any());
+    }
+
     @Test
     public void handleRequest_confirmCanaryDeleted_canaryNotFound_success() {
         CallbackContext context = CallbackContext.builder().canaryDeleteStarted(true).build();
@@ -0,0 +1,41 @@
+package com.amazon.synthetics.canary;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.synthetics.model.CanaryState;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExponentialBackoffPollingPolicyTest {
+    private final ExponentialBackoffPollingPolicy noJitterPolicy = new ExponentialBackoffPollingPolicy(() -> 0.0);
+    private final ExponentialBackoffPollingPolicy maxJitterPolicy = new ExponentialBackoffPollingPolicy(() -> 1.0);
+
+    @Test
+    public void getCallbackDelaySeconds_shortTransition_startsShortAndGrows() {
+        assertThat(noJitterPolicy.getCallbackDelaySeconds(CanaryState.STARTING, "STARTING", 0)).isEqualTo(2);
+        assertThat(noJitterPolicy.getCallbackDelaySeconds(CanaryState.STARTING, "STARTING", 1)).isEqualTo(3);
+        assertThat(noJitterPolicy.getCallbackDelaySeconds(CanaryState.STARTING, "STARTING", 3)).isEqualTo(7);
+    }
+
+    @Test
+    public void getCallbackDelaySeconds_isCappedPerState() {
+        assertThat(noJitterPolicy.getCallbackDelaySeconds(CanaryState.STOPPING, "STOPPING", 50)).isEqualTo(15);
+        assertThat(noJitterPolicy.getCallbackDelaySeconds(CanaryState.CREATING, "CREATING", 50)).isEqualTo(30);
+    }
+
+    @Test
+    public void getCallbackDelaySeconds_jitterOnlyShortensDelay() {
+        assertThat(maxJitterPolicy.getCallbackDelaySeconds(CanaryState.CREATING, "CREATING", 0)).isEqualTo(4);
+        assertThat(maxJitterPolicy.getCallbackDelaySeconds(CanaryState.CREATING, "CREATING", 50)).isEqualTo(24);
+    }
+
+    @Test
+    public void getCallbackDelaySeconds_unknownState_usesDefault() {
+        assertThat(noJitterPolicy.getCallbackDelaySeconds(null, null, 0)).isEqualTo(5);
+        assertThat(noJitterPolicy.getCallbackDelaySeconds(CanaryState.UNKNOWN_TO_SDK_VERSION, "unknown", 0)).isEqualTo(5);
+    }
+
+    @Test
+    public void getCallbackDelaySeconds_neverBelowOneSecond() {
+        assertThat(maxJitterPolicy.getCallbackDelaySeconds(CanaryState.READY, "READY", 0)).isGreaterThanOrEqualTo(1);
+    }
+}
@@ -0,0 +1,74 @@
+package com.amazon.synthetics.canary;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import software.amazon.awssdk.services.lambda.LambdaClient;
+import software.amazon.awssdk.services.lambda.LambdaServiceClientConfiguration;
+import software.amazon.awssdk.services.lambda.model.ListTagsRequest;
+import software.amazon.awssdk.services.lambda.model.ListTagsResponse;
+import software.amazon.awssdk.services.lambda.model.TagResourceRequest;
+import software.amazon.awssdk.services.lambda.model.TagResourceResponse;
+import software.amazon.awssdk.services.lambda.model.UntagResourceRequest;
+import software.amazon.awssdk.services.lambda.model.UntagResourceResponse;
+
+/**
+ * In-memory stand-in for the Lambda tagging calls the handlers make, keyed by function ARN.
+ */
+public class FakeLambda implements LambdaClient {
+    private final Map<String, Map<String, String>> tagsByFunction = new HashMap<>();
+    private final Map<String, Integer> calls = new TreeMap<>();
+
+    @Override
+    public synchronized ListTagsResponse listTags(ListTagsRequest request) {
+        call("ListTags");
+        return ListTagsResponse.builder().tags(new HashMap<>(tags(request.resource()))).build();
+    }
+
+    @Override
+    public synchronized TagResourceResponse tagResource(TagResourceRequest request) {
+        call("TagResource");
+        tags(request.resource()).putAll(request.tags());
+        return TagResourceResponse.builder().build();
+    }
+
+    @Override
+    public synchronized UntagResourceResponse untagResource(UntagResourceRequest request) {
+        call("UntagResource");
+        tags(request.resource()).keySet().removeAll(request.tagKeys());
+        return UntagResourceResponse.builder().build();
+    }
+
+    /**
+     * Returns the live tags of a function, creating an empty set for an unknown one.
+     */
+    public synchronized Map<String, String> tags(String functionArn) {
+        return tagsByFunction.computeIfAbsent(functionArn, arn -> new HashMap<>());
+    }
+
+    public synchronized Map<String, Integer> getCalls() {
+        return new TreeMap<>(calls);
+    }
+
+    public synchronized void resetCalls() {
+        calls.clear();
+    }
+
+    private void call(String operation) {
+        calls.merge(operation, 1, Integer::sum);
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public LambdaServiceClientConfiguration serviceClientConfiguration() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,334 @@
+package com.amazon.synthetics.canary;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+import software.amazon.awssdk.services.synthetics.SyntheticsClient;
+import software.amazon.awssdk.services.synthetics.SyntheticsServiceClientConfiguration;
+import software.amazon.awssdk.services.synthetics.model.Canary;
+import software.amazon.awssdk.services.synthetics.model.CanaryCodeOutput;
+import software.amazon.awssdk.services.synthetics.model.CanaryScheduleOutput;
+import software.amazon.awssdk.services.synthetics.model.CanaryState;
+import software.amazon.awssdk.services.synthetics.model.CanaryStatus;
+import software.amazon.awssdk.services.synthetics.model.ConflictException;
+import software.amazon.awssdk.services.synthetics.model.CreateCanaryRequest;
+import software.amazon.awssdk.services.synthetics.model.CreateCanaryResponse;
+import software.amazon.awssdk.services.synthetics.model.DeleteCanaryRequest;
+import software.amazon.awssdk.services.synthetics.model.DeleteCanaryResponse;
+import software.amazon.awssdk.services.synthetics.model.DescribeCanariesRequest;
+import software.amazon.awssdk.services.synthetics.model.DescribeCanariesResponse;
+import software.amazon.awssdk.services.synthetics.model.GetCanaryRequest;
+import software.amazon.awssdk.services.synthetics.model.GetCanaryResponse;
+import software.amazon.awssdk.services.synthetics.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.synthetics.model.ResourceToTag;
+import software.amazon.awssdk.services.synthetics.model.StartCanaryRequest;
+import software.amazon.awssdk.services.synthetics.model.StartCanaryResponse;
+import software.amazon.awssdk.services.synthetics.model.StopCanaryRequest;
+import software.amazon.awssdk.services.synthetics.model.StopCanaryResponse;
+import software.amazon.awssdk.services.synthetics.model.TagResourceRequest;
+import software.amazon.awssdk.services.synthetics.model.TagResourceResponse;
+import software.amazon.awssdk.services.synthetics.model.TooManyRequestsException;
+import software.amazon.awssdk.services.synthetics.model.UntagResourceRequest;
+import software.amazon.awssdk.services.synthetics.model.UntagResourceResponse;
+import software.amazon.awssdk.services.synthetics.model.UpdateCanaryRequest;
+import software.amazon.awssdk.services.synthetics.model.UpdateCanaryResponse;
+import software.amazon.awssdk.services.synthetics.model.ValidationException;
+
+/**
+ * In-memory stand-in for the Synthetics canary API. Canaries move through the service's state
+ * machine on a caller-supplied clock: CREATING to READY, STARTING to RUNNING, STOPPING to
+ * STOPPED, UPDATING back to the state the update started from, and DELETING until the canary
+ * is gone. Each transitional state lasts a configurable time, and every n-th call can be
+ * throttled. Calls that the real service would reject in the current state fail with
+ * ConflictException.
+ */
+public class FakeSynthetics implements SyntheticsClient {
+    static final String ACCOUNT_ID = "123456789012";
+    static final String REGION = "us-west-2";
+
+    private final LongSupplier clock;
+    private final FakeLambda lambda;
+    private final Map<CanaryState, Long> latencyMillis = new EnumMap<>(CanaryState.class);
+    private final Map<String, Entry> canaries = new LinkedHashMap<>();
+    private final Map<String, Integer> calls = new TreeMap<>();
+    private int throttleEvery;
+    private int totalCalls;
+    private int throttledCalls;
+    private int nextId;
+
+    public FakeSynthetics(LongSupplier clock, FakeLambda lambda) {
+        this.clock = clock;
+        this.lambda = lambda;
+        latencyMillis.put(CanaryState.CREATING, 30_000L);
+        latencyMillis.put(CanaryState.STARTING, 15_000L);
+        latencyMillis.put(CanaryState.UPDATING, 20_000L);
+        latencyMillis.put(CanaryState.STOPPING, 10_000L);
+        latencyMillis.put(CanaryState.DELETING, 5_000L);
+    }
+
+    /**
+     * Sets how long a canary stays in a transitional state.
+     */
+    public synchronized FakeSynthetics withLatency(CanaryState state, Duration latency) {
+        latencyMillis.put(state, latency.toMillis());
+        return this;
+    }
+
+    /**
+     * Throttles every n-th call with TooManyRequestsException; 0 turns throttling off.
+     */
+    public synchronized FakeSynthetics throttleEvery(int n) {
+        this.throttleEvery = n;
+        return this;
+    }
+
+    @Override
+    public synchronized CreateCanaryResponse createCanary(CreateCanaryRequest request) {
+        call("CreateCanary");
+        if (canaries.containsKey(request.name())) {
+            throw ValidationException.builder().message("Canary name already exists").statusCode(400).build();
+        }
+        String id = String.format("00000000-0000-0000-0000-%012d", ++nextId);
+        String artifactS3Location = request.artifactS3Location().startsWith("s3://")
+            ? request.artifactS3Location().substring("s3://".length()) : request.artifactS3Location();
+        Canary canary = Canary.builder()
+            .id(id)
+            .name(request.name())
+            .engineArn(String.format("arn:aws:lambda:%s:%s:function:cwsyn-%s-%s:1", REGION, ACCOUNT_ID, request.name(), id))
+            .code(CanaryCodeOutput.builder()
+                .handler(request.code().handler())
+                .sourceLocationArn(String.format("arn:aws:lambda:%s:%s:layer:cwsyn-%s-%s:1", REGION, ACCOUNT_ID, request.name(), id))
+                .build())
+            .schedule(scheduleOutput(request.schedule().expression(), request.schedule().durationInSeconds()))
+            .artifactS3Location(artifactS3Location)
+            .executionRoleArn(request.executionRoleArn())
+            .runtimeVersion(request.runtimeVersion())
+            .failureRetentionPeriodInDays(request.failureRetentionPeriodInDays())
+            .successRetentionPeriodInDays(request.successRetentionPeriodInDays())
+            .provisionedResourceCleanup(request.provisionedResourceCleanupAsString())
+            .tags(new HashMap<>(request.tags()))
+            .build();
+        Entry entry = new Entry(canary);
+        canaries.put(request.name(), entry);
+        transition(entry, CanaryState.CREATING, CanaryState.READY);
+        if (request.resourcesToReplicateTags().contains(ResourceToTag.LAMBDA_FUNCTION)) {
+            lambda.tags(functionArn(canary)).putAll(request.tags());
+        }
+        return CreateCanaryResponse.builder().canary(entry.canary).build();
+    }
+
+    @Override
+    public synchronized GetCanaryResponse getCanary(GetCanaryRequest request) {
+        call("GetCanary");
+        return GetCanaryResponse.builder().canary(get(request.name()).canary).build();
+    }
+
+    @Override
+    public synchronized DescribeCanariesResponse describeCanaries(DescribeCanariesRequest request) {
+        call("DescribeCanaries");
+        List<Canary> result = new ArrayList<>();
+        for (String name : new ArrayList<>(canaries.keySet())) {
+            if (request.names().isEmpty() || request.names().contains(name)) {
+                Entry entry = find(name);
+                if (entry != null) {
+                    result.add(entry.canary);
+                }
+            }
+        }
+        return DescribeCanariesResponse.builder().canaries(result).build();
+    }
+
+    @Override
+    public synchronized StartCanaryResponse startCanary(StartCanaryRequest request) {
+        call("StartCanary");
+        Entry entry = get(request.name());
+        requireState(entry, "start", CanaryState.READY, CanaryState.STOPPED);
+        transition(entry, CanaryState.STARTING, CanaryState.RUNNING);
+        return StartCanaryResponse.builder().build();
+    }
+
+    @Override
+    public synchronized StopCanaryResponse stopCanary(StopCanaryRequest request) {
+        call("StopCanary");
+        Entry entry = get(request.name());
+        requireState(entry, "stop", CanaryState.RUNNING);
+        transition(entry, CanaryState.STOPPING, CanaryState.STOPPED);
+        return StopCanaryResponse.builder().build();
+    }
+
+    @Override
+    public synchronized UpdateCanaryResponse updateCanary(UpdateCanaryRequest request) {
+        call("UpdateCanary");
+        Entry entry = get(request.name());
+        CanaryState state = requireState(entry, "update",
+            CanaryState.READY, CanaryState.STOPPED, CanaryState.RUNNING, CanaryState.ERROR);
+        Canary.Builder updated = entry.canary.toBuilder();
+        if (request.runtimeVersion() != null) {
+            updated.runtimeVersion(request.runtimeVersion());
+        }
+        if (request.executionRoleArn() != null) {
+            updated.executionRoleArn(request.executionRoleArn());
+        }
+        if (request.code() != null && request.code().handler() != null) {
+            updated.code(entry.canary.code().toBuilder().handler(request.code().handler()).build());
+        }
+        if (request.schedule() != null) {
+            updated.schedule(scheduleOutput(request.schedule().expression(), request.schedule().durationInSeconds()));
+        }
+        entry.canary = updated.build();
+        transition(entry, CanaryState.UPDATING, state == CanaryState.ERROR ? CanaryState.READY : state);
+        return UpdateCanaryResponse.builder().build();
+    }
+
+    @Override
+    public synchronized DeleteCanaryResponse deleteCanary(DeleteCanaryRequest request) {
+        call("DeleteCanary");
+        Entry entry = get(request.name());
+        requireState(entry, "delete", CanaryState.READY, CanaryState.STOPPED, CanaryState.ERROR);
+        transition(entry, CanaryState.DELETING, null);
+        return DeleteCanaryResponse.builder().build();
+    }
+
+    @Override
+    public synchronized TagResourceResponse tagResource(TagResourceRequest request) {
+        call("TagResource");
+        Entry entry = get(nameFromArn(request.resourceArn()));
+        Map<String, String> tags = new HashMap<>(entry.canary.tags());
+        tags.putAll(request.tags());
+        entry.canary = entry.canary.toBuilder().tags(tags).build();
+        return TagResourceResponse.builder().build();
+    }
+
+    @Override
+    public synchronized UntagResourceResponse untagResource(UntagResourceRequest request) {
+        call("UntagResource");
+        Entry entry = get(nameFromArn(request.resourceArn()));
+        Map<String, String> tags = new HashMap<>(entry.canary.tags());
+        tags.keySet().removeAll(request.tagKeys());
+        entry.canary = entry.canary.toBuilder().tags(tags).build();
+        return UntagResourceResponse.builder().build();
+    }
+
+    /**
+     * Returns the canary as the service would currently report it, or null once it is gone.
+     */
+    public synchronized Canary findCanary(String name) {
+        Entry entry = find(name);
+        return entry == null ? null : entry.canary;
+    }
+
+    public synchronized Map<String, Integer> getCalls() {
+        return new TreeMap<>(calls);
+    }
+
+    public synchronized int getThrottledCalls() {
+        return throttledCalls;
+    }
+
+    public synchronized void resetCalls() {
+        calls.clear();
+        totalCalls = 0;
+        throttledCalls = 0;
+    }
+
+    static String functionArn(Canary canary) {
+        return canary.engineArn().substring(0, canary.engineArn().lastIndexOf(':'));
+    }
+
+    private void call(String operation) {
+        calls.merge(operation, 1, Integer::sum);
+        totalCalls++;
+        if (throttleEvery > 0 && totalCalls % throttleEvery == 0) {
+            throttledCalls++;
+            throw TooManyRequestsException.builder().message("Rate exceeded").statusCode(429).build();
+        }
+    }
+
+    private Entry get(String name) {
+        Entry entry = find(name);
+        if (entry == null) {
+            throw ResourceNotFoundException.builder().message(String.format("Canary %s not found", name)).statusCode(404).build();
+        }
+        return entry;
+    }
+
+    /**
+     * Looks a canary up after completing any transition that is due.
+     */
+    private Entry find(String name) {
+        Entry entry = canaries.get(name);
+        if (entry != null && entry.transitionAtMillis != null && clock.getAsLong() >= entry.transitionAtMillis) {
+            entry.transitionAtMillis = null;
+            if (entry.nextState == null) {
+                canaries.remove(name);
+                return null;
+            }
+            entry.canary = withState(entry.canary, entry.nextState);
+        }
+        return entry;
+    }
+
+    private CanaryState requireState(Entry entry, String operation, CanaryState... allowed) {
+        CanaryState state = entry.canary.status().state();
+        for (CanaryState candidate : allowed) {
+            if (candidate == state) {
+                return state;
+            }
+        }
+        throw ConflictException.builder()
+            .message(String.format("Cannot %s canary %s in state %s", operation, entry.canary.name(), state))
+            .statusCode(409)
+            .build();
+    }
+
+    private void transition(Entry entry, CanaryState transitionalState, CanaryState nextState) {
+        entry.canary = withState(entry.canary, transitionalState);
+        entry.nextState = nextState;
+        entry.transitionAtMillis = clock.getAsLong() + latencyMillis.getOrDefault(transitionalState, 0L);
+    }
+
+    private static Canary withState(Canary canary, CanaryState state) {
+        return canary.toBuilder().status(CanaryStatus.builder().state(state).build()).build();
+    }
+
+    private static CanaryScheduleOutput scheduleOutput(String expression, Long durationInSeconds) {
+        return CanaryScheduleOutput.builder()
+            .expression(expression)
+            .durationInSeconds(durationInSeconds != null ? durationInSeconds : 0L)
+            .build();
+    }
+
+    private static String nameFromArn(String canaryArn) {
+        return canaryArn.substring(canaryArn.lastIndexOf(':') + 1);
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public SyntheticsServiceClientConfiguration serviceClientConfiguration() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private static class Entry {
+        private Canary canary;
+        private CanaryState nextState;
+        private Long transitionAtMillis;
+
+        Entry(Canary canary) {
+            this.canary = canary;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.amazon.synthetics.canary;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricCollector;
+import software.amazon.awssdk.services.synthetics.model.CanaryState;
+import software.amazon.awssdk.services.synthetics.model.GetCanaryRequest;
+import software.amazon.cloudformation.Action;
+import software.amazon.cloudformation.proxy.OperationStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HandlerMetricsTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final List<String> lines = new ArrayList<>();
+    private final HandlerMetrics metrics = new HandlerMetrics(Action.CREATE, now::get);
+
+    @Test
+    public void emit_writesEmbeddedMetricFormat() throws Exception {
+        metrics.publish(apiCall("synthetics", 2));
+        metrics.publish(apiCall("Lambda", 0));
+        metrics.setCanaryState(CanaryState.CREATING);
+        metrics.recordClientCacheLookup(true);
+        metrics.recordClientCacheLookup(false);
+        now.addAndGet(250);
+
+        metrics.emit(lines::add, OperationStatus.IN_PROGRESS, 5);
+
+        JsonNode json = MAPPER.readTree(lines.get(0));
+        JsonNode directive = json.get("_aws").get("CloudWatchMetrics").get(0);
+        assertThat(json.get("_aws").get("Timestamp").asLong()).isEqualTo(1_250);
+        assertThat(directive.get("Namespace").asText()).isEqualTo(HandlerMetrics.NAMESPACE);
+        assertThat(directive.get("Dimensions").toString()).isEqualTo("[[\"Action\"],[\"Action\",\"CanaryState\"]]");
+        assertThat(directive.get("Metrics")).hasSize(7);
+        assertThat(json.get("Action").asText()).isEqualTo("CREATE");
+        assertThat(json.get("CanaryState").asText()).isEqualTo("CREATING");
+        assertThat(json.get("OperationStatus").asText()).isEqualTo("IN_PROGRESS");
+        assertThat(json.get("HandlerDuration").asLong()).isEqualTo(250);
+        assertThat(json.get("SyntheticsApiCalls").asInt()).isEqualTo(1);
+        assertThat(json.get("LambdaApiCalls").asInt()).isEqualTo(1);
+        assertThat(json.get("SdkRetries").asInt()).isEqualTo(2);
+        assertThat(json.get("ClientCacheHits").asInt()).isEqualTo(1);
+        assertThat(json.get("ClientCacheMisses").asInt()).isEqualTo(1);
+        assertThat(json.get("CallbackDelay").asInt()).isEqualTo(5);
+    }
+
+    @Test
+    public void emit_withoutCanaryOrCallback_omitsThem() throws Exception {
+        metrics.emit(lines::add, null, 0);
+
+        JsonNode json = MAPPER.readTree(lines.get(0));
+        JsonNode directive = json.get("_aws").get("CloudWatchMetrics").get(0);
+        assertThat(directive.get("Dimensions").toString()).isEqualTo("[[\"Action\"]]");
+        assertThat(directive.get("Metrics")).hasSize(6);
+        assertThat(json.has("CanaryState")).isFalse();
+        assertThat(json.has("CallbackDelay")).isFalse();
+        assertThat(json.get("OperationStatus").asText()).isEqualTo("EXCEPTION");
+    }
+
+    @Test
+    public void record_addsPublisherToRequest() {
+        List<GetCanaryRequest> requests = new ArrayList<>();
+        metrics.record((GetCanaryRequest request) -> requests.add(request))
+            .apply(ClientProfile.applyAttemptTimeout(GetCanaryRequest.builder().name("canary").build()));
+
+        assertThat(requests.get(0).overrideConfiguration().get().metricPublishers()).containsExactly(metrics);
+        assertThat(requests.get(0).overrideConfiguration().get().apiCallAttemptTimeout()).isPresent();
+    }
+
+    private static MetricCollection apiCall(String serviceId, int retries) {
+        MetricCollector collector = MetricCollector.create("ApiCall");
+        collector.reportMetric(CoreMetric.SERVICE_ID, serviceId);
+        collector.reportMetric(CoreMetric.RETRY_COUNT, retries);
+        return collector.collect();
+    }
+}
@@ -1,6 +1,7 @@
 package com.amazon.synthetics.canary;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullSource;
@@ -19,7 +20,6 @@ import software.amazon.cloudformation.proxy.ProgressEvent;
 import java.util.ArrayList;
 import java.util.List;
 
-import static com.amazon.synthetics.canary.Matchers.assertThatModelsAreEqual;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -44,7 +44,7 @@ public class ListHandlerTest extends TestBase {
     public void setup() {
         proxy = mock(AmazonWebServicesClientProxy.class);
         logger = mock(Logger.class);
-        handler = new ListHandler();
+        handler = new ListHandler(clients);
         model = ResourceModel.builder().name("listCanary").build();
     }
 
@@ -71,7 +71,7 @@ public class ListHandlerTest extends TestBase {
         doReturn(describeCanariesResponse)
                 .when(proxy)
                 .injectCredentialsAndInvokeV2(
-                        eq(DescribeCanariesRequest.builder().nextToken(nextToken).build()),
+                        eq(DescribeCanariesRequest.builder().nextToken(nextToken).maxResults(ListBudget.MAX_PAGE_SIZE).build()),
                         any()
                 );
 
@@ -83,14 +83,93 @@ public class ListHandlerTest extends TestBase {
         assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
         assertThat(response.getResourceModel()).isNull();
         assertThat(response.getResourceModels().size()).isEqualTo(2);
-        assertThatModelsAreEqual(response.getResourceModels().get(0), canary1);
-        assertThatModelsAreEqual(response.getResourceModels().get(1), canary2);
+        assertThat(response.getResourceModels()).containsExactly(
+                ResourceModel.builder().name(canary1.name()).build(),
+                ResourceModel.builder().name(canary2.name()).build());
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
 
         verify(proxy).injectCredentialsAndInvokeV2(
-            eq(DescribeCanariesRequest.builder().nextToken(nextToken).build()),
+            eq(DescribeCanariesRequest.builder().nextToken(nextToken).maxResults(ListBudget.MAX_PAGE_SIZE).build()),
             any()
         );
     }
+
+    @Test
+    public void handleRequest_aggregatesPagesIntoNameOnlyModels() {
+        handler = new ListHandler(ListBudget.of(2, ListBudget.DEFAULT_MAX_MODELS, ListBudget.DEFAULT_TIME_BUDGET_MILLIS), clients);
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+
+        doReturn(page("token-2", "canary-1", "canary-2"))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(eq(DescribeCanariesRequest.builder().maxResults(2).build()), any());
+        doReturn(page(null, "canary-3"))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(eq(DescribeCanariesRequest.builder().nextToken("token-2").maxResults(2).build()), any());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModels()).containsExactly(
+                ResourceModel.builder().name("canary-1").build(),
+                ResourceModel.builder().name("canary-2").build(),
+                ResourceModel.builder().name("canary-3").build());
+        assertThat(response.getNextToken()).isNull();
+    }
+
+    @Test
+    public void handleRequest_stopsAtSizeBudget() {
+        handler = new ListHandler(ListBudget.of(2, 2, ListBudget.DEFAULT_TIME_BUDGET_MILLIS), clients);
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+
+        doReturn(page("token-2", "canary-1", "canary-2"))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(eq(DescribeCanariesRequest.builder().maxResults(2).build()), any());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getResourceModels()).hasSize(2);
+        assertThat(response.getNextToken()).isEqualTo("token-2");
+    }
+
+    @Test
+    public void handleRequest_stopsAtTimeBudget() {
+        handler = new ListHandler(ListBudget.of(20, ListBudget.DEFAULT_MAX_MODELS, 0), clients);
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .nextToken("token-1")
+                .build();
+
+        doReturn(page("token-2", "canary-1"))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(eq(DescribeCanariesRequest.builder().nextToken("token-1").maxResults(20).build()), any());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getResourceModels()).containsExactly(ResourceModel.builder().name("canary-1").build());
+        assertThat(response.getNextToken()).isEqualTo("token-2");
+    }
+
+    @Test
+    public void of_clampsPageSize() {
+        assertThat(ListBudget.DEFAULT.getPageSize()).isEqualTo(ListBudget.MAX_PAGE_SIZE);
+        assertThat(ListBudget.of(5, 10, 0).getPageSize()).isEqualTo(5);
+        assertThat(ListBudget.of(100, 10, 0).getPageSize()).isEqualTo(ListBudget.MAX_PAGE_SIZE);
+        assertThat(ListBudget.of(0, 10, 0).getPageSize()).isEqualTo(1);
+    }
+
+    private static DescribeCanariesResponse page(String nextToken, String... names) {
+        List<Canary> canaries = new ArrayList<>();
+        for (String name : names) {
+            canaries.add(Canary.builder().name(name).build());
+        }
+        return DescribeCanariesResponse.builder()
+                .canaries(canaries)
+                .nextToken(nextToken)
+                .build();
+    }
 }
@@ -2,10 +2,22 @@ package com.amazon.synthetics.canary;
  
 import org.junit.jupiter.api.Test;
  
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.ZipInputStream;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.synthetics.model.VisualReferenceOutput;
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
+ 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
  
 public class ModelHelperTest {
  
@@ -17,14 +29,14 @@ public class ModelHelperTest {
         requestedTags.add(new Tag("key1", "value1"));
         requestedTags.add(new Tag("key2", "value2"));
  
-        Map<String, Map<String, String>> tagDiff = ModelHelper.buildTagDiff(requestedTags, existingTags);
+        TagDiff tagDiff = ModelHelper.buildTagDiff(requestedTags, existingTags);
  
         Map<String, String> expectedAddedTags = new HashMap<>();
         expectedAddedTags.put("key1", "value1");
         expectedAddedTags.put("key2", "value2");
  
-        assert tagDiff.get(ModelHelper.ADD_TAGS).equals(expectedAddedTags);
-        assert tagDiff.get(ModelHelper.REMOVE_TAGS).isEmpty();
+        assert tagDiff.getTagsToAdd().equals(expectedAddedTags);
+        assert tagDiff.getTagsToRemove().isEmpty();
     }
  
     @Test
@@ -38,7 +50,7 @@ public class ModelHelperTest {
         existingTags.put("key1", "value1");
         existingTags.put("key2", "value2");
  
-        Map<String, Map<String, String>> tagDiff = ModelHelper.buildTagDiff(requestedTags, existingTags);
+        TagDiff tagDiff = ModelHelper.buildTagDiff(requestedTags, existingTags);
  
         Map<String, String> expectedUpdatedTags = new HashMap<>();
         expectedUpdatedTags.put("key3", "value2");
@@ -46,8 +58,8 @@ public class ModelHelperTest {
         Map<String, String> expectedRemovedTags = new HashMap<>();
         expectedRemovedTags.put("key2", "value2");
  
-        assert tagDiff.get(ModelHelper.ADD_TAGS).equals(expectedUpdatedTags);
-        assert tagDiff.get(ModelHelper.REMOVE_TAGS).equals(expectedRemovedTags);
+        assert tagDiff.getTagsToAdd().equals(expectedUpdatedTags);
+        assert tagDiff.getTagsToRemove().equals(expectedRemovedTags);
     }
  
     @Test
@@ -61,13 +73,13 @@ public class ModelHelperTest {
         existingTags.put("key1", "value1");
         existingTags.put("key2", "value2");
  
-        Map<String, Map<String, String>> tagDiff = ModelHelper.buildTagDiff(requestedTags, existingTags);
+        TagDiff tagDiff = ModelHelper.buildTagDiff(requestedTags, existingTags);
  
         Map<String, String> expectedUpdatedTags = new HashMap<>();
         expectedUpdatedTags.put("key2", "value3");
  
-        assert tagDiff.get(ModelHelper.ADD_TAGS).equals(expectedUpdatedTags);
-        assert tagDiff.get(ModelHelper.REMOVE_TAGS).isEmpty();
+        assert tagDiff.getTagsToAdd().equals(expectedUpdatedTags);
+        assert tagDiff.getTagsToRemove().isEmpty();
     }
  
     @Test
@@ -80,13 +92,13 @@ public class ModelHelperTest {
         existingTags.put("key1", "value1");
         existingTags.put("key2", "value2");
  
-        Map<String, Map<String, String>> tagDiff = ModelHelper.buildTagDiff(requestedTags, existingTags);
+        TagDiff tagDiff = ModelHelper.buildTagDiff(requestedTags, existingTags);
  
         Map<String, String> expectedRemovedTags = new HashMap<>();
         expectedRemovedTags.put("key2", "value2");
  
-        assert tagDiff.get(ModelHelper.ADD_TAGS).isEmpty();
-        assert tagDiff.get(ModelHelper.REMOVE_TAGS).equals(expectedRemovedTags);
+        assert tagDiff.getTagsToAdd().isEmpty();
+        assert tagDiff.getTagsToRemove().equals(expectedRemovedTags);
     }
  
     @Test
@@ -96,10 +108,10 @@ public class ModelHelperTest {
         existingTags.put("key1", "value1");
         existingTags.put("key2", "value2");
  
-        Map<String, Map<String, String>> tagDiff = ModelHelper.buildTagDiff(null, existingTags);
+        TagDiff tagDiff = ModelHelper.buildTagDiff(null, existingTags);
  
-        assert tagDiff.get(ModelHelper.ADD_TAGS).isEmpty();
-        assert tagDiff.get(ModelHelper.REMOVE_TAGS).equals(existingTags);
+        assert tagDiff.getTagsToAdd().isEmpty();
+        assert tagDiff.getTagsToRemove().equals(existingTags);
     }
  
     @Test
@@ -110,9 +122,154 @@ public class ModelHelperTest {
         existingTags.put("key1", "value1");
         existingTags.put("key2", "value2");
  
-        Map<String, Map<String, String>> tagDiff = ModelHelper.buildTagDiff(requestedTags, existingTags);
+        TagDiff tagDiff = ModelHelper.buildTagDiff(requestedTags, existingTags);
+ 
+        assert tagDiff.getTagsToAdd().isEmpty();
+        assert tagDiff.getTagsToRemove().equals(existingTags);
+    }
+ 
+    @Test
+    public void buildTagDiff_reservedTags_areNotRemoved() {
+        List<Tag> requestedTags = new ArrayList<>();
+        Map<String, String> existingTags = new HashMap<>();
+ 
+        requestedTags.add(new Tag("key1", "value1"));
+ 
+        existingTags.put("key1", "value1");
+        existingTags.put("aws:cloudformation:stack-name", "stack");
+        existingTags.put("key2", "value2");
+ 
+        TagDiff tagDiff = ModelHelper.buildTagDiff(requestedTags, existingTags);
+ 
+        assert tagDiff.getTagsToAdd().isEmpty();
+        assert tagDiff.getTagsToRemove().equals(Collections.singletonMap("key2", "value2"));
+    }
  
-        assert tagDiff.get(ModelHelper.ADD_TAGS).isEmpty();
-        assert tagDiff.get(ModelHelper.REMOVE_TAGS).equals(existingTags);
+    @Test
+    public void buildTagDiff_noChanges_returnsSharedEmptyDiff() {
+        List<Tag> requestedTags = new ArrayList<>();
+        Map<String, String> existingTags = new HashMap<>();
+ 
+        requestedTags.add(new Tag("key1", "value1"));
+        requestedTags.add(new Tag("key2", "value2"));
+ 
+        existingTags.put("key1", "value1");
+        existingTags.put("key2", "value2");
+        existingTags.put("aws:cloudformation:stack-name", "stack");
+ 
+        TagDiff tagDiff = ModelHelper.buildTagDiff(requestedTags, existingTags);
+ 
+        assert tagDiff == TagDiff.EMPTY;
+        assert tagDiff.isEmpty();
+        assert ModelHelper.buildTagDiff(null, new HashMap<>()) == TagDiff.EMPTY;
+    }
+ 
+    @Test
+    public void buildTagDiff_repeatedKey_lastValueWins() {
+        List<Tag> requestedTags = new ArrayList<>();
+        Map<String, String> existingTags = new HashMap<>();
+ 
+        requestedTags.add(new Tag("key1", "value2"));
+        requestedTags.add(new Tag("key1", "value1"));
+        requestedTags.add(new Tag("key2", "value2"));
+        requestedTags.add(new Tag("key2", "value3"));
+ 
+        existingTags.put("key1", "value1");
+        existingTags.put("key2", "value2");
+ 
+        TagDiff tagDiff = ModelHelper.buildTagDiff(requestedTags, existingTags);
+ 
+        assert tagDiff.getTagsToAdd().equals(Collections.singletonMap("key2", "value3"));
+        assert tagDiff.getTagsToRemove().isEmpty();
+    }
+ 
+    @Test
+    public void buildTagDiff_result_isReadOnly() {
+        List<Tag> requestedTags = new ArrayList<>();
+        requestedTags.add(new Tag("key1", "value1"));
+ 
+        TagDiff tagDiff = ModelHelper.buildTagDiff(requestedTags, Collections.singletonMap("key2", "value2"));
+ 
+        assertThrows(UnsupportedOperationException.class, () -> tagDiff.getTagsToAdd().put("key3", "value3"));
+        assertThrows(UnsupportedOperationException.class, () -> tagDiff.getTagsToRemove().clear());
+    }
+
+    @Test
+    public void compressRawScript_pythonRuntime_zipsUnderPythonDir() throws IOException {
+        ResourceModel model = ResourceModel.builder()
+            .runtimeVersion("syn-python-selenium-4.1")
+            .code(Code.builder().handler("pageLoad.handler").script("def handler(event, context):\n    pass\n").build())
+            .build();
+
+        try (ZipInputStream zip = new ZipInputStream(ModelHelper.compressRawScript(model).asInputStream())) {
+            assertEquals("/python/pageLoad.py", zip.getNextEntry().getName());
+        }
+    }
+ 
+    @Test
+    public void packageInlineCode_files_requiresHandlerFileAndRelativePaths() {
+        ResourceModel model = ResourceModel.builder()
+            .runtimeVersion("syn-nodejs-puppeteer-9.1")
+            .code(Code.builder().handler("pageLoad.handler").files(Collections.singletonMap("lib/helpers.js", "")).build())
+            .build();
+        assertThrows(CfnInvalidRequestException.class, () -> ModelHelper.packageInlineCode(model));
+
+        Map<String, String> files = new HashMap<>();
+        files.put("pageLoad.js", "");
+        files.put("../outside.js", "");
+        model.getCode().setFiles(files);
+        assertThrows(CfnInvalidRequestException.class, () -> ModelHelper.packageInlineCode(model));
+    }
+ 
+    @Test
+    public void packageInlineCode_zipFile_isPassedThrough() {
+        byte[] archive = {0x50, 0x4b, 0x05, 0x06};
+        ResourceModel model = ResourceModel.builder()
+            .runtimeVersion("syn-nodejs-puppeteer-9.1")
+            .code(Code.builder().handler("pageLoad.handler").zipFile(Base64.getEncoder().encodeToString(archive)).build())
+            .build();
+
+        assertEquals(SdkBytes.fromByteArray(archive), ModelHelper.packageInlineCode(model));
+
+        model.getCode().setZipFile("not base64!");
+        assertThrows(CfnInvalidRequestException.class, () -> ModelHelper.packageInlineCode(model));
+    }
+ 
+    @Test
+    public void compressRawScript_unknownRuntime_throws() {
+        ResourceModel model = ResourceModel.builder()
+            .runtimeVersion("syn-ruby-1.0")
+            .code(Code.builder().handler("pageLoad.handler").script("puts 'hi'").build())
+            .build();
+
+        assertThrows(CfnInvalidRequestException.class, () -> ModelHelper.compressRawScript(model));
+    }
+ 
+    @Test
+    public void visualReferenceNeedsUpdate_comparesWithDeployedReference() {
+        VisualReference desired = VisualReference.builder()
+            .baseCanaryRunId("lastrun")
+            .baseScreenshots(Collections.singletonList(BaseScreenshot.builder()
+                .screenshotName("screenshot-1")
+                .ignoreCoordinates(Collections.singletonList("0,0,10,10"))
+                .build()))
+            .build();
+        VisualReferenceOutput deployed = VisualReferenceOutput.builder()
+            .baseCanaryRunId(new String("lastrun"))
+            .baseScreenshots(software.amazon.awssdk.services.synthetics.model.BaseScreenshot.builder()
+                .screenshotName(new String("screenshot-1"))
+                .ignoreCoordinates(new String("0,0,10,10"))
+                .build())
+            .build();
+
+        assertFalse(ModelHelper.visualReferenceNeedsUpdate(deployed, desired));
+        assertFalse(ModelHelper.visualReferenceNeedsUpdate(deployed, null));
+        assertTrue(ModelHelper.visualReferenceNeedsUpdate(null, desired));
+        assertTrue(ModelHelper.visualReferenceNeedsUpdate(deployed.toBuilder().baseCanaryRunId("run-id").build(), desired));
+        assertTrue(ModelHelper.visualReferenceNeedsUpdate(deployed.toBuilder()
+            .baseScreenshots(software.amazon.awssdk.services.synthetics.model.BaseScreenshot.builder()
+                .screenshotName("screenshot-1")
+                .build())
+            .build(), desired));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package com.amazon.synthetics.canary;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.cloudformation.Action;
+import software.amazon.cloudformation.proxy.OperationStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+public class PrimerTest {
+    @Test
+    public void prime_withRegion_leavesClientsCachedForTheFirstRequest() throws Exception {
+        Primer.prime("eu-west-3");
+        HandlerMetrics metrics = new HandlerMetrics(Action.CREATE);
+
+        ClientBuilder.getSyntheticsClient(Region.EU_WEST_3, metrics);
+        ClientBuilder.getLambdaClient(Region.EU_WEST_3, metrics);
+
+        String emf = metrics.toEmf(OperationStatus.SUCCESS, 0);
+        assertThat(emf).contains("\"ClientCacheHits\":2", "\"ClientCacheMisses\":0");
+    }
+
+    @Test
+    public void prime_withoutRegion_skipsClients() {
+        assertThatCode(() -> Primer.prime(null)).doesNotThrowAnyException();
+    }
+
+    @Test
+    public void primeOnInit_runsOncePerContainer() {
+        assertThatCode(Primer::primeOnInit).doesNotThrowAnyException();
+        assertThatCode(Primer::primeOnInit).doesNotThrowAnyException();
+    }
+}
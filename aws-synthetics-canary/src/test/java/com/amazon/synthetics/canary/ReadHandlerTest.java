@@ -5,9 +5,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.synthetics.model.Canary;
+import software.amazon.awssdk.services.synthetics.model.DescribeCanariesRequest;
+import software.amazon.awssdk.services.synthetics.model.DescribeCanariesResponse;
 import software.amazon.awssdk.services.synthetics.model.GetCanaryRequest;
 import software.amazon.awssdk.services.synthetics.model.ResourceNotFoundException;
 import software.amazon.cloudformation.exceptions.CfnNotFoundException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.OperationStatus;
 
@@ -15,6 +19,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,7 +29,7 @@ public class ReadHandlerTest extends TestBase {
     @ParameterizedTest
     @ValueSource(booleans = {true, false})
     public void handleRequest_SimpleSuccess(boolean useDefaultS3Encryption) {
-        final ReadHandler handler = new ReadHandler();
+        final ReadHandler handler = new ReadHandler(clients);
 
         configureGetCanaryResponse(canaryResponseObjectForTesting(CANARY_NAME, true, useDefaultS3Encryption));
 
@@ -49,7 +55,7 @@ public class ReadHandlerTest extends TestBase {
 
     @Test
     public void handleRequest_SimpleSuccess_NoOptionals() {
-        final ReadHandler handler = new ReadHandler();
+        final ReadHandler handler = new ReadHandler(clients);
 
         configureGetCanaryResponse(canaryResponseObjectForTesting(CANARY_NAME, false, false));
 
@@ -75,7 +81,7 @@ public class ReadHandlerTest extends TestBase {
 
     @Test
     public void handleRequest_CanaryNotFound() {
-        final ReadHandler handler = new ReadHandler();
+        final ReadHandler handler = new ReadHandler(clients);
 
         // if we throw ResourceNotFoundException when getting canary, that error gets caught and CfnNotFoundException is thrown.
         configureGetCanaryResponse(ResourceNotFoundException.builder().build());
@@ -88,4 +94,13 @@ public class ReadHandlerTest extends TestBase {
                 any()
         );
     }
+
+    @Test
+    public void handleRequest_getCanaryThrottled_throwsThrottling() {
+        final ReadHandler handler = new ReadHandler(clients);
+        configureGetCanaryResponse(new ApiRateLimiter.ThrottledException("scope", 3, null));
+
+        assertThatThrownBy(() -> handler.handleRequest(proxy, buildResourceHandlerRequestWithTagReplication(CANARY_NAME), null, logger))
+                .isInstanceOf(CfnThrottlingException.class);
+    }
 }
@@ -0,0 +1,40 @@
+package com.amazon.synthetics.canary;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RuntimeDescriptorTest {
+    @Test
+    public void of_nodejsRuntimes_packageUnderNodeModules() {
+        for (String version : new String[] {"syn-1.0", "syn-nodejs-2.0-beta", "syn-nodejs-puppeteer-9.1", "syn-nodejs-playwright-2.0"}) {
+            RuntimeDescriptor runtime = RuntimeDescriptor.of(version);
+
+            assertThat(runtime.isKnown()).isTrue();
+            assertThat(runtime.scriptEntryPath("pageLoad.handler")).isEqualTo("/nodejs/node_modules/pageLoad.js");
+        }
+    }
+
+    @Test
+    public void of_pythonRuntime_packagesUnderPython() {
+        RuntimeDescriptor runtime = RuntimeDescriptor.of("syn-python-selenium-4.1");
+
+        assertThat(runtime.isKnown()).isTrue();
+        assertThat(runtime.scriptEntryPath("pageLoad.handler")).isEqualTo("/python/pageLoad.py");
+    }
+
+    @Test
+    public void of_unknownOrMissingVersion_isNotTreatedAsNodejs() {
+        for (String version : new String[] {"syn-ruby-1.0", "nodejs", null}) {
+            RuntimeDescriptor runtime = RuntimeDescriptor.of(version);
+
+            assertThat(runtime.isKnown()).isFalse();
+            assertThat(runtime.getPackagingDirectory()).isNull();
+        }
+    }
+
+    @Test
+    public void of_sameVersion_returnsCachedDescriptor() {
+        assertThat(RuntimeDescriptor.of("syn-nodejs-puppeteer-9.1")).isSameAs(RuntimeDescriptor.of("syn-nodejs-puppeteer-9.1"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.amazon.synthetics.canary;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.SdkBytes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ScriptPackagerTest {
+    private static final String ENTRY_PATH = "/nodejs/node_modules/pageLoadBlueprint.js";
+    private static final String SCRIPT = "const synthetics = require('Synthetics'); // ünicode\n";
+
+    @Test
+    public void zip_deflated_roundTripsScript() throws IOException {
+        SdkBytes zip = ScriptPackager.DEFLATED.zip(ENTRY_PATH, SCRIPT.repeat(100));
+
+        assertSingleEntry(zip, ENTRY_PATH, SCRIPT.repeat(100), ZipEntry.DEFLATED);
+        assertThat(zip.asByteArrayUnsafe().length).isLessThan(SCRIPT.length() * 100);
+    }
+
+    @Test
+    public void zip_stored_roundTripsScript() throws IOException {
+        SdkBytes zip = ScriptPackager.STORED.zip(ENTRY_PATH, SCRIPT);
+
+        assertSingleEntry(zip, ENTRY_PATH, SCRIPT, ZipEntry.STORED);
+    }
+
+    @Test
+    public void zip_sameScript_producesSameBytes() {
+        assertThat(ScriptPackager.DEFLATED.zip(ENTRY_PATH, SCRIPT)).isEqualTo(ScriptPackager.DEFLATED.zip(ENTRY_PATH, SCRIPT));
+        assertThat(ScriptPackager.STORED.zip(ENTRY_PATH, SCRIPT)).isEqualTo(ScriptPackager.STORED.zip(ENTRY_PATH, SCRIPT));
+    }
+
+    @Test
+    public void constructor_invalidLevel_throws() {
+        assertThatThrownBy(() -> new ScriptPackager(10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void zip_files_writesEntriesInPathOrderUnderDirectory() throws IOException {
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put("pageLoad.js", SCRIPT);
+        files.put("lib/helpers.js", "module.exports = {};");
+
+        SdkBytes zip = ScriptPackager.DEFLATED.zip("/nodejs/node_modules/", files);
+
+        try (ZipInputStream input = new ZipInputStream(new ByteArrayInputStream(zip.asByteArrayUnsafe()))) {
+            assertThat(input.getNextEntry().getName()).isEqualTo("/nodejs/node_modules/lib/helpers.js");
+            assertThat(new String(input.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("module.exports = {};");
+            assertThat(input.getNextEntry().getName()).isEqualTo("/nodejs/node_modules/pageLoad.js");
+            assertThat(new String(input.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(SCRIPT);
+            assertThat(input.getNextEntry()).isNull();
+        }
+    }
+
+    @Test
+    public void zip_files_sameBundleInAnyOrder_producesSameBytes() {
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put("b.js", SCRIPT);
+        files.put("a.js", SCRIPT.repeat(1000));
+        Map<String, String> reversed = new LinkedHashMap<>();
+        reversed.put("a.js", SCRIPT.repeat(1000));
+        reversed.put("b.js", SCRIPT);
+
+        assertThat(ScriptPackager.DEFLATED.zip("/python/", files)).isEqualTo(ScriptPackager.DEFLATED.zip("/python/", reversed));
+        assertThat(ScriptPackager.STORED.zip("/python/", files)).isEqualTo(ScriptPackager.STORED.zip("/python/", reversed));
+    }
+
+    private static void assertSingleEntry(SdkBytes zip, String entryPath, String script, int method) throws IOException {
+        try (ZipInputStream input = new ZipInputStream(new ByteArrayInputStream(zip.asByteArrayUnsafe()))) {
+            ZipEntry entry = input.getNextEntry();
+            assertThat(entry.getName()).isEqualTo(entryPath);
+            assertThat(entry.getMethod()).isEqualTo(method);
+            assertThat(new String(input.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(script);
+            assertThat(input.getNextEntry()).isNull();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.amazon.synthetics.canary;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.synthetics.model.CanaryState;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StabilizationBudgetTest {
+    @Test
+    public void get_stateWithoutOwnBudget_usesDefault() {
+        StabilizationBudget budget = StabilizationBudget.of(Duration.ofSeconds(50))
+            .with(CanaryState.STOPPING, Duration.ofMinutes(15));
+
+        assertThat(budget.get(CanaryState.DELETING)).isEqualTo(Duration.ofSeconds(50));
+        assertThat(budget.get(CanaryState.STOPPING)).isEqualTo(Duration.ofMinutes(15));
+    }
+
+    @Test
+    public void with_leavesOriginalUnchanged() {
+        StabilizationBudget budget = StabilizationBudget.of(Duration.ofSeconds(50));
+
+        budget.with(CanaryState.RUNNING, Duration.ofMinutes(15));
+
+        assertThat(budget.get(CanaryState.RUNNING)).isEqualTo(Duration.ofSeconds(50));
+    }
+}
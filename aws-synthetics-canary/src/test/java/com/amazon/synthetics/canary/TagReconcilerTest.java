@@ -0,0 +1,108 @@
+package com.amazon.synthetics.canary;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.lambda.LambdaClient;
+import software.amazon.awssdk.services.synthetics.SyntheticsClient;
+import software.amazon.awssdk.services.synthetics.model.TagResourceRequest;
+import software.amazon.awssdk.services.synthetics.model.UntagResourceRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class TagReconcilerTest extends TestBase {
+    private static final String CANARY_ARN = "arn:aws:synthetics:us-west-2:123456789012:canary:canary-name";
+    private static final String LAMBDA_ARN = "arn:aws:lambda:us-west-2:123456789012:function:canary-name";
+
+    private final TagReconciler reconciler = new TagReconciler(
+        proxy::injectCredentialsAndInvokeV2, mock(SyntheticsClient.class), mock(LambdaClient.class), message -> { });
+
+    @Test
+    public void reconcile_tagsCanaryAndLambdaConcurrently() {
+        // Each side waits for the other to start, which only completes if they run in parallel.
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            bothStarted.countDown();
+            assertThat(bothStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            return null;
+        }).when(proxy).injectCredentialsAndInvokeV2(any(TagResourceRequest.class), any());
+        doAnswer(invocation -> {
+            bothStarted.countDown();
+            assertThat(bothStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            return null;
+        }).when(proxy).injectCredentialsAndInvokeV2(any(software.amazon.awssdk.services.lambda.model.TagResourceRequest.class), any());
+
+        String error = reconciler.reconcile(CANARY_ARN, tagDiff("key1"), LAMBDA_ARN, tagDiff("key1"));
+
+        assertThat(error).isNull();
+        verify(proxy).injectCredentialsAndInvokeV2(any(UntagResourceRequest.class), any());
+        verify(proxy).injectCredentialsAndInvokeV2(any(software.amazon.awssdk.services.lambda.model.UntagResourceRequest.class), any());
+    }
+
+    @Test
+    public void reconcile_emptyDiffs_makesNoCalls() {
+        String error = reconciler.reconcile(CANARY_ARN, TagDiff.EMPTY, LAMBDA_ARN, TagDiff.EMPTY);
+
+        assertThat(error).isNull();
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(), any());
+    }
+
+    @Test
+    public void reconcile_withoutLambdaArn_onlyTagsCanary() {
+        String error = reconciler.reconcile(CANARY_ARN, tagDiff("key1"), null, null);
+
+        assertThat(error).isNull();
+        verify(proxy).injectCredentialsAndInvokeV2(any(TagResourceRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(software.amazon.awssdk.services.lambda.model.TagResourceRequest.class), any());
+    }
+
+    @Test
+    public void reconcile_missingPermissionsOnBothSides_returnsCombinedMessage() {
+        doThrow(missingPermissionsException())
+            .when(proxy).injectCredentialsAndInvokeV2(any(TagResourceRequest.class), any());
+        doThrow(missingPermissionsException())
+            .when(proxy).injectCredentialsAndInvokeV2(any(software.amazon.awssdk.services.lambda.model.TagResourceRequest.class), any());
+
+        String error = reconciler.reconcile(CANARY_ARN, tagDiff("key1"), LAMBDA_ARN, tagDiff("key1"));
+
+        assertThat(error).contains(MISSING_TAGGING_PERMISSIONS_ERROR_MESSAGE).contains("; ");
+    }
+
+    @Test
+    public void reconcile_otherFailure_isThrown() {
+        AwsServiceException throttled = AwsServiceException.builder()
+            .statusCode(429)
+            .awsErrorDetails(AwsErrorDetails.builder().errorMessage("Rate exceeded").build())
+            .build();
+        doThrow(throttled)
+            .when(proxy).injectCredentialsAndInvokeV2(any(TagResourceRequest.class), any());
+        doThrow(missingPermissionsException())
+            .when(proxy).injectCredentialsAndInvokeV2(any(software.amazon.awssdk.services.lambda.model.TagResourceRequest.class), any());
+
+        assertThatThrownBy(() -> reconciler.reconcile(CANARY_ARN, tagDiff("key1"), LAMBDA_ARN, tagDiff("key1")))
+            .isSameAs(throttled);
+    }
+
+    private static TagDiff tagDiff(String key) {
+        return TagDiff.of(Collections.singletonMap(key, "value"), Collections.singletonMap("stale", "value"));
+    }
+
+    private static AwsServiceException missingPermissionsException() {
+        return AwsServiceException.builder()
+            .statusCode(403)
+            .awsErrorDetails(AwsErrorDetails.builder()
+                .errorMessage(MISSING_TAGGING_PERMISSIONS_ERROR_MESSAGE)
+                .build())
+            .build();
+    }
+}
@@ -77,6 +77,23 @@ public class TestBase {
 
     protected AmazonWebServicesClientProxy proxy = mock(AmazonWebServicesClientProxy.class);
     protected Logger logger = new ConsoleLogger();
+    // Calls go through the mocked proxy; the fakes only stand in for the clients the handlers build.
+    protected HandlerClients clients = fakeClients();
+
+    protected static HandlerClients fakeClients() {
+        FakeLambda lambda = new FakeLambda();
+        FakeSynthetics synthetics = new FakeSynthetics(System::currentTimeMillis, lambda);
+        return new HandlerClients((region, metrics) -> synthetics, (region, metrics) -> lambda,
+            new ApiRateLimiter(0, System::nanoTime));
+    }
+
+    /**
+     * Inline polling waits on the wall clock, so handlers under test answer after their first poll.
+     */
+    protected static <T extends CanaryActionHandler> T withoutInlinePolling(T handler) {
+        handler.setInlinePollingBudgetMillis(0);
+        return handler;
+    }
 
     private static class ConsoleLogger implements Logger {
         @Override
@@ -131,7 +148,9 @@ public class TestBase {
                 null,
                 null,
                 "pageLoadBlueprint.handler",
-                "arn:aws:lambda:us-west-2:440056434621:layer:cwsyn-cfncanary-017e8100-8bee-4ba9-bf6e-2e9837592425:1");
+                "arn:aws:lambda:us-west-2:440056434621:layer:cwsyn-cfncanary-017e8100-8bee-4ba9-bf6e-2e9837592425:1",
+                null,
+                null);
         return codeObjectForTesting;
     }
 
@@ -375,6 +394,8 @@ public class TestBase {
                 "    return await pageLoadBlueprint();\n" +
                 "};",
             "pageLoadBlueprint.handler",
+                null,
+                null,
                 null);
 
         final Code codeObjectForPython = new Code(null,
@@ -382,6 +403,8 @@ public class TestBase {
             null,
             "from aws_synthetics.selenium import synthetics_webdriver as syn_webdriver\nfrom aws_synthetics.common import synthetics_logger as logger\n\ndef main():\n  url = \"https://etsy.com\"\n\n  # Set screenshot option\n  takeScreenshot = True\n\n  browser = syn_webdriver.Chrome()\n  browser.get(url)\n\n  if takeScreenshot:\n    browser.save_screenshot(\"loaded.png\")\n\n  response_code = syn_webdriver.get_http_response(url)\n  if not response_code or response_code < 200 or response_code > 299:\n    raise Exception(\"Failed to load page!\")\n  logger.info(\"Canary successfully executed\")\n\ndef handler(event, context):\n  # user defined log statements using synthetics_logger\n  logger.info(\"Selenium Python heartbeat canary\")\n  return main()\n",
             "pageLoadBlueprint.handler",
+                null,
+                null,
                 null);
 
         final Schedule scheduleForTesting = new Schedule();
@@ -15,6 +15,7 @@ import software.amazon.awssdk.services.lambda.model.ListTagsRequest;
 import software.amazon.awssdk.services.lambda.model.ListTagsResponse;
 import software.amazon.awssdk.services.synthetics.model.GetCanaryRequest;
 import software.amazon.awssdk.services.synthetics.model.TagResourceRequest;
+import software.amazon.awssdk.services.synthetics.model.TagResourceResponse;
 import software.amazon.awssdk.services.synthetics.model.UntagResourceRequest;
 import software.amazon.awssdk.services.synthetics.model.ArtifactConfigOutput;
 import software.amazon.awssdk.services.synthetics.model.Canary;
@@ -50,10 +51,12 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 public class UpdateHandlerTest extends TestBase {
-    private UpdateHandler handler = new UpdateHandler();
+    private UpdateHandler handler = withoutInlinePolling(new UpdateHandler(clients));
 
     @Test
     public void handleRequest_canaryStateIsCreating_fails() {
@@ -1355,6 +1358,63 @@ public class UpdateHandlerTest extends TestBase {
         assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.UnauthorizedTaggingOperation);
     }
  
+    @Test
+    public void handleRequest_updateCanaryThrottled_retriesUpdateLater() {
+        final ResourceModel model = buildModel(true);
+        model.setTags(Collections.singletonList(new Tag("key1", "value1")));
+        configureGetCanaryResponse(CanaryState.RUNNING);
+        configureLambdaListTagsResponse();
+        doThrow(new ApiRateLimiter.ThrottledException("scope", 7, null))
+                .when(proxy).injectCredentialsAndInvokeV2(any(UpdateCanaryRequest.class), any());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(
+                proxy, taggingRequest(model), CallbackContext.builder().build(), logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(7);
+        assertThat(response.getCallbackContext().isCanaryUpdateStarted()).isFalse();
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(TagResourceRequest.class), any());
+    }
+
+    @Test
+    public void handleRequest_tagResourceThrottledAfterUpdate_retriesOnlyTagsLater() {
+        final ResourceModel model = buildModel(true);
+        model.setTags(Collections.singletonList(new Tag("key1", "value1")));
+        configureGetCanaryResponse(CanaryState.RUNNING);
+        configureLambdaListTagsResponse();
+        doThrow(new ApiRateLimiter.ThrottledException("scope", 7, null))
+                .when(proxy).injectCredentialsAndInvokeV2(any(TagResourceRequest.class), any());
+
+        final ProgressEvent<ResourceModel, CallbackContext> throttled = handler.handleRequest(
+                proxy, taggingRequest(model), CallbackContext.builder().build(), logger);
+
+        assertThat(throttled.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(throttled.getCallbackDelaySeconds()).isEqualTo(7);
+        assertThat(throttled.getCallbackContext().isCanaryUpdateStarted()).isTrue();
+        assertThat(throttled.getCallbackContext().isCanaryTagsPending()).isTrue();
+
+        configureGetCanaryResponse(CanaryState.UPDATING);
+        doReturn(TagResourceResponse.builder().build())
+                .when(proxy).injectCredentialsAndInvokeV2(any(TagResourceRequest.class), any());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(
+                proxy, taggingRequest(model), throttled.getCallbackContext(), logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().isCanaryTagsPending()).isFalse();
+        verify(proxy).injectCredentialsAndInvokeV2(any(UpdateCanaryRequest.class), any());
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(TagResourceRequest.class), any());
+    }
+
+    private static ResourceHandlerRequest<ResourceModel> taggingRequest(ResourceModel model) {
+        return ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .awsPartition("aws")
+                .region("us-west-2")
+                .awsAccountId("123456789012")
+                .build();
+    }
+
     @ParameterizedTest(name = "handleRequest_updateProvisionedResourceCleanupSetting {arguments}")
     @CsvSource(textBlock = """
             # Current, Update
@@ -1390,7 +1450,7 @@ public class UpdateHandlerTest extends TestBase {
  
     @ParameterizedTest
     @ValueSource(strings = {"AUTOMATIC","OFF"})
-    public void handleRequest_noChangeToProvisionedResourcesCleanupSetting_updatesWithExistingValue(String setting) {
+    public void handleRequest_noChangeToProvisionedResourcesCleanupSetting_omitsSetting(String setting) {
         final ResourceModel model = buildModel();
         model.setProvisionedResourceCleanup(setting);
         model.setTags(null);
@@ -1413,13 +1473,13 @@ public class UpdateHandlerTest extends TestBase {
         Mockito.verify(proxy, atLeastOnce())
                 .injectCredentialsAndInvokeV2(updateRequestCaptor.capture(), any());
         final UpdateCanaryRequest updateRequest = updateRequestCaptor.getValue();
-        assertThat(updateRequest.provisionedResourceCleanupAsString()).isEqualTo(setting);
+        assertThat(updateRequest.provisionedResourceCleanupAsString()).isNull();
         assertThat(response.getResourceModel().getProvisionedResourceCleanup()).isEqualTo(setting);
     }
  
     @ParameterizedTest
     @ValueSource(strings = {"AUTOMATIC","OFF"})
-    public void handleRequest_nullProvisionedResourcesCleanupSetting_updatesWithExistingValue(String setting) {
+    public void handleRequest_nullProvisionedResourcesCleanupSetting_omitsSetting(String setting) {
         final ResourceModel model = buildModel();
         // user has not specified a model value
         model.setProvisionedResourceCleanup(null);
@@ -1443,7 +1503,7 @@ public class UpdateHandlerTest extends TestBase {
         Mockito.verify(proxy, atLeastOnce())
                 .injectCredentialsAndInvokeV2(updateRequestCaptor.capture(), any());
         final UpdateCanaryRequest updateRequest = updateRequestCaptor.getValue();
-        assertThat(updateRequest.provisionedResourceCleanupAsString()).isEqualTo(setting);
+        assertThat(updateRequest.provisionedResourceCleanupAsString()).isNull();
         assertThat(response.getResourceModel().getProvisionedResourceCleanup()).isEqualTo(null);
     }
  
@@ -1476,7 +1536,68 @@ public class UpdateHandlerTest extends TestBase {
         Mockito.verify(proxy, atLeastOnce())
                 .injectCredentialsAndInvokeV2(updateRequestCaptor.capture(), any());
         final UpdateCanaryRequest updateRequest = updateRequestCaptor.getValue();
-        assertThat(updateRequest.provisionedResourceCleanupAsString()).isEqualTo("OFF");
+        // OFF is only sent when it differs from the current setting.
+        assertThat(updateRequest.provisionedResourceCleanupAsString()).isEqualTo("OFF".equals(setting) ? null : "OFF");
         assertThat(response.getResourceModel().getProvisionedResourceCleanup()).isEqualTo(null);
     }
+
+    @Test
+    public void handleRequest_inlineCodeUnchanged_omitsCode() {
+        final ResourceModel model = buildModel();
+        model.setTags(null);
+        model.setResourcesToReplicateTags(Collections.emptyList());
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .previousResourceState(buildModel())
+                .build();
+        configureGetCanaryResponse(createCanaryWithState(CanaryState.READY, ""));
+
+        handler.handleRequest(proxy, request, null, logger);
+
+        final ArgumentCaptor<UpdateCanaryRequest> updateRequestCaptor = ArgumentCaptor.forClass(
+                UpdateCanaryRequest.class);
+        Mockito.verify(proxy, atLeastOnce())
+                .injectCredentialsAndInvokeV2(updateRequestCaptor.capture(), any());
+        assertThat(updateRequestCaptor.getValue().code()).isNull();
+    }
+
+    @Test
+    public void handleRequest_inlineScriptChanged_sendsCode() {
+        final ResourceModel model = buildModel();
+        model.setTags(null);
+        model.setResourcesToReplicateTags(Collections.emptyList());
+        final ResourceModel previousModel = buildModel();
+        previousModel.getCode().setScript("exports.handler = async () => {};");
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .previousResourceState(previousModel)
+                .build();
+        configureGetCanaryResponse(createCanaryWithState(CanaryState.READY, ""));
+
+        handler.handleRequest(proxy, request, null, logger);
+
+        final ArgumentCaptor<UpdateCanaryRequest> updateRequestCaptor = ArgumentCaptor.forClass(
+                UpdateCanaryRequest.class);
+        Mockito.verify(proxy, atLeastOnce())
+                .injectCredentialsAndInvokeV2(updateRequestCaptor.capture(), any());
+        assertThat(updateRequestCaptor.getValue().code().zipFile()).isEqualTo(ModelHelper.compressRawScript(model));
+    }
+
+    @Test
+    public void handleRequest_noChanges_skipsUpdateCanary() {
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(CanaryUpdateDiffTest.desiredModel())
+                .previousResourceState(CanaryUpdateDiffTest.desiredModel())
+                .build();
+        final Canary canary = CanaryUpdateDiffTest.deployedCanary(CanaryState.RUNNING).toBuilder()
+                .name(CANARY_NAME)
+                .build();
+        request.getDesiredResourceState().setName(CANARY_NAME);
+        configureGetCanaryResponse(canary);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        Mockito.verify(proxy, never()).injectCredentialsAndInvokeV2(any(UpdateCanaryRequest.class), any());
+    }
 }
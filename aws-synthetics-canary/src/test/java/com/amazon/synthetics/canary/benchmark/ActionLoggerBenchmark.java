@@ -0,0 +1,89 @@
+package com.amazon.synthetics.canary.benchmark;
+
+import com.amazon.synthetics.canary.ActionLogger;
+import com.amazon.synthetics.canary.CallbackContext;
+import com.amazon.synthetics.canary.ResourceModel;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.TimeUnit;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import software.amazon.cloudformation.Action;
+import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
+
+/**
+ * Compares ActionLogger against the previous per-logger ObjectMapper and reflective payload
+ * serialization. Run with {@code -prof gc} to see bytes allocated per log line.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActionLoggerBenchmark {
+    private static final String MESSAGE = "Canary is in state CREATING.";
+
+    private CallbackContext context;
+    private ResourceModel model;
+    private Exception exception;
+    private Blackhole blackhole;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        context = CallbackContext.builder().retryKey("CREATING").build();
+        model = ResourceModel.builder().name("benchmark-canary").build();
+        exception = new CfnGeneralServiceException("CreateCanary", new IllegalStateException("Rate exceeded"));
+    }
+
+    @Benchmark
+    public void message() {
+        new ActionLogger(blackhole::consume, Action.CREATE, "123456789012", context, model).log(MESSAGE);
+    }
+
+    @Benchmark
+    public void messageObjectMapperPerLogger() throws JsonProcessingException {
+        ObjectMapper mapper = new ObjectMapper();
+        blackhole.consume(mapper.writeValueAsString(new LegacyPayload(
+            Action.CREATE, "123456789012", context.getRetryKey(), 0, model.getName(), MESSAGE, null)));
+    }
+
+    @Benchmark
+    public void exception() {
+        new ActionLogger(blackhole::consume, Action.CREATE, "123456789012", context, model).log(exception);
+    }
+
+    @Benchmark
+    public void exceptionObjectMapperPerLogger() throws JsonProcessingException {
+        ObjectMapper mapper = new ObjectMapper();
+        blackhole.consume(mapper.writeValueAsString(new LegacyPayload(
+            Action.CREATE, "123456789012", context.getRetryKey(), 0, model.getName(), null, exception)));
+    }
+
+    /**
+     * Shape of the payload that was serialized reflectively before ActionLogger wrote fields directly.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class LegacyPayload {
+        private final Action action;
+        private final String awsAccountId;
+        private final String retryKey;
+        private final Integer remainingRetryCount;
+        private final String resourceName;
+        private final String message;
+        private final Exception exception;
+    }
+}
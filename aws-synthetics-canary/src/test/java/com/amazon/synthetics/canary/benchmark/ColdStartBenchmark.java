@@ -0,0 +1,75 @@
+package com.amazon.synthetics.canary.benchmark;
+
+import com.amazon.synthetics.canary.CallbackLoopDriver;
+import com.amazon.synthetics.canary.Code;
+import com.amazon.synthetics.canary.CreateHandler;
+import com.amazon.synthetics.canary.Primer;
+import com.amazon.synthetics.canary.ResourceModel;
+import com.amazon.synthetics.canary.Schedule;
+import com.amazon.synthetics.canary.Tag;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+/**
+ * Measures what a new container pays on its first create, with and without {@link Primer} having
+ * run during init. Every fork is a fresh JVM that runs the create once against the in-memory
+ * fakes, so the score is the cold first-request time; the priming itself happens in setup and is
+ * not part of it. Compare the two scores with the "Priming finished" line printed by each primed
+ * fork to see how much of the cost moves from the first request into init.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class ColdStartBenchmark {
+    @Param({"false", "true"})
+    public boolean primed;
+
+    private CallbackLoopDriver driver;
+    private ResourceHandlerRequest<ResourceModel> request;
+
+    @Setup
+    public void setup() {
+        if (primed) {
+            Primer.primeOnInit();
+        }
+        driver = new CallbackLoopDriver(message -> { });
+        request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(ResourceModel.builder()
+                .name("cold-start-canary")
+                .artifactS3Location("s3://cw-syn-results-123456789012-us-west-2/canary")
+                .executionRoleArn("arn:aws:iam::123456789012:role/SyntheticsRole")
+                .runtimeVersion("syn-nodejs-puppeteer-9.1")
+                .code(Code.builder()
+                    .handler("index.handler")
+                    .script("exports.handler = async () => {};")
+                    .build())
+                .schedule(Schedule.builder().expression("rate(5 minutes)").durationInSeconds("0").build())
+                .tags(Collections.singletonList(Tag.builder().key("key").value("value").build()))
+                .startCanaryAfterCreation(true)
+                .build())
+            .awsPartition("aws")
+            .region("us-west-2")
+            .awsAccountId("123456789012")
+            .build();
+    }
+
+    @Benchmark
+    public CallbackLoopDriver.Result firstCreate() {
+        return driver.run(CreateHandler::new, request);
+    }
+}
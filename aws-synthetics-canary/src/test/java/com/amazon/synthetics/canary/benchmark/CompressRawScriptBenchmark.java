@@ -0,0 +1,62 @@
+package com.amazon.synthetics.canary.benchmark;
+
+import com.amazon.synthetics.canary.Code;
+import com.amazon.synthetics.canary.ModelHelper;
+import com.amazon.synthetics.canary.ResourceModel;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.core.SdkBytes;
+
+/**
+ * Measures ModelHelper.compressRawScript for inline Node.js scripts from a small blueprint up
+ * to a 1 MB script. The script repeats a realistic step so deflate sees typical redundancy.
+ * Run with {@code -prof gc} to see bytes allocated per archive.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressRawScriptBenchmark {
+    private static final String STEP =
+        "await synthetics.executeStep('step%d', async function () {\n" +
+        "    const response = await page.goto(url, {waitUntil: 'domcontentloaded', timeout: 30000});\n" +
+        "    if (!response || response.status() < 200 || response.status() > 299) {\n" +
+        "        throw 'Failed to load page!';\n" +
+        "    }\n" +
+        "});\n";
+
+    @Param({"1024", "65536", "1048576"})
+    public int scriptBytes;
+
+    private ResourceModel model;
+
+    @Setup
+    public void setup() {
+        StringBuilder script = new StringBuilder(scriptBytes + STEP.length());
+        for (int step = 0; script.length() < scriptBytes; step++) {
+            script.append(String.format(STEP, step));
+        }
+        script.setLength(scriptBytes);
+        model = ResourceModel.builder()
+            .runtimeVersion("syn-nodejs-puppeteer-9.1")
+            .code(Code.builder().handler("pageLoadBlueprint.handler").script(script.toString()).build())
+            .build();
+    }
+
+    @Benchmark
+    public SdkBytes compressRawScript() {
+        return ModelHelper.compressRawScript(model);
+    }
+}
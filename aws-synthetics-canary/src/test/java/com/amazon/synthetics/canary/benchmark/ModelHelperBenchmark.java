@@ -0,0 +1,122 @@
+package com.amazon.synthetics.canary.benchmark;
+
+import com.amazon.synthetics.canary.BaseScreenshot;
+import com.amazon.synthetics.canary.ModelHelper;
+import com.amazon.synthetics.canary.ResourceModel;
+import com.amazon.synthetics.canary.VisualReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.synthetics.model.ArtifactConfigOutput;
+import software.amazon.awssdk.services.synthetics.model.Canary;
+import software.amazon.awssdk.services.synthetics.model.CanaryCodeOutput;
+import software.amazon.awssdk.services.synthetics.model.CanaryRunConfigOutput;
+import software.amazon.awssdk.services.synthetics.model.CanaryScheduleOutput;
+import software.amazon.awssdk.services.synthetics.model.CanaryState;
+import software.amazon.awssdk.services.synthetics.model.CanaryStatus;
+import software.amazon.awssdk.services.synthetics.model.S3EncryptionConfig;
+import software.amazon.awssdk.services.synthetics.model.VisualReferenceOutput;
+import software.amazon.awssdk.services.synthetics.model.VpcConfigOutput;
+
+/**
+ * Measures the per-invocation model work: building the resource model from a GetCanary response
+ * carrying every optional block and 50 tags, and comparing a visual reference of 20 screenshots
+ * with ignore coordinates against an identical existing one, which has to walk every entry, as
+ * CanaryUpdateDiff does on every update that carries a visual reference. Run with {@code -prof gc} to see allocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelHelperBenchmark {
+    private static final int TAG_COUNT = 50;
+    private static final int SCREENSHOT_COUNT = 20;
+
+    private Canary canary;
+    private VisualReferenceOutput existingVisualReference;
+    private VisualReference newVisualReference;
+
+    @Setup
+    public void setup() {
+        Map<String, String> tags = new HashMap<>();
+        for (int i = 0; i < TAG_COUNT; i++) {
+            tags.put("key" + i, "value" + i);
+        }
+        canary = Canary.builder()
+            .id("3b0b4c8e-6f4b-4f7e-9a55-0f5e0b2f3c11")
+            .name("benchmark-canary")
+            .artifactS3Location("cw-syn-results-123456789012-us-west-2/canary/us-west-2/benchmark-canary")
+            .executionRoleArn("arn:aws:iam::123456789012:role/SyntheticsRole")
+            .failureRetentionPeriodInDays(31)
+            .successRetentionPeriodInDays(31)
+            .runtimeVersion("syn-nodejs-puppeteer-9.1")
+            .status(CanaryStatus.builder().state(CanaryState.RUNNING).build())
+            .code(CanaryCodeOutput.builder()
+                .handler("pageLoadBlueprint.handler")
+                .sourceLocationArn("arn:aws:lambda:us-west-2:123456789012:layer:cwsyn-benchmark-canary:1")
+                .build())
+            .schedule(CanaryScheduleOutput.builder().expression("rate(5 minutes)").durationInSeconds(0L).build())
+            .tags(tags)
+            .provisionedResourceCleanup("AUTOMATIC")
+            .vpcConfig(VpcConfigOutput.builder()
+                .vpcId("vpc-0123456789abcdef0")
+                .subnetIds("subnet-0123456789abcdef0", "subnet-0123456789abcdef1")
+                .securityGroupIds("sg-0123456789abcdef0")
+                .build())
+            .runConfig(CanaryRunConfigOutput.builder().timeoutInSeconds(60).memoryInMB(1000).activeTracing(true).build())
+            .artifactConfig(ArtifactConfigOutput.builder()
+                .s3Encryption(S3EncryptionConfig.builder().encryptionMode("SSE_KMS").kmsKeyArn("arn:aws:kms:us-west-2:123456789012:key/benchmark").build())
+                .build())
+            .build();
+
+        List<String> ignoreCoordinates = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ignoreCoordinates.add(String.format("%d,%d,100,100", i * 100, i * 100));
+        }
+        List<BaseScreenshot> baseScreenshots = new ArrayList<>(SCREENSHOT_COUNT);
+        List<software.amazon.awssdk.services.synthetics.model.BaseScreenshot> existingScreenshots = new ArrayList<>(SCREENSHOT_COUNT);
+        for (int i = 0; i < SCREENSHOT_COUNT; i++) {
+            String screenshotName = "screenshot-" + i + ".png";
+            baseScreenshots.add(BaseScreenshot.builder()
+                .screenshotName(screenshotName)
+                .ignoreCoordinates(ignoreCoordinates)
+                .build());
+            existingScreenshots.add(software.amazon.awssdk.services.synthetics.model.BaseScreenshot.builder()
+                .screenshotName(screenshotName)
+                .ignoreCoordinates(ignoreCoordinates)
+                .build());
+        }
+        String baseCanaryRunId = "95e5cbe3-44ab-4a75-b886-ad2be207d899";
+        newVisualReference = new VisualReference();
+        newVisualReference.setBaseCanaryRunId(baseCanaryRunId);
+        newVisualReference.setBaseScreenshots(baseScreenshots);
+        existingVisualReference = VisualReferenceOutput.builder()
+            .baseCanaryRunId(baseCanaryRunId)
+            .baseScreenshots(existingScreenshots)
+            .build();
+    }
+
+    @Benchmark
+    public ResourceModel constructModel() {
+        return ModelHelper.constructModel(canary, ResourceModel.builder().build());
+    }
+
+    @Benchmark
+    public boolean visualReferenceNeedsUpdate() {
+        return ModelHelper.visualReferenceNeedsUpdate(existingVisualReference, newVisualReference);
+    }
+}
@@ -0,0 +1,65 @@
+package com.amazon.synthetics.canary.benchmark;
+
+import com.amazon.synthetics.canary.ModelHelper;
+import com.amazon.synthetics.canary.Tag;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures ModelHelper.buildTagDiff from no tags up to the 200 tags a resource can carry.
+ * "unchanged" is the common update where the template's tags already match; "changed"
+ * updates every tenth value and drops one tag. Run with {@code -prof gc} to see allocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagDiffBenchmark {
+    @Param({"0", "50", "200"})
+    public int tagCount;
+
+    private List<Tag> requestedTags;
+    private Map<String, String> existingTags;
+    private Map<String, String> changedTags;
+
+    @Setup
+    public void setup() {
+        requestedTags = new ArrayList<>(tagCount);
+        existingTags = new HashMap<>();
+        changedTags = new HashMap<>();
+        for (int i = 0; i < tagCount; i++) {
+            requestedTags.add(new Tag("key" + i, "value" + i));
+            existingTags.put("key" + i, "value" + i);
+            changedTags.put("key" + i, i % 10 == 0 ? "old" + i : "value" + i);
+        }
+        existingTags.put("aws:cloudformation:stack-name", "benchmark-stack");
+        changedTags.put("aws:cloudformation:stack-name", "benchmark-stack");
+        changedTags.put("stale", "value");
+    }
+
+    @Benchmark
+    public Object unchanged() {
+        return ModelHelper.buildTagDiff(requestedTags, existingTags);
+    }
+
+    @Benchmark
+    public Object changed() {
+        return ModelHelper.buildTagDiff(requestedTags, changedTags);
+    }
+}
@@ -0,0 +1,155 @@
+package com.amazon.synthetics.group;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+
+/**
+ * Client-side pacing for service calls, shared by every invocation in the container. Each account
+ * and region gets a token bucket that refills at a fixed rate and holds up to one second's worth of
+ * calls. A call that would have to wait longer than {@link #MAX_WAIT_MILLIS} for a token is not made.
+ * When the service throttles a call anyway, the bucket is paused for a backoff that doubles with
+ * every consecutive throttle, so other invocations in the container back off as well.
+ *
+ * <p>In both cases the call fails with {@link ThrottledException}, which carries the delay after
+ * which the handler should run again. The throttle backoff always applies.
+ *
+ * <p>aws-synthetics-canary carries an identical copy, since the two handlers are built and
+ * registered independently; changes here belong in both.
+ */
+public class ApiRateLimiter {
+    /**
+     * Calls per second per account and region, {@link #DEFAULT_PERMITS_PER_SECOND} when unset or
+     * invalid. Set to 0 to turn pacing off.
+     */
+    static final String RATE_ENV = "API_RATE_LIMIT_PER_SECOND";
+    // Stays below the default per-account TPS of the Synthetics control plane APIs.
+    static final double DEFAULT_PERMITS_PER_SECOND = 5;
+    static final long MAX_WAIT_MILLIS = 1_000;
+    // The SDK has already retried a throttled call by the time it gets here, so start above its backoff.
+    static final long MIN_BACKOFF_MILLIS = 2 * ClientProfile.SDK_MAX_THROTTLE_BACKOFF_MILLIS;
+    static final long MAX_BACKOFF_MILLIS = 60_000;
+
+    public static final ApiRateLimiter SHARED =
+        new ApiRateLimiter(getPermitsPerSecond(System.getenv(RATE_ENV)), System::nanoTime);
+
+    private final double permitsPerSecond;
+    private final LongSupplier nanoClock;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    ApiRateLimiter(double permitsPerSecond, LongSupplier nanoClock) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.nanoClock = nanoClock;
+    }
+
+    public static String scope(String awsAccountId, String region) {
+        return (awsAccountId == null ? "" : awsAccountId) + "/" + (region == null ? "" : region);
+    }
+
+    /**
+     * Wraps a client call so that it takes a token from the scope's bucket first and reports
+     * throttling as {@link ThrottledException}.
+     */
+    public <RequestT, ResponseT> Function<RequestT, ResponseT> limit(String scope, Function<RequestT, ResponseT> call) {
+        return request -> {
+            Bucket bucket = buckets.computeIfAbsent(scope, s -> new Bucket());
+            bucket.acquire(scope);
+            try {
+                ResponseT response = call.apply(request);
+                bucket.onSuccess();
+                return response;
+            } catch (AwsServiceException e) {
+                if (e.isThrottlingException()) {
+                    throw bucket.onThrottle(scope, e);
+                }
+                throw e;
+            }
+        };
+    }
+
+    static double getPermitsPerSecond(String permitsPerSecond) {
+        if (permitsPerSecond == null || permitsPerSecond.trim().isEmpty()) {
+            return DEFAULT_PERMITS_PER_SECOND;
+        }
+        try {
+            return Math.max(Double.parseDouble(permitsPerSecond.trim()), 0);
+        } catch (NumberFormatException e) {
+            return DEFAULT_PERMITS_PER_SECOND;
+        }
+    }
+
+    private static int toSeconds(long nanos) {
+        return (int) Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private class Bucket {
+        private final double capacity = Math.max(1, permitsPerSecond);
+        private double tokens = capacity;
+        private long refilledAtNanos = nanoClock.getAsLong();
+        private long pausedUntilNanos = refilledAtNanos;
+        private int consecutiveThrottles;
+
+        void acquire(String scope) {
+            long waitNanos;
+            synchronized (this) {
+                long now = nanoClock.getAsLong();
+                if (pausedUntilNanos - now > 0) {
+                    throw new ThrottledException(scope, toSeconds(pausedUntilNanos - now), null);
+                }
+                if (permitsPerSecond <= 0) {
+                    return;
+                }
+                tokens = Math.min(capacity, tokens + (now - refilledAtNanos) * permitsPerSecond / TimeUnit.SECONDS.toNanos(1));
+                refilledAtNanos = now;
+                waitNanos = tokens >= 1 ? 0 : (long) ((1 - tokens) / permitsPerSecond * TimeUnit.SECONDS.toNanos(1));
+                if (waitNanos > TimeUnit.MILLISECONDS.toNanos(MAX_WAIT_MILLIS)) {
+                    throw new ThrottledException(scope, toSeconds(waitNanos), null);
+                }
+                // The token is taken now; the bucket refills past the deficit while this caller waits.
+                tokens -= 1;
+            }
+            if (waitNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        synchronized void onSuccess() {
+            consecutiveThrottles = 0;
+        }
+
+        synchronized ThrottledException onThrottle(String scope, AwsServiceException cause) {
+            consecutiveThrottles++;
+            long backoffMillis = Math.min(MIN_BACKOFF_MILLIS << Math.min(consecutiveThrottles - 1, 16), MAX_BACKOFF_MILLIS);
+            pausedUntilNanos = nanoClock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(backoffMillis);
+            tokens = 0;
+            int backoffSeconds = toSeconds(TimeUnit.MILLISECONDS.toNanos(backoffMillis));
+            // Jitter keeps resources that were throttled together from retrying together.
+            int callbackDelaySeconds = backoffSeconds + ThreadLocalRandom.current().nextInt(backoffSeconds / 2 + 1);
+            return new ThrottledException(scope, callbackDelaySeconds, cause);
+        }
+    }
+
+    /**
+     * Thrown instead of making, or after making, a call that was throttled.
+     */
+    public static class ThrottledException extends RuntimeException {
+        private final int callbackDelaySeconds;
+
+        ThrottledException(String scope, int callbackDelaySeconds, Throwable cause) {
+            super(String.format("Calls for %s are throttled, retrying in %d seconds", scope, callbackDelaySeconds), cause);
+            this.callbackDelaySeconds = callbackDelaySeconds;
+        }
+
+        public int getCallbackDelaySeconds() {
+            return callbackDelaySeconds;
+        }
+    }
+}
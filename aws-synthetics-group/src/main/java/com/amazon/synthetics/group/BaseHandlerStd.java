@@ -2,16 +2,27 @@ package com.amazon.synthetics.group;
 
 import com.amazon.synthetics.group.Utils.Constants;
 import com.amazonaws.arn.Arn;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
 import software.amazon.awssdk.services.synthetics.SyntheticsClient;
 import software.amazon.awssdk.services.synthetics.model.AssociateResourceRequest;
 import software.amazon.awssdk.services.synthetics.model.DisassociateResourceRequest;
 import software.amazon.awssdk.services.synthetics.model.GetGroupRequest;
 import software.amazon.awssdk.services.synthetics.model.GetGroupResponse;
 import software.amazon.awssdk.services.synthetics.model.Group;
-import software.amazon.awssdk.services.synthetics.model.ListGroupResourcesRequest;
-import software.amazon.awssdk.services.synthetics.model.ListGroupResourcesResponse;
 import software.amazon.awssdk.services.synthetics.model.ResourceNotFoundException;
 import software.amazon.awssdk.services.synthetics.model.ValidationException;
 import software.amazon.awssdk.regions.Region;
@@ -19,6 +30,7 @@ import software.amazon.cloudformation.Action;
 import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
 import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
 import software.amazon.cloudformation.exceptions.CfnResourceConflictException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
@@ -31,7 +43,31 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
  * Base class for the functionality that could be shared across Create/Read/Update/Delete/List Handlers
   */
 public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
+  /**
+   * How long an invocation keeps starting association calls. The invocation is assumed to be cut off after
+   * {@link Constants#INVOCATION_TIME_LIMIT_MILLIS}; a call started just before the deadline may wait for a rate
+   * limiter token and then run for its whole API call timeout, and the wrapper still needs time to report progress,
+   * which includes saving the cursor of the batch.
+   */
+  static final long RESOURCE_BATCH_TIME_BUDGET_MILLIS = Constants.INVOCATION_TIME_LIMIT_MILLIS
+      - ApiRateLimiter.MAX_WAIT_MILLIS
+      - ClientProfile.API_CALL_TIMEOUT.toMillis()
+      - Constants.PROGRESS_REPORTING_RESERVE_MILLIS;
+
+  // Shared by every invocation in the container. Daemon threads never keep a frozen container's runtime alive.
+  private static final ExecutorService REGION_EXECUTOR = Executors.newFixedThreadPool(Constants.MAX_PARALLEL_REGIONS,
+      runnable -> {
+        Thread thread = new Thread(runnable, "group-resource-batch");
+        thread.setDaemon(true);
+        return thread;
+      });
+
   private final Action action;
+  private String awsAccountId;
+  private Region requestRegion;
+  // Set up by handleRequest for each invocation.
+  private HandlerMetrics metrics;
+  private long resourceBatchDeadlineMillis;
 
   public BaseHandlerStd(Action action) {
     this.action = action;
@@ -44,16 +80,91 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
       final CallbackContext callbackContext,
       final Logger logger
   ) {
-    Region region = request.getRegion() != null ? Region.of(request.getRegion()) : Region.US_WEST_2;
-    Map<Region, ProxyClient<SyntheticsClient>> proxyClientMap = ClientBuilder.getClientMap(proxy);
+    return handleRequest(proxy, request, callbackContext,
+        ClientBuilder.getClientMap(proxy, request.getDesiredResourceState(), requestRegion(request)), logger);
+  }
+
+  /**
+   * Runs one invocation against the given clients and sets up the invocation's state: the request's
+   * account and region, the metrics and the deadline of resource batches.
+   */
+  final ProgressEvent<ResourceModel, CallbackContext> handleRequest(
+      final AmazonWebServicesClientProxy proxy,
+      final ResourceHandlerRequest<ResourceModel> request,
+      final CallbackContext callbackContext,
+      final Map<Region, ProxyClient<SyntheticsClient>> proxyClientMap,
+      final Logger logger
+  ) {
+    Region region = requestRegion(request);
     ProxyClient<SyntheticsClient> proxyClient = proxyClientMap.get(region);
-    return handleRequest(
-        proxy, 
-        request, 
-        callbackContext != null ? callbackContext : CallbackContext.builder().build(), 
-        proxyClientMap,
-        proxyClient, 
-        logger);
+    CallbackContext context = callbackContext != null ? callbackContext : CallbackContext.builder().build();
+    this.awsAccountId = request.getAwsAccountId();
+    this.requestRegion = region;
+    this.metrics = new HandlerMetrics(action);
+    // One deadline for the invocation, shared by the add and remove batches of an update.
+    this.resourceBatchDeadlineMillis = System.currentTimeMillis() + RESOURCE_BATCH_TIME_BUDGET_MILLIS;
+    ProgressEvent<ResourceModel, CallbackContext> response = null;
+    try {
+      response = handleRequest(
+          proxy, 
+          request, 
+          context, 
+          proxyClientMap,
+          proxyClient, 
+          logger);
+    } catch (ApiRateLimiter.ThrottledException e) {
+      response = throttled(e, request.getDesiredResourceState(), context, logger);
+    } finally {
+      metrics.emit(logger,
+          response != null ? response.getStatus() : null,
+          response != null ? response.getCallbackDelaySeconds() : 0);
+    }
+    return response;
+  }
+
+  private static Region requestRegion(ResourceHandlerRequest<ResourceModel> request) {
+    return request.getRegion() != null ? Region.of(request.getRegion()) : Region.US_WEST_2;
+  }
+
+  /**
+   * Hands a throttled call back to CloudFormation to be retried after the computed delay, with the
+   * callback context as it is. Read and list handlers cannot return IN_PROGRESS and fail with a
+   * throttling error instead.
+   */
+  private ProgressEvent<ResourceModel, CallbackContext> throttled(
+      ApiRateLimiter.ThrottledException e,
+      ResourceModel model,
+      CallbackContext callbackContext,
+      Logger logger) {
+    logger.log(e.getMessage());
+    if (action == Action.READ || action == Action.LIST) {
+      throw new CfnThrottlingException(e);
+    }
+    return ProgressEvent.<ResourceModel, CallbackContext>builder()
+        .resourceModel(model)
+        .callbackContext(callbackContext)
+        .callbackDelaySeconds(e.getCallbackDelaySeconds())
+        .message(e.getMessage())
+        .status(OperationStatus.IN_PROGRESS)
+        .build();
+  }
+
+  /**
+   * Wraps a client call in the shared rate limiter of the request's account and region.
+   */
+  protected <RequestT extends AwsRequest, ResponseT extends AwsResponse> Function<RequestT, ResponseT> rateLimited(
+      Function<RequestT, ResponseT> call) {
+    return rateLimited(requestRegion, call);
+  }
+
+  /**
+   * Wraps a client call in the shared rate limiter of the request's account and the given region,
+   * for calls made with another region's client. The call is recorded in the invocation's metrics.
+   */
+  protected <RequestT extends AwsRequest, ResponseT extends AwsResponse> Function<RequestT, ResponseT> rateLimited(
+      Region region, Function<RequestT, ResponseT> call) {
+    return ApiRateLimiter.SHARED.limit(ApiRateLimiter.scope(awsAccountId, region != null ? region.id() : null),
+        metrics.record(ClientProfile.withAttemptTimeout(call)));
   }
 
   /**
@@ -93,8 +204,10 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
       logger.log(Constants.GET_GROUP_CALL);
       GetGroupRequest getGroupRequest = com.amazon.synthetics.group.Translator.translateToReadRequest(model);
       GetGroupResponse getGroupResponse = proxy.injectCredentialsAndInvokeV2(getGroupRequest,
-          proxyClient.client()::getGroup);
+          rateLimited(proxyClient.client()::getGroup));
       return getGroupResponse.group();
+    } catch (final ApiRateLimiter.ThrottledException e) {
+      throw e;
     } catch (final ValidationException e) {
       throw new CfnInvalidRequestException(e.getMessage());
     } catch (ResourceNotFoundException e) {
@@ -106,28 +219,33 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
 
   /**
    * Wrapper to call getGroupResources api with Synthetics client and handle the response/error
-   * @return List</String>: List of resource arns associated with the group
+   * @return List</String>: List of resource arns associated with the group, read from every page
    */
   protected List<String> getGroupResourcesOrThrow(
       AmazonWebServicesClientProxy proxy, 
       ProxyClient<SyntheticsClient> proxyClient,
       ResourceModel model,
       Logger logger) {
-    try {
-      logger.log(Constants.LIST_GROUP_RESOURCES_CALL);
-      ListGroupResourcesRequest listGroupResourcesRequest = ListGroupResourcesRequest.builder()
-          .groupIdentifier(model.getName())
-          .build();
-      ListGroupResourcesResponse listGroupResourcesResponse = proxy.injectCredentialsAndInvokeV2(listGroupResourcesRequest,
-          proxyClient.client()::listGroupResources);
-      return listGroupResourcesResponse.resources();
-    } catch (final ValidationException e) {
-      throw new CfnInvalidRequestException(e.getMessage());
-    } catch (ResourceNotFoundException e) {
-      throw new CfnResourceConflictException(ResourceModel.TYPE_NAME, model.getName(), e.getMessage(), e);
-    } catch (final Exception e) {
-      throw new CfnGeneralServiceException(e.getMessage());
-    }
+    GroupResources groupResources = GroupResources.list(model.getName(), listGroupResourcesRequest -> {
+      try {
+        logger.log(Constants.LIST_GROUP_RESOURCES_CALL);
+        return proxy.injectCredentialsAndInvokeV2(listGroupResourcesRequest,
+            rateLimited(proxyClient.client()::listGroupResources));
+      } catch (final ApiRateLimiter.ThrottledException e) {
+        throw e;
+      } catch (final ValidationException e) {
+        throw new CfnInvalidRequestException(e.getMessage());
+      } catch (ResourceNotFoundException e) {
+        throw new CfnResourceConflictException(ResourceModel.TYPE_NAME, model.getName(), e.getMessage(), e);
+      } catch (final Exception e) {
+        throw new CfnGeneralServiceException(e.getMessage());
+      }
+    });
+    List<String> resourceArns = groupResources.getResourceArns();
+    metrics.recordGroupResourcePages(groupResources.getPageCount(), groupResources.getTotalLatencyMillis());
+    logger.log(String.format(Constants.LISTED_GROUP_RESOURCES, resourceArns.size(), groupResources.getPageCount(),
+        groupResources.getTotalLatencyMillis(), groupResources.getMaxPageLatencyMillis()));
+    return resourceArns;
   }
 
   /**
@@ -149,8 +267,11 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
           .resourceArn(canaryArn)
           .groupIdentifier(model.getName())
           .build();
+      Region region = Region.of(resourceArn.getRegion());
       proxy.injectCredentialsAndInvokeV2(associateResourceRequest,
-          proxyClientMap.get(Region.of(resourceArn.getRegion())).client()::associateResource);
+          rateLimited(region, ClientBuilder.getProxyClient(proxy, proxyClientMap, region).client()::associateResource));
+    } catch (final ApiRateLimiter.ThrottledException e) {
+      throw e;
     } catch (final ValidationException e) {
       throw new CfnInvalidRequestException(e.getMessage());
     } catch (ResourceNotFoundException e) {
@@ -177,7 +298,11 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
           .groupIdentifier(model.getName())
           .resourceArn(canaryArn)
           .build();
-      proxy.injectCredentialsAndInvokeV2(disassociateResourceRequest, proxyClientMap.get(Region.of(resourceArn.getRegion())).client()::disassociateResource);
+      Region region = Region.of(resourceArn.getRegion());
+      proxy.injectCredentialsAndInvokeV2(disassociateResourceRequest,
+          rateLimited(region, ClientBuilder.getProxyClient(proxy, proxyClientMap, region).client()::disassociateResource));
+    } catch (final ApiRateLimiter.ThrottledException e) {
+      throw e;
     } catch (final ValidationException e) {
       throw new CfnInvalidRequestException(e.getMessage());
     } catch (ResourceNotFoundException e) {
@@ -188,26 +313,38 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
   }
 
   /**
-   * Function to add AssociatedResources list. It determines which resource will be added in one round based on
-   * AddResourceListIndex in the callbackContext
-   * @param useResourceDiffList: boolean to indicate which list should be used to add (for update request this is true,
-   *                           for create this is false
-   * @return send back an in progress event
+   * Function to add AssociatedResources list. Resources are associated in batches: every resource that fits
+   * within the invocation's time budget is associated in this round, and the callbackContext records where
+   * a re-invocation resumes.
+   * @return an in progress event if resources are left to associate, a success event otherwise
    */
   protected ProgressEvent<ResourceModel, CallbackContext> addAssociatedResources(
-      boolean useResourceDiffList, 
       AmazonWebServicesClientProxy proxy,
       CallbackContext callbackContext, 
       Map<Region, ProxyClient<SyntheticsClient>> proxyClientMap,
       ResourceModel model,
       Logger logger) {
-    int index = callbackContext.getAddResourceListIndex();
-    if (useResourceDiffList) {
-      addAssociatedResource(callbackContext.getAddResourceList().get(index), proxy, proxyClientMap, model, logger);
-    } else {
-      addAssociatedResource(model.getResourceArns().get(index), proxy, proxyClientMap, model, logger);
+    // Create works through the model's arns until a batch leaves a gap, update always has its diff list.
+    List<String> resourceArns = callbackContext.getAddResourceList() != null ?
+        callbackContext.getAddResourceList() : model.getResourceArns();
+    boolean completed = processResourcesInBatch(
+        resourceArns,
+        callbackContext.getAddResourceListIndex(),
+        canaryArn -> addAssociatedResource(canaryArn, proxy, proxyClientMap, model, logger),
+        (pendingArns, resumeIndex) -> {
+          if (pendingArns != resourceArns) {
+            callbackContext.setAddResourceList(pendingArns);
+          }
+          callbackContext.setAddResourceListIndex(resumeIndex);
+        },
+        logger);
+    if (completed) {
+      return ProgressEvent.<ResourceModel, CallbackContext>builder()
+          .resourceModel(model)
+          .callbackContext(callbackContext)
+          .status(OperationStatus.SUCCESS)
+          .build();
     }
-    callbackContext.setAddResourceListIndex(index + 1);
     return ProgressEvent.<ResourceModel, CallbackContext>builder()
         .resourceModel(model)
         .callbackContext(callbackContext)
@@ -218,9 +355,9 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
   }
 
   /**
-   * Function to remove AssociatedResources list. It determines which resource will be added in one round based on
-   * RemoveResourceListIndex in the callbackContext
-   * @return send back an in progress event
+   * Function to remove AssociatedResources list. Resources are disassociated in batches, the same way
+   * {@link #addAssociatedResources} associates them.
+   * @return an in progress event if resources are left to remove, a success event otherwise
    */
   protected ProgressEvent<ResourceModel, CallbackContext> removeAssociatedResources(
       AmazonWebServicesClientProxy proxy, 
@@ -228,10 +365,22 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
       Map<Region, ProxyClient<SyntheticsClient>> proxyClientMap,
       ResourceModel model,
       Logger logger) {
-    int index = callbackContext.getRemoveResourceListIndex();
-    removeAssociatedResource(callbackContext.getRemoveResourceList().get(index), proxy, proxyClientMap, model, logger);
-
-    callbackContext.setRemoveResourceListIndex(index + 1);
+    boolean completed = processResourcesInBatch(
+        callbackContext.getRemoveResourceList(),
+        callbackContext.getRemoveResourceListIndex(),
+        canaryArn -> removeAssociatedResource(canaryArn, proxy, proxyClientMap, model, logger),
+        (pendingArns, resumeIndex) -> {
+          callbackContext.setRemoveResourceList(pendingArns);
+          callbackContext.setRemoveResourceListIndex(resumeIndex);
+        },
+        logger);
+    if (completed) {
+      return ProgressEvent.<ResourceModel, CallbackContext>builder()
+          .resourceModel(model)
+          .callbackContext(callbackContext)
+          .status(OperationStatus.SUCCESS)
+          .build();
+    }
     return ProgressEvent.<ResourceModel, CallbackContext>builder()
         .resourceModel(model)
         .callbackContext(callbackContext)
@@ -240,4 +389,101 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
         .status(OperationStatus.IN_PROGRESS)
         .build();
   }
+
+  /**
+   * Applies the operation to every resource arn from resumeIndex on. Arns are grouped by region and each region
+   * is worked through on its own thread, since every region is served by a different client. No new call is
+   * started once the invocation's batch deadline has passed.
+   * Progress is saved even when a call fails, so a throttled batch resumes after the arns it already processed:
+   * the cursor moves past the processed arns when they form a prefix of the pending ones, otherwise only the
+   * arns still pending are saved, in their original order, with the cursor at 0.
+   * @param resourceArns: resource arns the operation should be applied to, from resumeIndex on
+   * @param saveProgress: receives the arn list and index to resume from
+   * @return true if every resource arn has been processed
+   */
+  private boolean processResourcesInBatch(
+      List<String> resourceArns,
+      int resumeIndex,
+      Consumer<String> operation,
+      BiConsumer<List<String>, Integer> saveProgress,
+      Logger logger) {
+    final long deadline = resourceBatchDeadlineMillis;
+    final List<String> pendingArns = resourceArns.subList(resumeIndex, resourceArns.size());
+    final Set<String> processed = ConcurrentHashMap.newKeySet();
+
+    Map<String, List<String>> pendingByRegion = new LinkedHashMap<>();
+    for (String canaryArn : pendingArns) {
+      pendingByRegion.computeIfAbsent(getRegion(canaryArn), region -> new ArrayList<>()).add(canaryArn);
+    }
+    logger.log(String.format(Constants.PROCESSING_RESOURCE_BATCH, pendingArns.size(), pendingByRegion.size()));
+
+    List<Runnable> tasks = new ArrayList<>();
+    for (List<String> regionArns : pendingByRegion.values()) {
+      tasks.add(() -> {
+        for (String canaryArn : regionArns) {
+          if (System.currentTimeMillis() >= deadline) {
+            break;
+          }
+          operation.accept(canaryArn);
+          processed.add(canaryArn);
+        }
+      });
+    }
+
+    List<String> remainingArns = pendingArns;
+    try {
+      if (tasks.size() == 1) {
+        tasks.get(0).run();
+      } else if (tasks.size() > 1) {
+        runInParallel(tasks);
+      }
+    } finally {
+      remainingArns = new ArrayList<>();
+      for (String canaryArn : pendingArns) {
+        if (!processed.contains(canaryArn)) {
+          remainingArns.add(canaryArn);
+        }
+      }
+      int processedCount = pendingArns.size() - remainingArns.size();
+      if (remainingArns.equals(pendingArns.subList(processedCount, pendingArns.size()))) {
+        saveProgress.accept(resourceArns, resumeIndex + processedCount);
+      } else {
+        saveProgress.accept(remainingArns, 0);
+      }
+    }
+    return remainingArns.isEmpty();
+  }
+
+  /**
+   * Runs the tasks on the shared pool and waits for all of them, so that progress is only read once every
+   * region has stopped. The first failure is rethrown.
+   */
+  private static void runInParallel(List<Runnable> tasks) {
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (Runnable task : tasks) {
+      futures.add(CompletableFuture.runAsync(task, REGION_EXECUTOR));
+    }
+    RuntimeException failure = null;
+    for (CompletableFuture<Void> future : futures) {
+      try {
+        future.join();
+      } catch (CompletionException e) {
+        if (failure == null) {
+          failure = e.getCause() instanceof RuntimeException ?
+              (RuntimeException) e.getCause() : new CfnGeneralServiceException(e.getCause().getMessage());
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private static String getRegion(String canaryArn) {
+    try {
+      return Arn.fromString(canaryArn).getRegion();
+    } catch (final IllegalArgumentException e) {
+      throw new CfnInvalidRequestException(e.getMessage());
+    }
+  }
 }
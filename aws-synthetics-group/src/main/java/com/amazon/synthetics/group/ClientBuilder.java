@@ -1,8 +1,8 @@
 package com.amazon.synthetics.group;
 
-import java.util.HashMap;
+import com.amazonaws.arn.Arn;
 import java.util.Map;
-import java.util.function.Supplier;
+import java.util.concurrent.ConcurrentHashMap;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.synthetics.SyntheticsClient;
 
@@ -15,34 +15,66 @@ import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.ProxyClient;
 
 public class ClientBuilder {
+  /**
+   * Clients are expensive to build and safe to share, so they are kept for the lifetime of the
+   * Lambda container and only created for the regions a request actually uses.
+   */
+  private static final Map<Region, SyntheticsClient> REGION_CLIENTS = new ConcurrentHashMap<>();
+
   public static SyntheticsClient getClient() {
     return SyntheticsClient.builder()
         .httpClient(LambdaWrapper.HTTP_CLIENT)
+        .overrideConfiguration(ClientProfile.overrideConfiguration())
         .build();
   }
 
   public static SyntheticsClient getClient(Region region) {
     try {
-      SyntheticsClient regionClient = SyntheticsClient.builder()
-          .httpClient(LambdaWrapper.HTTP_CLIENT)
-          .region(region)
-          .build();
-      return regionClient;
+      return REGION_CLIENTS.computeIfAbsent(region, ClientBuilder::buildClient);
     } catch (Exception e) {
-      // switching to default client
+      // switching to default client, which is not cached so the region is built again on the next call
       return getClient();
     }
   }
 
-  public static Map<Region, ProxyClient<SyntheticsClient>> getClientMap(AmazonWebServicesClientProxy proxy) {
-    Map<Region, ProxyClient<SyntheticsClient>> syntheticsClientMap = new HashMap<>();
-    for(Region region: Region.regions()) {
-      Supplier<SyntheticsClient> clientSupplier = () -> getClient(region);
-      syntheticsClientMap.put(region, proxy.newProxy(clientSupplier));
+  private static SyntheticsClient buildClient(Region region) {
+    return SyntheticsClient.builder()
+        .httpClient(LambdaWrapper.HTTP_CLIENT)
+        .overrideConfiguration(ClientProfile.overrideConfiguration())
+        .region(region)
+        .build();
+  }
+
+  /**
+   * Builds the region to client map for a request. Only the request region and the regions referenced
+   * by the model's resourceArns are populated up front; other regions are added on first use through
+   * {@link #getProxyClient}.
+   */
+  public static Map<Region, ProxyClient<SyntheticsClient>> getClientMap(
+      AmazonWebServicesClientProxy proxy,
+      ResourceModel model,
+      Region requestRegion) {
+    Map<Region, ProxyClient<SyntheticsClient>> syntheticsClientMap = new ConcurrentHashMap<>();
+    getProxyClient(proxy, syntheticsClientMap, requestRegion);
+    if (model != null && model.getResourceArns() != null) {
+      for (String resourceArn : model.getResourceArns()) {
+        try {
+          getProxyClient(proxy, syntheticsClientMap, Region.of(Arn.fromString(resourceArn).getRegion()));
+        } catch (IllegalArgumentException e) {
+          // invalid arns are reported when the resource is associated
+        }
+      }
     }
     return syntheticsClientMap;
   }
 
+  public static ProxyClient<SyntheticsClient> getProxyClient(
+      AmazonWebServicesClientProxy proxy,
+      Map<Region, ProxyClient<SyntheticsClient>> proxyClientMap,
+      Region region) {
+    return proxyClientMap.computeIfAbsent(region, r -> proxy.newProxy(() -> getClient(r)));
+  }
+
   /**
    * Provide endpoint overrides for testing
    * if your SDK is not public yet.
@@ -0,0 +1,79 @@
+package com.amazon.synthetics.group;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+import software.amazon.awssdk.awscore.retry.AwsRetryStrategy;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.retries.api.RetryStrategy;
+import software.amazon.awssdk.services.synthetics.model.GetGroupRequest;
+import software.amazon.awssdk.services.synthetics.model.ListGroupResourcesRequest;
+import software.amazon.awssdk.services.synthetics.model.ListGroupsRequest;
+
+/**
+ * Retry and timeout settings for the clients the handlers use in production. Connections come
+ * from the RPDK's shared {@code LambdaWrapper.HTTP_CLIENT}.
+ *
+ * <p>Clients retry in adaptive mode, which slows down on its own once the service starts
+ * throttling, and give up after {@link #MAX_ATTEMPTS} attempts. Reads get a shorter attempt
+ * timeout than the client default.
+ * A call that still fails is handed back to CloudFormation, and the handler's own backoff
+ * (see {@link ApiRateLimiter}) starts above anything the SDK has already waited.
+ */
+public final class ClientProfile {
+    static final int MAX_ATTEMPTS = 3;
+    static final Duration DEFAULT_ATTEMPT_TIMEOUT = Duration.ofSeconds(10);
+    static final Duration API_CALL_TIMEOUT = Duration.ofSeconds(45);
+    /**
+     * The longest the SDK backs off between two throttled attempts: the throttling backoff
+     * starts at one second and doubles per retry.
+     */
+    static final long SDK_MAX_THROTTLE_BACKOFF_MILLIS = 1_000L << (MAX_ATTEMPTS - 2);
+
+    private static final Map<Class<? extends AwsRequest>, Duration> ATTEMPT_TIMEOUTS = Map.of(
+        GetGroupRequest.class, Duration.ofSeconds(5),
+        ListGroupResourcesRequest.class, Duration.ofSeconds(5),
+        ListGroupsRequest.class, Duration.ofSeconds(5));
+
+    private static final RetryStrategy RETRY_STRATEGY = AwsRetryStrategy.adaptiveRetryStrategy()
+        .toBuilder()
+        .maxAttempts(MAX_ATTEMPTS)
+        .build();
+
+    private ClientProfile() {
+    }
+
+    public static ClientOverrideConfiguration overrideConfiguration() {
+        return ClientOverrideConfiguration.builder()
+            .retryStrategy(RETRY_STRATEGY)
+            .apiCallAttemptTimeout(DEFAULT_ATTEMPT_TIMEOUT)
+            .apiCallTimeout(API_CALL_TIMEOUT)
+            .build();
+    }
+
+    /**
+     * Wraps a client call so the request carries its operation's attempt timeout. The timeout
+     * is added inside the call because the proxy replaces the request's override configuration
+     * when it injects credentials.
+     */
+    public static <RequestT extends AwsRequest, ResponseT> Function<RequestT, ResponseT> withAttemptTimeout(
+            Function<RequestT, ResponseT> call) {
+        return request -> call.apply(applyAttemptTimeout(request));
+    }
+
+    @SuppressWarnings("unchecked")
+    static <RequestT extends AwsRequest> RequestT applyAttemptTimeout(RequestT request) {
+        Duration timeout = ATTEMPT_TIMEOUTS.get(request.getClass());
+        if (timeout == null) {
+            return request;
+        }
+        AwsRequestOverrideConfiguration overrideConfiguration = request.overrideConfiguration()
+            .map(AwsRequestOverrideConfiguration::toBuilder)
+            .orElseGet(AwsRequestOverrideConfiguration::builder)
+            .apiCallAttemptTimeout(timeout)
+            .build();
+        return (RequestT) request.toBuilder().overrideConfiguration(overrideConfiguration).build();
+    }
+}
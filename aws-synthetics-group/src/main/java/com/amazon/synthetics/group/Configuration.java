@@ -4,5 +4,7 @@ class Configuration extends BaseConfiguration {
 
     public Configuration() {
         super("aws-synthetics-group.json");
+        // The wrapper builds its configuration while the container initializes.
+        Primer.primeOnInit();
     }
 }
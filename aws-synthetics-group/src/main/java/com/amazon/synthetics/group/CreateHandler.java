@@ -49,7 +49,7 @@ public class CreateHandler extends BaseHandlerStd {
             callbackContext.setGroupAssociationStarted(true);
             callbackContext.setAddResourceListIndex(0);
         }
-        return addAssociatedResources(false, proxy, callbackContext, proxyClientMap, model, logger);
+        return addAssociatedResources(proxy, callbackContext, proxyClientMap, model, logger);
     }
 
     /**
@@ -69,7 +69,11 @@ public class CreateHandler extends BaseHandlerStd {
         logger.log(Constants.MAKING_CREATE_GROUP);
         try {
             CreateGroupRequest createGroupRequest = Translator.translateToCreateRequest(model);
-            proxy.injectCredentialsAndInvokeV2(createGroupRequest,  proxyClient.client()::createGroup);
+            proxy.injectCredentialsAndInvokeV2(createGroupRequest, rateLimited(proxyClient.client()::createGroup));
+        } catch (final ApiRateLimiter.ThrottledException e) {
+            // CreateGroup was not accepted; start over when the handler is invoked again.
+            callbackContext.setGroupCreationStarted(false);
+            throw e;
         } catch (final ValidationException e) {
             throw new CfnInvalidRequestException(e.getMessage());
         } catch (ConflictException e) {
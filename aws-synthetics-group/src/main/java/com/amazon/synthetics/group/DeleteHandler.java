@@ -37,7 +37,7 @@ public class DeleteHandler extends BaseHandlerStd {
 
         DeleteGroupRequest deleteGroupRequest = Translator.translateToDeleteRequest(model);
         try {
-            proxy.injectCredentialsAndInvokeV2(deleteGroupRequest, proxyClient.client()::deleteGroup);
+            proxy.injectCredentialsAndInvokeV2(deleteGroupRequest, rateLimited(proxyClient.client()::deleteGroup));
             return ProgressEvent.<ResourceModel, CallbackContext>builder()
                 .status(OperationStatus.SUCCESS)
                 .build();
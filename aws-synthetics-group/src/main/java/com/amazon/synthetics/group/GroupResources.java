@@ -0,0 +1,76 @@
+package com.amazon.synthetics.group;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import software.amazon.awssdk.services.synthetics.model.ListGroupResourcesRequest;
+import software.amazon.awssdk.services.synthetics.model.ListGroupResourcesResponse;
+
+/**
+ * The resources of a group, read with ListGroupResources, and the page count and latency of
+ * reading them.
+ */
+public class GroupResources {
+    private final List<String> resourceArns = new ArrayList<>();
+    private int pageCount;
+    private long totalLatencyNanos;
+    private long maxPageLatencyNanos;
+
+    private GroupResources() {
+    }
+
+    /**
+     * Reads every page of the group's resources, following nextToken until the service stops
+     * returning one.
+     *
+     * @param groupIdentifier name or id of the group
+     * @param listGroupResources makes a single ListGroupResources call
+     */
+    public static GroupResources list(String groupIdentifier,
+                                      Function<ListGroupResourcesRequest, ListGroupResourcesResponse> listGroupResources) {
+        GroupResources groupResources = new GroupResources();
+        String nextToken = null;
+        do {
+            ListGroupResourcesResponse page = groupResources.timed(listGroupResources, ListGroupResourcesRequest.builder()
+                .groupIdentifier(groupIdentifier)
+                .nextToken(nextToken)
+                .build());
+            groupResources.resourceArns.addAll(page.resources());
+            nextToken = page.nextToken();
+        } while (nextToken != null && !nextToken.isEmpty());
+        return groupResources;
+    }
+
+    /**
+     * Returns the resource arns in the order the service returned them.
+     */
+    public List<String> getResourceArns() {
+        return resourceArns;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public long getTotalLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos);
+    }
+
+    public long getMaxPageLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxPageLatencyNanos);
+    }
+
+    private ListGroupResourcesResponse timed(Function<ListGroupResourcesRequest, ListGroupResourcesResponse> listGroupResources,
+                                             ListGroupResourcesRequest request) {
+        long start = System.nanoTime();
+        try {
+            return listGroupResources.apply(request);
+        } finally {
+            long latencyNanos = System.nanoTime() - start;
+            pageCount++;
+            totalLatencyNanos += latencyNanos;
+            maxPageLatencyNanos = Math.max(maxPageLatencyNanos, latencyNanos);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.amazon.synthetics.group;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+import software.amazon.cloudformation.Action;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.OperationStatus;
+
+/**
+ * Collects the metrics of one handler invocation and writes them as a single CloudWatch Embedded
+ * Metric Format line, so CloudWatch extracts them from the log without any call being made.
+ * Metrics are dimensioned by action.
+ *
+ * <p>Service calls are counted by the SDK: {@link #record} adds this object as the request's
+ * metric publisher, which reports every finished call, including the attempts it took.
+ */
+public class HandlerMetrics implements MetricPublisher {
+    static final String NAMESPACE = "CloudFormation/Synthetics/Group";
+    private static final int INITIAL_BUFFER_SIZE = 512;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final String action;
+    private final LongSupplier clock;
+    private final long startMillis;
+    private final AtomicInteger syntheticsApiCalls = new AtomicInteger();
+    private final AtomicInteger sdkRetries = new AtomicInteger();
+    private final AtomicInteger groupResourcePages = new AtomicInteger();
+    private final AtomicLong groupResourcesLatencyMillis = new AtomicLong();
+
+    public HandlerMetrics(Action action) {
+        this(action, System::currentTimeMillis);
+    }
+
+    HandlerMetrics(Action action, LongSupplier clock) {
+        this.action = action == null ? null : action.name();
+        this.clock = clock;
+        this.startMillis = clock.getAsLong();
+    }
+
+    /**
+     * Wraps a client call so the SDK reports it to these metrics. The publisher is added inside the
+     * call because the proxy replaces the request's override configuration when it injects
+     * credentials.
+     */
+    public <RequestT extends AwsRequest, ResponseT> Function<RequestT, ResponseT> record(Function<RequestT, ResponseT> call) {
+        return request -> call.apply(withPublisher(request));
+    }
+
+    @SuppressWarnings("unchecked")
+    <RequestT extends AwsRequest> RequestT withPublisher(RequestT request) {
+        AwsRequestOverrideConfiguration overrideConfiguration = request.overrideConfiguration()
+            .map(AwsRequestOverrideConfiguration::toBuilder)
+            .orElseGet(AwsRequestOverrideConfiguration::builder)
+            .addMetricPublisher(this)
+            .build();
+        return (RequestT) request.toBuilder().overrideConfiguration(overrideConfiguration).build();
+    }
+
+    @Override
+    public void publish(MetricCollection metrics) {
+        syntheticsApiCalls.incrementAndGet();
+        metrics.metricValues(CoreMetric.RETRY_COUNT).forEach(sdkRetries::addAndGet);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Adds the ListGroupResources pages read while listing a group's resources, and the time spent
+     * reading them.
+     */
+    public void recordGroupResourcePages(int pages, long latencyMillis) {
+        groupResourcePages.addAndGet(pages);
+        groupResourcesLatencyMillis.addAndGet(latencyMillis);
+    }
+
+    /**
+     * Writes the metrics line. A null status means the handler failed with an exception; the
+     * callback delay is only reported while the handler is in progress, and group resource pages
+     * only when the group's resources were listed.
+     */
+    public void emit(Logger logger, OperationStatus status, int callbackDelaySeconds) {
+        try {
+            logger.log(toEmf(status, callbackDelaySeconds));
+        } catch (IOException e) {
+            logger.log(String.format("Failed to write metrics: %s", e.getMessage()));
+        }
+    }
+
+    String toEmf(OperationStatus status, int callbackDelaySeconds) throws IOException {
+        long now = clock.getAsLong();
+        boolean inProgress = status == OperationStatus.IN_PROGRESS;
+        int pages = groupResourcePages.get();
+        StringWriter writer = new StringWriter(INITIAL_BUFFER_SIZE);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("_aws");
+            generator.writeNumberField("Timestamp", now);
+            generator.writeArrayFieldStart("CloudWatchMetrics");
+            generator.writeStartObject();
+            generator.writeStringField("Namespace", NAMESPACE);
+            generator.writeArrayFieldStart("Dimensions");
+            generator.writeStartArray();
+            generator.writeString("Action");
+            generator.writeEndArray();
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("Metrics");
+            writeMetricDefinition(generator, "HandlerDuration", "Milliseconds");
+            writeMetricDefinition(generator, "SyntheticsApiCalls", "Count");
+            writeMetricDefinition(generator, "SdkRetries", "Count");
+            if (inProgress) {
+                writeMetricDefinition(generator, "CallbackDelay", "Seconds");
+            }
+            if (pages > 0) {
+                writeMetricDefinition(generator, "GroupResourcePages", "Count");
+                writeMetricDefinition(generator, "GroupResourcesLatency", "Milliseconds");
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndArray();
+            generator.writeEndObject();
+
+            generator.writeStringField("Action", action == null ? "UNKNOWN" : action);
+            generator.writeStringField("OperationStatus", status == null ? "EXCEPTION" : status.name());
+            generator.writeNumberField("HandlerDuration", now - startMillis);
+            generator.writeNumberField("SyntheticsApiCalls", syntheticsApiCalls.get());
+            generator.writeNumberField("SdkRetries", sdkRetries.get());
+            if (inProgress) {
+                generator.writeNumberField("CallbackDelay", callbackDelaySeconds);
+            }
+            if (pages > 0) {
+                generator.writeNumberField("GroupResourcePages", pages);
+                generator.writeNumberField("GroupResourcesLatency", groupResourcesLatencyMillis.get());
+            }
+            generator.writeEndObject();
+        }
+        return writer.toString();
+    }
+
+    private static void writeMetricDefinition(JsonGenerator generator, String name, String unit) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("Name", name);
+        generator.writeStringField("Unit", unit);
+        generator.writeEndObject();
+    }
+}
@@ -41,7 +41,7 @@ public class ListHandler extends BaseHandlerStd {
         try{
             // make an api call
             ListGroupsResponse listGroupsResponse = proxy.injectCredentialsAndInvokeV2(listGroupsRequest,
-                proxyClient.client()::listGroups);
+                rateLimited(proxyClient.client()::listGroups));
 
             // get a token for the next page
             String nextToken = listGroupsResponse == null ? null : listGroupsResponse.nextToken();
@@ -0,0 +1,41 @@
+package com.amazon.synthetics.group;
+
+import java.util.Collections;
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ * Tags to apply to and remove from a group so that it ends up with the tags in the
+ * template. Both maps are read-only; a diff without changes is always {@link #EMPTY}.
+ */
+@Getter
+public final class TagDiff {
+    public static final TagDiff EMPTY = new TagDiff(Collections.emptyMap(), Collections.emptyMap());
+
+    private final Map<String, String> tagsToAdd;
+    private final Map<String, String> tagsToRemove;
+
+    private TagDiff(Map<String, String> tagsToAdd, Map<String, String> tagsToRemove) {
+        this.tagsToAdd = tagsToAdd;
+        this.tagsToRemove = tagsToRemove;
+    }
+
+    /**
+     * @param tagsToAdd new and changed tags, or null for none
+     * @param tagsToRemove tags to remove, or null for none; only the keys are used
+     */
+    static TagDiff of(Map<String, String> tagsToAdd, Map<String, String> tagsToRemove) {
+        boolean noAdds = tagsToAdd == null || tagsToAdd.isEmpty();
+        boolean noRemovals = tagsToRemove == null || tagsToRemove.isEmpty();
+        if (noAdds && noRemovals) {
+            return EMPTY;
+        }
+        return new TagDiff(
+            noAdds ? Collections.emptyMap() : Collections.unmodifiableMap(tagsToAdd),
+            noRemovals ? Collections.emptyMap() : Collections.unmodifiableMap(tagsToRemove));
+    }
+
+    public boolean isEmpty() {
+        return this == EMPTY;
+    }
+}
@@ -1,12 +1,10 @@
 package com.amazon.synthetics.group;
 
-import com.amazon.synthetics.group.Utils.Constants;
 import com.amazonaws.arn.Arn;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -138,73 +136,50 @@ public class TagHelper {
     }
 
     /**
-     * Method to determine if the tags changed and return the tags to add and remove
+     * Method to determine if the tags changed and return the tags to add and remove.
+     * Keys with the reserved "aws:" prefix are never added; existing tags missing from the
+     * model are removed. A model without tags leaves the group's tags untouched.
      * @param model: To get the new tags
      * @param existingTags: Map of existing tags
-     * @return Map of map of Tags to be added and removed
+     * @return Tags to be added and removed, or TagDiff.EMPTY if nothing changed
      */
-    public static Map<String, Map<String, String>> updateTags(ResourceModel model, Map<String, String> existingTags) {
-        Map<String, String> modelTagMap = new HashMap<>();
+    public static TagDiff updateTags(ResourceModel model, Map<String, String> existingTags) {
         List<Tag> modelTagList = model.getTags();
-        Map<String, Map<String, String>> store = new HashMap<String, Map<String, String>>();
-        Map<String, String> tagsToAdd = new HashMap<>();
-        Map<String, String> tagsToRemove = new HashMap<>();
-
         if (modelTagList == null || modelTagList.isEmpty()) {
-            return null;
-        } else {
-            for (Tag tag : modelTagList) {
-                modelTagMap.put(tag.getKey(), tag.getValue());
-            }
+            return TagDiff.EMPTY;
+        }
+        if (existingTags == null) {
+            existingTags = Collections.emptyMap();
         }
 
-        /**
-         *  The following code sweeps through the modelTagMap for:
-         *  1. key/value pairs not to modify on at all
-         *     a. keys that contain "aws:" as those are reserved for AWS use
-         *     b. key/value pairs that already exist on the set of tags
-         *  2. key/value pairs to update on the new set of tags
-         *  3. key/value pairs to add to the new set of tags
-         * 
-         *  Then it performs a second sweep over existingTags for:
-         *  1. key/value pairs that aren't on the new modelTagMap so we can remove them
-         */
-        modelTagMap.forEach((modelKey, modelValue) -> {
-            try {
-                if ((modelKey.startsWith("aws:")) ||
-                    (existingTags.containsKey(modelKey) && modelValue.equals(existingTags.get(modelKey)))) {
-                        /**
-                         * Do nothing; we just want to make sure nothing is done when these conditions are met:
-                         * 1. key starts with "aws:" since 
-                         * 2. key/value pair will persist in the new set of tags
-                         */
-                }
-                else if (existingTags.containsKey(modelKey) && !modelValue.equals(existingTags.get(modelKey))) {
-                    tagsToAdd.put(modelKey, modelValue);
-                    tagsToRemove.put(modelKey, existingTags.get(modelKey));
-                }
-                else if (!existingTags.containsKey(modelKey)) {
-                    tagsToAdd.put(modelKey, modelValue);
+        Map<String, String> modelTagMap = new HashMap<>((int) (modelTagList.size() / 0.75f) + 1);
+        for (Tag tag : modelTagList) {
+            modelTagMap.put(tag.getKey(), tag.getValue());
+        }
+
+        // New keys and changed values are added; TagResource overwrites the old value in place.
+        Map<String, String> tagsToAdd = null;
+        for (Map.Entry<String, String> modelEntry : modelTagMap.entrySet()) {
+            String modelKey = modelEntry.getKey();
+            String modelValue = modelEntry.getValue();
+            if (!modelKey.startsWith("aws:") && !Objects.equals(modelValue, existingTags.get(modelKey))) {
+                if (tagsToAdd == null) {
+                    tagsToAdd = new HashMap<>();
                 }
-            } catch (Exception e) {
-                e.printStackTrace();
+                tagsToAdd.put(modelKey, modelValue);
             }
-        });
- 
-        // Sweep through the existingTags to make sure we're removing any tags being deleted
-        existingTags.forEach((existingKey, existingValue) -> {
-            try {
-                if (!modelTagMap.containsKey(existingKey)) {
-                    tagsToRemove.put(existingKey, existingValue);
+        }
+
+        Map<String, String> tagsToRemove = null;
+        for (Map.Entry<String, String> existingEntry : existingTags.entrySet()) {
+            if (!modelTagMap.containsKey(existingEntry.getKey())) {
+                if (tagsToRemove == null) {
+                    tagsToRemove = new HashMap<>();
                 }
-            } catch (Exception e) {
-                e.printStackTrace();
+                tagsToRemove.put(existingEntry.getKey(), existingEntry.getValue());
             }
-        });
- 
-        store.put(Constants.ADD_TAGS, tagsToAdd);
-        store.put(Constants.REMOVE_TAGS, tagsToRemove);
-        return store;
+        }
+        return TagDiff.of(tagsToAdd, tagsToRemove);
     }
 
     /**
@@ -96,7 +96,7 @@ public class Translator {
    * @param listGroupsResponse the aws cloudwatch Synthetics list groups response
    * @return list of resource models
    */
-  static List<ResourceModel> translateFromListResponse(final ListGroupsResponse listGroupsResponse) {
+  public static List<ResourceModel> translateFromListResponse(final ListGroupsResponse listGroupsResponse) {
     if (listGroupsResponse == null) {
       return new ArrayList<>();
     }
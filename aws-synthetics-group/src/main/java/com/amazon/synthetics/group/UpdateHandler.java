@@ -1,10 +1,14 @@
 package com.amazon.synthetics.group;
 
+import com.amazon.synthetics.group.Utils.ArnUtils;
 import com.amazon.synthetics.group.Utils.Constants;
 import com.google.common.annotations.VisibleForTesting;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.synthetics.SyntheticsClient;
 import software.amazon.awssdk.services.synthetics.model.BadRequestException;
@@ -13,7 +17,6 @@ import software.amazon.awssdk.services.synthetics.model.Group;
 import software.amazon.awssdk.services.synthetics.model.InternalFailureException;
 import software.amazon.awssdk.services.synthetics.model.NotFoundException;
 import software.amazon.awssdk.services.synthetics.model.TagResourceRequest;
-import software.amazon.awssdk.services.synthetics.model.TooManyRequestsException;
 import software.amazon.awssdk.services.synthetics.model.UntagResourceRequest;
 import software.amazon.cloudformation.Action;
 import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
@@ -44,20 +47,19 @@ public class UpdateHandler extends BaseHandlerStd {
 
             if (!callbackContext.isGroupUpdateStarted()) {
                 // We just need the group at the start to get current arn list, we will rely on exceptions from AssociateResource to handle concurrent mods
-                // This will need to be revisited when we increase resource limit
                 logger.log("Started update request");
                 Group group = getGroupOrThrow(proxy, proxyClient, model, logger);
                 List<String> groupResources = getGroupResourcesOrThrow(proxy, proxyClient, model, logger);
                 diffGroupArnList(groupResources, callbackContext, model, logger);
                 if (model.getTags() != null) {
-                    Map<String, Map<String, String>> tagResourceMap = TagHelper.updateTags(model, group.tags());
+                    TagDiff tagDiff = TagHelper.updateTags(model, group.tags());
                     String groupArn = group.arn();
-                    if (!tagResourceMap.get(Constants.ADD_TAGS).isEmpty()) {
-                        addTags(tagResourceMap, groupArn, proxy, proxyClient, logger);
+                    if (!tagDiff.getTagsToAdd().isEmpty()) {
+                        addTags(tagDiff.getTagsToAdd(), groupArn, proxy, proxyClient, logger);
                     }
 
-                    if (!tagResourceMap.get(Constants.REMOVE_TAGS).isEmpty()) {
-                        removeTags(tagResourceMap, groupArn, proxy, proxyClient, logger);
+                    if (!tagDiff.getTagsToRemove().isEmpty()) {
+                        removeTags(tagDiff.getTagsToRemove(), groupArn, proxy, proxyClient, logger);
                     }
                 }
                 callbackContext.setGroupUpdateStarted(true);
@@ -76,7 +78,11 @@ public class UpdateHandler extends BaseHandlerStd {
                     callbackContext.setGroupAssociationStarted(true);
                 }
  
-                return addAssociatedResources(true, proxy, callbackContext, proxyClientMap, model, logger);
+                ProgressEvent<ResourceModel, CallbackContext> addProgress =
+                    addAssociatedResources(proxy, callbackContext, proxyClientMap, model, logger);
+                if (!addProgress.isSuccess()) {
+                    return addProgress;
+                }
             }
 
             if (callbackContext.getRemoveResourceList() != null &&
@@ -85,7 +91,11 @@ public class UpdateHandler extends BaseHandlerStd {
                     callbackContext.setGroupRemoveAssociationStarted(true);
                 }
  
-                return removeAssociatedResources(proxy, callbackContext, proxyClientMap, model, logger);
+                ProgressEvent<ResourceModel, CallbackContext> removeProgress =
+                    removeAssociatedResources(proxy, callbackContext, proxyClientMap, model, logger);
+                if (!removeProgress.isSuccess()) {
+                    return removeProgress;
+                }
             }
 
             return ProgressEvent.defaultSuccessHandler(model);
@@ -95,11 +105,12 @@ public class UpdateHandler extends BaseHandlerStd {
     }
 
     /**
-     * Wrapper around tagResource call for Synthetics api and handle response/ error
-     * @param tagResourceMap
+     * Wrapper around tagResource call for Synthetics api and handle response/ error.
+     * Throttling surfaces as {@link ApiRateLimiter.ThrottledException} and is retried by the base handler.
+     * @param tagsToAdd
      * @param groupArn
      */
-    private void addTags(Map<String, Map<String, String>> tagResourceMap, 
+    private void addTags(Map<String, String> tagsToAdd, 
             String groupArn, 
             AmazonWebServicesClientProxy proxy, 
             ProxyClient<SyntheticsClient> proxyClient,
@@ -108,10 +119,10 @@ public class UpdateHandler extends BaseHandlerStd {
             logger.log(Constants.TAG_RESOURCE_CALL);
             TagResourceRequest tagResourceRequest = TagResourceRequest.builder()
                 .resourceArn(groupArn)
-                .tags(tagResourceMap.get(Constants.ADD_TAGS))
+                .tags(tagsToAdd)
                 .build();
-            proxy.injectCredentialsAndInvokeV2(tagResourceRequest, proxyClient.client()::tagResource);
-        }catch (BadRequestException | TooManyRequestsException | ConflictException | InternalFailureException e) {
+            proxy.injectCredentialsAndInvokeV2(tagResourceRequest, rateLimited(proxyClient.client()::tagResource));
+        }catch (BadRequestException | ConflictException | InternalFailureException e) {
             throw new CfnGeneralServiceException(e);
         } catch (NotFoundException e) {
             throw new CfnResourceConflictException(e);
@@ -120,11 +131,11 @@ public class UpdateHandler extends BaseHandlerStd {
 
     /**
      * Wrapper around untagResource call for Synthetics api and handle response/ error
-     * @param tagResourceMap
+     * @param tagsToRemove
      * @param groupArn
      */
     private void removeTags(
-            Map<String, Map<String, String>> tagResourceMap, 
+            Map<String, String> tagsToRemove, 
             String groupArn, 
             AmazonWebServicesClientProxy proxy,
             ProxyClient<SyntheticsClient> proxyClient,
@@ -133,10 +144,10 @@ public class UpdateHandler extends BaseHandlerStd {
             logger.log(Constants.UNTAG_RESOURCE_CALL);
             UntagResourceRequest untagResourceRequest = UntagResourceRequest.builder()
                 .resourceArn(groupArn)
-                .tagKeys(tagResourceMap.get(Constants.REMOVE_TAGS).keySet())
+                .tagKeys(tagsToRemove.keySet())
                 .build();
-            proxy.injectCredentialsAndInvokeV2(untagResourceRequest, proxyClient.client()::untagResource);
-        }catch (BadRequestException | TooManyRequestsException | ConflictException | InternalFailureException e) {
+            proxy.injectCredentialsAndInvokeV2(untagResourceRequest, rateLimited(proxyClient.client()::untagResource));
+        }catch (BadRequestException | ConflictException | InternalFailureException e) {
             throw new CfnGeneralServiceException(e);
         } catch (NotFoundException e) {
             throw new CfnResourceConflictException(e);
@@ -146,28 +157,47 @@ public class UpdateHandler extends BaseHandlerStd {
 
     /**
      * Takes in a list of existing Resource values, compares them to the ones supplied in the model and creates 2 lists:
-     * addResourceList: values in resource model not in current resources
-     * removedResourceList: Values in current resource not in resource model
+     * addResourceList: values in resource model not in current resources, in model order
+     * removedResourceList: Values in current resource not in resource model, in current order
+     * Arns are matched with {@link ArnUtils#normalizeArn}. Neither input list is modified.
      * @param currentResourceArns
      */
     @VisibleForTesting
-    private void diffGroupArnList(
+    static void diffGroupArnList(
             List<String> currentResourceArns,
             CallbackContext callbackContext,
             ResourceModel model,
             Logger logger) {
-        List<String> requestResourceArns = model.getResourceArns();
+        List<String> requestResourceArns = model.getResourceArns() != null ? model.getResourceArns() : Collections.emptyList();
         logger.log("Number of group resources in request: " + requestResourceArns.size());
- 
-        List<String> removeResourceList = new ArrayList<>(currentResourceArns);
-        removeResourceList.removeAll(requestResourceArns);
-        requestResourceArns.removeAll(currentResourceArns);
-        callbackContext.setAddResourceList(requestResourceArns);
+
+        Set<String> currentKeys = new HashSet<>(capacityFor(currentResourceArns.size()));
+        for (String arn : currentResourceArns) {
+            currentKeys.add(ArnUtils.normalizeArn(arn));
+        }
+        Set<String> requestKeys = new HashSet<>(capacityFor(requestResourceArns.size()));
+        List<String> addResourceList = new ArrayList<>();
+        for (String arn : requestResourceArns) {
+            String key = ArnUtils.normalizeArn(arn);
+            if (requestKeys.add(key) && !currentKeys.contains(key)) {
+                addResourceList.add(arn);
+            }
+        }
+        List<String> removeResourceList = new ArrayList<>();
+        for (String arn : currentResourceArns) {
+            if (!requestKeys.contains(ArnUtils.normalizeArn(arn))) {
+                removeResourceList.add(arn);
+            }
+        }
+        callbackContext.setAddResourceList(addResourceList);
         callbackContext.setRemoveResourceList(removeResourceList);
-        
-        logger.log("Number of group resources to add: " + requestResourceArns.size());
+
+        logger.log("Number of group resources to add: " + addResourceList.size());
+        logger.log("Number of group resources to remove: " + removeResourceList.size());
         logger.log("Number of group resources currently: " + currentResourceArns.size());
     }
 
-
+    private static int capacityFor(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
 }
@@ -0,0 +1,27 @@
+package com.amazon.synthetics.group.Utils;
+
+import java.util.Locale;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.regions.RegionMetadata;
+
+public class ArnUtils {
+    /**
+     * Returns the key two arns are compared by. Arns are case-insensitive, and the partition is
+     * taken from the region when the SDK knows it, so "arn:aws:synthetics:cn-north-1:..." and
+     * "arn:AWS-CN:synthetics:cn-north-1:..." name the same resource. The same name in another
+     * region does not.
+     */
+    public static String normalizeArn(String arn) {
+        String normalized = arn.trim().toLowerCase(Locale.ROOT);
+        // arn:partition:service:region:account:resource
+        String[] parts = normalized.split(":", 5);
+        if (parts.length < 5 || !"arn".equals(parts[0]) || parts[3].isEmpty()) {
+            return normalized;
+        }
+        RegionMetadata metadata = Region.of(parts[3]).metadata();
+        if (metadata == null || metadata.partition().id().equals(parts[1])) {
+            return normalized;
+        }
+        return "arn:" + metadata.partition().id() + normalized.substring("arn:".length() + parts[1].length());
+    }
+}
@@ -2,23 +2,28 @@ package com.amazon.synthetics.group.Utils;
 
 public class Constants {
     public static final int DEFAULT_CALLBACK_DELAY_SECONDS = 10;
+    // How long an invocation is assumed to be allowed to run. The handler is not told its real limit and
+    // template.yml only configures the SAM test functions, so this is a conservative assumption; only lower it.
+    public static final long INVOCATION_TIME_LIMIT_MILLIS = 60_000L;
+    public static final long PROGRESS_REPORTING_RESERVE_MILLIS = 5_000L;
+    public static final int MAX_PARALLEL_REGIONS = 8;
     public static final String RESOURCE_NOT_FOUND = "The resource was not found";
     public static final String VALIDATION_EXCEPTION_OCCURRED = "Invalid request";
     public static final String GROUP_NOT_FOUND = "The group was not found";
     public static final String GET_GROUP_CALL = "Making get group call";
     public static final String LIST_GROUP_RESOURCES_CALL = "Making list group resources call";
+    public static final String LISTED_GROUP_RESOURCES = "Listed %d group resources in %d pages (total %d ms, slowest page %d ms)";
     public static final String TAG_RESOURCE_CALL = "Making tag group resource call";
     public static final String UNTAG_RESOURCE_CALL = "Making untag group resource call";
     public static final String MAKING_CREATE_GROUP = "Making create group call";
     public static final String GROUP_CREATION_SUCCESSFUL = "Synthetics Group creation successful";
     public static final String MAKING_ADD_ASSOCIATE = "Making add association call";
     public static final String MAKING_REMOVE_ASSOCIATE = "Making remove association call";
-    public static final String ADD_TAGS = "AddTags";
-    public static final String REMOVE_TAGS = "RemoveTags";
     public static final String INVOKING_HANDLER_MSG = "Invoking Group handler";
     public static final String INVOKING_HANDLER_FINISHED_MSG = "Handler Group executed";
     public static final String ADDING_RESOURCES_IN_PROGRESS = "Adding resources to the group is in progress";
     public static final String REMOVING_RESOURCES_IN_PROGRESS = "Removing resources to the group is in progress";
     public static final String GROUP_UPDATE_DIFF_COMPLETE = "Creating a diff for update completed";
+    public static final String PROCESSING_RESOURCE_BATCH = "Processing batch of %d group resources across %d regions";
 
 }
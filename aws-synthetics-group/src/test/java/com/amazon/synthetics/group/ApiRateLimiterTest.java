@@ -0,0 +1,121 @@
+package com.amazon.synthetics.group;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.synthetics.model.TooManyRequestsException;
+import software.amazon.awssdk.services.synthetics.model.ValidationException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class ApiRateLimiterTest {
+    private static final String SCOPE = ApiRateLimiter.scope("123456789012", "us-west-2");
+
+    private final AtomicLong now = new AtomicLong(0);
+    private final AtomicInteger calls = new AtomicInteger();
+    private final Function<String, String> call = request -> {
+        calls.incrementAndGet();
+        return request;
+    };
+
+    @Test
+    public void limit_disabled_makesEveryCall() {
+        Function<String, String> limited = new ApiRateLimiter(0, now::get).limit(SCOPE, call);
+
+        for (int i = 0; i < 100; i++) {
+            limited.apply("request");
+        }
+
+        assertThat(calls.get()).isEqualTo(100);
+    }
+
+    @Test
+    public void limit_bucketEmpty_throwsWithoutCalling() {
+        Function<String, String> limited = new ApiRateLimiter(0.25, now::get).limit(SCOPE, call);
+
+        limited.apply("request");
+        ApiRateLimiter.ThrottledException e = (ApiRateLimiter.ThrottledException) catchThrowable(
+            () -> limited.apply("request"));
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(e.getCallbackDelaySeconds()).isEqualTo(4);
+    }
+
+    @Test
+    public void limit_bucketRefills() {
+        Function<String, String> limited = new ApiRateLimiter(0.25, now::get).limit(SCOPE, call);
+
+        limited.apply("request");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        limited.apply("request");
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void limit_scopesHaveSeparateBuckets() {
+        ApiRateLimiter limiter = new ApiRateLimiter(0.25, now::get);
+
+        limiter.limit(SCOPE, call).apply("request");
+        limiter.limit(ApiRateLimiter.scope("123456789012", "us-east-1"), call).apply("request");
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void limit_serviceThrottles_backsOffExponentially() {
+        ApiRateLimiter limiter = new ApiRateLimiter(0, now::get);
+        Function<String, String> throttled = limiter.limit(SCOPE, request -> {
+            throw TooManyRequestsException.builder().statusCode(429).build();
+        });
+
+        ApiRateLimiter.ThrottledException first = (ApiRateLimiter.ThrottledException) catchThrowable(
+            () -> throttled.apply("request"));
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(ApiRateLimiter.MIN_BACKOFF_MILLIS));
+        ApiRateLimiter.ThrottledException second = (ApiRateLimiter.ThrottledException) catchThrowable(
+            () -> throttled.apply("request"));
+
+        assertThat(first.getCause()).isInstanceOf(TooManyRequestsException.class);
+        // Backoff starts above the SDK's own retries, plus up to half of it in jitter.
+        assertThat(first.getCallbackDelaySeconds()).isBetween(4, 6);
+        assertThat(second.getCallbackDelaySeconds()).isBetween(8, 12);
+    }
+
+    @Test
+    public void limit_serviceThrottles_pausesOtherCallers() {
+        ApiRateLimiter limiter = new ApiRateLimiter(0, now::get);
+        Function<String, String> throttled = limiter.limit(SCOPE, request -> {
+            throw TooManyRequestsException.builder().statusCode(429).build();
+        });
+        Function<String, String> limited = limiter.limit(SCOPE, call);
+
+        assertThatThrownBy(() -> throttled.apply("request")).isInstanceOf(ApiRateLimiter.ThrottledException.class);
+        assertThatThrownBy(() -> limited.apply("request")).isInstanceOf(ApiRateLimiter.ThrottledException.class);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(ApiRateLimiter.MIN_BACKOFF_MILLIS));
+        limited.apply("request");
+
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void limit_otherServiceErrors_areRethrown() {
+        Function<String, String> failing = new ApiRateLimiter(0, now::get).limit(SCOPE, request -> {
+            throw ValidationException.builder().statusCode(400).build();
+        });
+
+        assertThatThrownBy(() -> failing.apply("request")).isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    public void getPermitsPerSecond_defaultsWhenUnset_andCanBeTurnedOff() {
+        assertThat(ApiRateLimiter.getPermitsPerSecond(null)).isEqualTo(ApiRateLimiter.DEFAULT_PERMITS_PER_SECOND);
+        assertThat(ApiRateLimiter.getPermitsPerSecond("abc")).isEqualTo(ApiRateLimiter.DEFAULT_PERMITS_PER_SECOND);
+        assertThat(ApiRateLimiter.getPermitsPerSecond("0")).isEqualTo(0);
+        assertThat(ApiRateLimiter.getPermitsPerSecond("-5")).isEqualTo(0);
+        assertThat(ApiRateLimiter.getPermitsPerSecond("2.5")).isEqualTo(2.5);
+    }
+}
@@ -0,0 +1,56 @@
+package com.amazon.synthetics.group;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.synthetics.SyntheticsClient;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+public class ClientBuilderTest extends AbstractTestBase {
+
+    @Test
+    public void getClientMap_onlyContainsReferencedRegions() {
+        List<String> canaryArns = new ArrayList<>(generateListOfCanaryArns("us-east-1"));
+        canaryArns.addAll(generateListOfCanaryArns("eu-west-1"));
+        final ResourceModel model = ResourceModel.builder()
+            .name(GROUP_NAME_FOR_TEST)
+            .resourceArns(canaryArns)
+            .build();
+
+        Map<Region, ProxyClient<SyntheticsClient>> clientMap = ClientBuilder.getClientMap(proxy, model, Region.US_WEST_2);
+
+        assertThat(clientMap.keySet()).containsExactlyInAnyOrder(Region.US_WEST_2, Region.US_EAST_1, Region.EU_WEST_1);
+    }
+
+    @Test
+    public void getClientMap_withoutResourceArns_onlyContainsRequestRegion() {
+        final ResourceModel model = ResourceModel.builder().name(GROUP_NAME_FOR_TEST).build();
+
+        Map<Region, ProxyClient<SyntheticsClient>> clientMap = ClientBuilder.getClientMap(proxy, model, Region.US_WEST_2);
+
+        assertThat(clientMap.keySet()).containsExactly(Region.US_WEST_2);
+    }
+
+    @Test
+    public void getProxyClient_addsMissingRegionOnFirstUse() {
+        final ResourceModel model = ResourceModel.builder().name(GROUP_NAME_FOR_TEST).build();
+        Map<Region, ProxyClient<SyntheticsClient>> clientMap = ClientBuilder.getClientMap(proxy, model, Region.US_WEST_2);
+
+        ProxyClient<SyntheticsClient> proxyClient = ClientBuilder.getProxyClient(proxy, clientMap, Region.AP_SOUTHEAST_1);
+
+        assertThat(clientMap.get(Region.AP_SOUTHEAST_1)).isSameAs(proxyClient);
+        assertThat(ClientBuilder.getProxyClient(proxy, clientMap, Region.AP_SOUTHEAST_1)).isSameAs(proxyClient);
+    }
+
+    @Test
+    public void getClient_reusesClientAcrossInvocations() {
+        assertThat(ClientBuilder.getClient(Region.US_EAST_2)).isSameAs(ClientBuilder.getClient(Region.US_EAST_2));
+    }
+}
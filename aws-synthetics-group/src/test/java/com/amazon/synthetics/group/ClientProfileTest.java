@@ -0,0 +1,48 @@
+package com.amazon.synthetics.group;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AnonymousCredentialsProvider;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.services.synthetics.model.CreateGroupRequest;
+import software.amazon.awssdk.services.synthetics.model.GetGroupRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClientProfileTest {
+    @Test
+    public void applyAttemptTimeout_read_isShort() {
+        AnonymousCredentialsProvider credentials = AnonymousCredentialsProvider.create();
+        GetGroupRequest request = ClientProfile.applyAttemptTimeout(GetGroupRequest.builder()
+            .groupIdentifier("group")
+            .overrideConfiguration(AwsRequestOverrideConfiguration.builder().credentialsProvider(credentials).build())
+            .build());
+
+        assertThat(request.groupIdentifier()).isEqualTo("group");
+        assertThat(request.overrideConfiguration().get().credentialsProvider()).contains(credentials);
+        assertThat(request.overrideConfiguration().get().apiCallAttemptTimeout()).contains(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void applyAttemptTimeout_otherOperations_useClientDefault() {
+        CreateGroupRequest request = CreateGroupRequest.builder().name("group").build();
+
+        assertThat(ClientProfile.applyAttemptTimeout(request)).isSameAs(request);
+    }
+
+    @Test
+    public void overrideConfiguration_boundsAttemptsAndTime() {
+        ClientOverrideConfiguration configuration = ClientProfile.overrideConfiguration();
+
+        assertThat(configuration.retryStrategy()).isPresent();
+        assertThat(configuration.retryStrategy().get().maxAttempts()).isEqualTo(ClientProfile.MAX_ATTEMPTS);
+        assertThat(configuration.apiCallAttemptTimeout()).contains(ClientProfile.DEFAULT_ATTEMPT_TIMEOUT);
+        assertThat(configuration.apiCallTimeout()).contains(ClientProfile.API_CALL_TIMEOUT);
+    }
+
+    @Test
+    public void minThrottleBackoff_exceedsSdkBackoff() {
+        assertThat(ApiRateLimiter.MIN_BACKOFF_MILLIS).isGreaterThan(ClientProfile.SDK_MAX_THROTTLE_BACKOFF_MILLIS);
+    }
+}
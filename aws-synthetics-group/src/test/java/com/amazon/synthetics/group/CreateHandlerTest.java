@@ -1,6 +1,9 @@
 package com.amazon.synthetics.group;
 
+import com.amazon.synthetics.group.Utils.Constants;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import software.amazon.awssdk.core.SdkClient;
 import software.amazon.awssdk.services.synthetics.SyntheticsClient;
 import software.amazon.awssdk.services.synthetics.model.AssociateResourceRequest;
@@ -23,8 +26,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 public class CreateHandlerTest extends AbstractTestBase {
@@ -41,8 +48,7 @@ public class CreateHandlerTest extends AbstractTestBase {
         final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
             .desiredResourceState(model)
             .build();
-        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, createFirstCallBackContext(), proxyClientMap,
-            proxyClient, logger);
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, createFirstCallBackContext(), proxyClientMap, logger);
 
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -72,7 +78,7 @@ public class CreateHandlerTest extends AbstractTestBase {
             .build();
 
         final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request,
-            createFirstCallBackContext(), proxyClientMap, proxyClient, logger);
+            createFirstCallBackContext(), proxyClientMap, logger);
 
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
@@ -100,16 +106,18 @@ public class CreateHandlerTest extends AbstractTestBase {
             .build();
 
         final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request,
-            CallbackContext.builder().groupCreationStarted(true).build(), proxyClientMap, proxyClient, logger);
+            CallbackContext.builder().groupCreationStarted(true).build(), proxyClientMap, logger);
 
         assertThat(response).isNotNull();
-        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(10);
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
         assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
-        assertThat(response.getCallbackContext().getAddResourceListIndex()).isEqualTo(1);
+        assertThat(response.getCallbackContext().getAddResourceListIndex()).isEqualTo(20);
+        assertThat(response.getCallbackContext().getAddResourceList()).isNull();
         assertThat(response.getResourceModels()).isNull();
-        assertThat(response.getMessage()).isEqualTo("Adding resources to the group is in progress");
+        assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
+        verify(syntheticsClient, times(20)).associateResource(any(AssociateResourceRequest.class));
     }
 
     @Test
@@ -130,16 +138,111 @@ public class CreateHandlerTest extends AbstractTestBase {
 
         final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request,
             CallbackContext.builder().groupCreationStarted(true).groupAssociationStarted(true)
-                .addResourceListIndex(2).build(), proxyClientMap, proxyClient, logger);
+                .addResourceListIndex(2).build(), proxyClientMap, logger);
 
         assertThat(response).isNotNull();
-        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(10);
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
         assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
-        assertThat(response.getCallbackContext().getAddResourceListIndex()).isEqualTo(3);
+        assertThat(response.getCallbackContext().getAddResourceListIndex()).isEqualTo(20);
         assertThat(response.getResourceModels()).isNull();
-        assertThat(response.getMessage()).isEqualTo("Adding resources to the group is in progress");
+        assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
+        verify(syntheticsClient, times(18)).associateResource(any(AssociateResourceRequest.class));
+    }
+
+    @Test
+    public void handleRequest_inProgress_withGroupAssociationInProgress_resumesFromPendingArns() {
+        final CreateHandler handler = new CreateHandler();
+
+        when(syntheticsClient.associateResource(any(AssociateResourceRequest.class)))
+            .thenReturn(AssociateResourceResponse.builder().build());
+
+        final List<String> canaryArns = generateListOfCanaryArns();
+        final ResourceModel model = ResourceModel.builder()
+            .name(GROUP_NAME_FOR_TEST)
+            .resourceArns(canaryArns)
+            .build();
+        final List<String> pendingArns = new ArrayList<>(canaryArns);
+        pendingArns.remove(5);
+        pendingArns.remove(0);
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request,
+            CallbackContext.builder().groupCreationStarted(true).groupAssociationStarted(true)
+                .addResourceList(pendingArns)
+                .build(), proxyClientMap, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getCallbackContext().getAddResourceListIndex()).isEqualTo(18);
+        verify(syntheticsClient, times(18)).associateResource(any(AssociateResourceRequest.class));
+        verify(syntheticsClient, never()).associateResource(
+            argThat((AssociateResourceRequest associateRequest) -> canaryArns.get(5).equals(associateRequest.resourceArn())));
+    }
+
+    @Test
+    public void handleRequest_throttledInOneRegion_savesPendingArns() {
+        final CreateHandler handler = new CreateHandler();
+
+        final List<String> throttledArns = generateListOfCanaryArns("us-east-1");
+        when(syntheticsClient.associateResource(any(AssociateResourceRequest.class)))
+            .thenAnswer(invocation -> {
+                AssociateResourceRequest associateRequest = invocation.getArgument(0);
+                if (throttledArns.contains(associateRequest.resourceArn())) {
+                    throw new ApiRateLimiter.ThrottledException("scope", 5, null);
+                }
+                return AssociateResourceResponse.builder().build();
+            });
+
+        final List<String> canaryArns = new ArrayList<>(throttledArns);
+        canaryArns.addAll(generateListOfCanaryArns());
+        final ResourceModel model = ResourceModel.builder()
+            .name(GROUP_NAME_FOR_TEST)
+            .resourceArns(canaryArns)
+            .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+        final CallbackContext callbackContext = CallbackContext.builder().groupCreationStarted(true).build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request,
+            callbackContext, proxyClientMap, logger);
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(5);
+        assertThat(callbackContext.getAddResourceList()).isEqualTo(throttledArns);
+        assertThat(callbackContext.getAddResourceListIndex()).isEqualTo(0);
+    }
+
+    @Test
+    public void handleRequest_withGroupCreationDone_withMultiRegionCanaryArns() {
+        final CreateHandler handler = new CreateHandler();
+
+        when(syntheticsClient.associateResource(any(AssociateResourceRequest.class)))
+            .thenReturn(AssociateResourceResponse.builder().build());
+
+        final List<String> canaryArns = new ArrayList<>(generateListOfCanaryArns("us-east-1"));
+        canaryArns.addAll(generateListOfCanaryArns("eu-west-1"));
+        canaryArns.addAll(generateListOfCanaryArns());
+        final ResourceModel model = ResourceModel.builder()
+            .name(GROUP_NAME_FOR_TEST)
+            .resourceArns(canaryArns)
+            .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request,
+            CallbackContext.builder().groupCreationStarted(true).build(), proxyClientMap, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getCallbackContext().getAddResourceListIndex()).isEqualTo(60);
+        assertThat(response.getCallbackContext().getAddResourceList()).isNull();
+        verify(syntheticsClient, times(60)).associateResource(any(AssociateResourceRequest.class));
     }
 
     @Test
@@ -157,7 +260,7 @@ public class CreateHandlerTest extends AbstractTestBase {
 
         final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request,
             CallbackContext.builder().groupCreationStarted(true).groupAssociationStarted(true)
-                .addResourceListIndex(model.getResourceArns().size()).build(), proxyClientMap, proxyClient, logger);
+                .addResourceListIndex(model.getResourceArns().size()).build(), proxyClientMap, logger);
 
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -185,16 +288,18 @@ public class CreateHandlerTest extends AbstractTestBase {
             .build();
 
         final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request,
-            CallbackContext.builder().groupCreationStarted(true).build(), proxyClientMap, proxyClient, logger);
+            CallbackContext.builder().groupCreationStarted(true).build(), proxyClientMap, logger);
 
         assertThat(response).isNotNull();
-        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(10);
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
         assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
-        assertThat(response.getCallbackContext().getAddResourceListIndex()).isEqualTo(1);
+        assertThat(response.getCallbackContext().getAddResourceListIndex()).isEqualTo(20);
+        assertThat(response.getCallbackContext().getAddResourceList()).isNull();
         assertThat(response.getResourceModels()).isNull();
-        assertThat(response.getMessage()).isEqualTo("Adding resources to the group is in progress");
+        assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
+        verify(syntheticsClient, times(20)).associateResource(any(AssociateResourceRequest.class));
     }
 
     @Test
@@ -213,6 +318,32 @@ public class CreateHandlerTest extends AbstractTestBase {
             .thenThrow(ConflictException.builder().message("already exists").build());
 
         assertThrows(CfnAlreadyExistsException.class, () -> handler.handleRequest(proxy, request,
-            createFirstCallBackContext(), proxyClientMap, proxyClient, logger));
+            createFirstCallBackContext(), proxyClientMap, logger));
+    }
+
+    @Test
+    public void handleRequest_createGroupThrottled_resetsCreationStarted() {
+        final CreateHandler handler = new CreateHandler();
+
+        final ResourceModel model = ResourceModel.builder().name("test-group").build();
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+        when(syntheticsClient.createGroup(any(CreateGroupRequest.class)))
+            .thenThrow(new ApiRateLimiter.ThrottledException("scope", 5, null));
+        final CallbackContext callbackContext = createFirstCallBackContext();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request,
+            callbackContext, proxyClientMap, logger);
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(callbackContext.isGroupCreationStarted()).isFalse();
+    }
+
+    @Test
+    public void resourceBatchTimeBudget_leavesRoomForOneMoreCallWithinInvocationLimit() {
+        assertThat(BaseHandlerStd.RESOURCE_BATCH_TIME_BUDGET_MILLIS).isPositive();
+        assertThat(BaseHandlerStd.RESOURCE_BATCH_TIME_BUDGET_MILLIS + ApiRateLimiter.MAX_WAIT_MILLIS
+            + ClientProfile.API_CALL_TIMEOUT.toMillis())
+            .isLessThan(Constants.INVOCATION_TIME_LIMIT_MILLIS);
     }
 }
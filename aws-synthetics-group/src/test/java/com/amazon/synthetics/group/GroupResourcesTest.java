@@ -0,0 +1,58 @@
+package com.amazon.synthetics.group;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.synthetics.model.ListGroupResourcesRequest;
+import software.amazon.awssdk.services.synthetics.model.ListGroupResourcesResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GroupResourcesTest {
+    private static final String ARN_PREFIX = "arn:aws:synthetics:us-west-2:761914923529:canary:canary-";
+
+    private final List<ListGroupResourcesRequest> requests = new ArrayList<>();
+
+    @Test
+    public void list_followsNextTokenAcrossPages() {
+        GroupResources groupResources = GroupResources.list("test-group", this::threePages);
+
+        assertThat(groupResources.getResourceArns()).containsExactly(
+            ARN_PREFIX + "0", ARN_PREFIX + "1", ARN_PREFIX + "2", ARN_PREFIX + "3");
+        assertThat(requests).extracting(ListGroupResourcesRequest::nextToken).containsExactly(null, "page-2", "page-3");
+        assertThat(requests).extracting(ListGroupResourcesRequest::groupIdentifier).containsOnly("test-group");
+        assertThat(groupResources.getPageCount()).isEqualTo(3);
+        assertThat(groupResources.getTotalLatencyMillis()).isGreaterThanOrEqualTo(groupResources.getMaxPageLatencyMillis());
+    }
+
+    @Test
+    public void list_singlePage_makesOneCall() {
+        GroupResources groupResources = GroupResources.list("test-group", request -> {
+            requests.add(request);
+            return ListGroupResourcesResponse.builder().resources(ARN_PREFIX + "0").build();
+        });
+
+        assertThat(groupResources.getResourceArns()).containsExactly(ARN_PREFIX + "0");
+        assertThat(requests).hasSize(1);
+    }
+
+    // Page 2 is empty but still carries a token, which the service is allowed to return.
+    private ListGroupResourcesResponse threePages(ListGroupResourcesRequest request) {
+        requests.add(request);
+        if (request.nextToken() == null) {
+            return ListGroupResourcesResponse.builder()
+                .resources(Arrays.asList(ARN_PREFIX + "0", ARN_PREFIX + "1"))
+                .nextToken("page-2")
+                .build();
+        }
+        if (request.nextToken().equals("page-2")) {
+            return ListGroupResourcesResponse.builder()
+                .nextToken("page-3")
+                .build();
+        }
+        return ListGroupResourcesResponse.builder()
+            .resources(Arrays.asList(ARN_PREFIX + "2", ARN_PREFIX + "3"))
+            .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.amazon.synthetics.group;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.metrics.MetricCollector;
+import software.amazon.awssdk.services.synthetics.model.GetGroupRequest;
+import software.amazon.cloudformation.Action;
+import software.amazon.cloudformation.proxy.OperationStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HandlerMetricsTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final List<String> lines = new ArrayList<>();
+    private final HandlerMetrics metrics = new HandlerMetrics(Action.UPDATE, now::get);
+
+    @Test
+    public void emit_writesEmbeddedMetricFormat() throws Exception {
+        MetricCollector collector = MetricCollector.create("ApiCall");
+        collector.reportMetric(CoreMetric.SERVICE_ID, "synthetics");
+        collector.reportMetric(CoreMetric.RETRY_COUNT, 1);
+        metrics.publish(collector.collect());
+        now.addAndGet(100);
+
+        metrics.emit(lines::add, OperationStatus.IN_PROGRESS, 3);
+
+        JsonNode json = MAPPER.readTree(lines.get(0));
+        JsonNode directive = json.get("_aws").get("CloudWatchMetrics").get(0);
+        assertThat(directive.get("Namespace").asText()).isEqualTo(HandlerMetrics.NAMESPACE);
+        assertThat(directive.get("Dimensions").toString()).isEqualTo("[[\"Action\"]]");
+        assertThat(json.get("Action").asText()).isEqualTo("UPDATE");
+        assertThat(json.get("HandlerDuration").asLong()).isEqualTo(100);
+        assertThat(json.get("SyntheticsApiCalls").asInt()).isEqualTo(1);
+        assertThat(json.get("SdkRetries").asInt()).isEqualTo(1);
+        assertThat(json.get("CallbackDelay").asInt()).isEqualTo(3);
+        assertThat(json.has("GroupResourcePages")).isFalse();
+    }
+
+    @Test
+    public void emit_reportsGroupResourcePages() throws Exception {
+        metrics.recordGroupResourcePages(3, 40);
+        metrics.recordGroupResourcePages(1, 10);
+
+        metrics.emit(lines::add, OperationStatus.SUCCESS, 0);
+
+        JsonNode json = MAPPER.readTree(lines.get(0));
+        assertThat(json.get("GroupResourcePages").asInt()).isEqualTo(4);
+        assertThat(json.get("GroupResourcesLatency").asLong()).isEqualTo(50);
+    }
+
+    @Test
+    public void emit_success_omitsCallbackDelay() throws Exception {
+        metrics.emit(lines::add, OperationStatus.SUCCESS, 0);
+
+        JsonNode json = MAPPER.readTree(lines.get(0));
+        assertThat(json.get("OperationStatus").asText()).isEqualTo("SUCCESS");
+        assertThat(json.has("CallbackDelay")).isFalse();
+    }
+
+    @Test
+    public void record_addsPublisherToRequest() {
+        List<GetGroupRequest> requests = new ArrayList<>();
+        metrics.record((GetGroupRequest request) -> requests.add(request))
+            .apply(GetGroupRequest.builder().groupIdentifier("group").build());
+
+        assertThat(requests.get(0).overrideConfiguration().get().metricPublishers()).containsExactly(metrics);
+    }
+}
@@ -0,0 +1,21 @@
+package com.amazon.synthetics.group;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.regions.Region;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+public class PrimerTest {
+    @Test
+    public void prime_withRegion_buildsTheRegionClient() throws Exception {
+        Primer.prime("eu-west-3");
+
+        assertThat(ClientBuilder.getClient(Region.EU_WEST_3).serviceClientConfiguration().region()).isEqualTo(Region.EU_WEST_3);
+    }
+
+    @Test
+    public void prime_withoutRegion_completes() {
+        assertThatCode(() -> Primer.prime(null)).doesNotThrowAnyException();
+    }
+}
@@ -7,6 +7,8 @@ import software.amazon.awssdk.core.SdkClient;
 import software.amazon.awssdk.services.synthetics.model.GetGroupRequest;
 import software.amazon.awssdk.services.synthetics.model.GetGroupResponse;
 import software.amazon.awssdk.services.synthetics.model.Group;
+import software.amazon.awssdk.services.synthetics.model.ListGroupResourcesRequest;
+import software.amazon.awssdk.services.synthetics.model.ListGroupResourcesResponse;
 import software.amazon.awssdk.services.synthetics.model.ListGroupsRequest;
 import software.amazon.awssdk.services.synthetics.model.ListGroupsResponse;
 import software.amazon.awssdk.services.synthetics.model.ResourceNotFoundException;
@@ -49,7 +51,7 @@ public class ReadHandlerTest extends AbstractTestBase {
             .desiredResourceState(model)
             .build();
 
-        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, createFirstCallBackContext(), proxyClientMap, proxyClient, logger);
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, createFirstCallBackContext(), proxyClientMap, logger);
 
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -60,6 +62,31 @@ public class ReadHandlerTest extends AbstractTestBase {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    public void handleRequest_resourcesAcrossPages_returnsAll() {
+        final ReadHandler handler = new ReadHandler();
+        configureGetGroupResponse(GROUP_NAME_FOR_TEST);
+
+        List<String> resourceArns = generateListOfCanaryArns();
+        when(syntheticsClient.listGroupResources(any(ListGroupResourcesRequest.class)))
+            .thenReturn(ListGroupResourcesResponse.builder().resources(resourceArns.subList(0, 10)).nextToken("token").build())
+            .thenReturn(ListGroupResourcesResponse.builder().resources(resourceArns.subList(10, 20)).build());
+
+        final ResourceModel model = ResourceModel.builder()
+            .id("groupId")
+            .name(GROUP_NAME_FOR_TEST)
+            .build();
+
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, createFirstCallBackContext(), proxyClientMap, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getResourceArns()).isEqualTo(resourceArns);
+    }
+
     @Test
     public void handleRequest_SimpleFailure() {
         final ReadHandler handler = new ReadHandler();
@@ -77,7 +104,7 @@ public class ReadHandlerTest extends AbstractTestBase {
             .desiredResourceState(model)
             .build();
 
-        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, createFirstCallBackContext(), proxyClientMap, proxyClient, logger);
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, createFirstCallBackContext(), proxyClientMap, logger);
 
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
@@ -0,0 +1,66 @@
+package com.amazon.synthetics.group;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TagHelperTest {
+
+    @Test
+    public void updateTags_addsNewAndChangedTags_removesMissingTags() {
+        ResourceModel model = modelWithTags(new Tag("key1", "value1"), new Tag("key2", "changed"), new Tag("key3", "value3"));
+        Map<String, String> existingTags = new HashMap<>();
+        existingTags.put("key1", "value1");
+        existingTags.put("key2", "value2");
+        existingTags.put("key4", "value4");
+
+        TagDiff tagDiff = TagHelper.updateTags(model, existingTags);
+
+        Map<String, String> expectedAdded = new HashMap<>();
+        expectedAdded.put("key2", "changed");
+        expectedAdded.put("key3", "value3");
+        assertThat(tagDiff.getTagsToAdd()).isEqualTo(expectedAdded);
+        // A changed tag is overwritten by TagResource and must not be untagged afterwards.
+        assertThat(tagDiff.getTagsToRemove()).isEqualTo(Collections.singletonMap("key4", "value4"));
+    }
+
+    @Test
+    public void updateTags_reservedModelTags_areNotAdded() {
+        ResourceModel model = modelWithTags(new Tag("aws:reserved", "value"), new Tag("key1", "value1"));
+
+        TagDiff tagDiff = TagHelper.updateTags(model, Collections.singletonMap("key1", "value1"));
+
+        assertThat(tagDiff).isSameAs(TagDiff.EMPTY);
+    }
+
+    @Test
+    public void updateTags_noChanges_returnsSharedEmptyDiff() {
+        ResourceModel model = modelWithTags(new Tag("key1", "value1"), new Tag("key2", "value2"));
+        Map<String, String> existingTags = new HashMap<>();
+        existingTags.put("key1", "value1");
+        existingTags.put("key2", "value2");
+
+        assertThat(TagHelper.updateTags(model, existingTags)).isSameAs(TagDiff.EMPTY);
+        assertThat(TagHelper.updateTags(ResourceModel.builder().build(), existingTags)).isSameAs(TagDiff.EMPTY);
+    }
+
+    @Test
+    public void updateTags_result_isReadOnly() {
+        TagDiff tagDiff = TagHelper.updateTags(modelWithTags(new Tag("key1", "value1")), Collections.emptyMap());
+
+        assertThat(tagDiff.isEmpty()).isFalse();
+        assertThatThrownBy(() -> tagDiff.getTagsToAdd().clear()).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private static ResourceModel modelWithTags(Tag... tags) {
+        return ResourceModel.builder()
+            .name("test-group")
+            .tags(Arrays.asList(tags))
+            .build();
+    }
+}
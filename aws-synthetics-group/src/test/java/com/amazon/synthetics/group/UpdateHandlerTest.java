@@ -1,6 +1,9 @@
 package com.amazon.synthetics.group;
 
 import com.amazon.synthetics.group.Utils.Constants;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import software.amazon.awssdk.services.synthetics.model.AssociateResourceRequest;
 import software.amazon.awssdk.services.synthetics.model.AssociateResourceResponse;
@@ -14,7 +17,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,7 +42,7 @@ public class UpdateHandlerTest extends AbstractTestBase {
             .desiredResourceState(model)
             .build();
         ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request,
-            createFirstCallBackContext(), proxyClientMap, proxyClient, logger);
+            createFirstCallBackContext(), proxyClientMap, logger);
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
         assertThat(response.getCallbackContext().getAddResourceList().isEmpty());
@@ -48,7 +53,7 @@ public class UpdateHandlerTest extends AbstractTestBase {
         assertThat(response.getErrorCode()).isNull();
 
         response = handler.handleRequest(proxy, request,
-            response.getCallbackContext(), proxyClientMap, proxyClient, logger);
+            response.getCallbackContext(), proxyClientMap, logger);
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
     }
 
@@ -72,7 +77,7 @@ public class UpdateHandlerTest extends AbstractTestBase {
             .desiredResourceState(model)
             .build();
         ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request,
-            createFirstCallBackContext(), proxyClientMap, proxyClient, logger);
+            createFirstCallBackContext(), proxyClientMap, logger);
 
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
@@ -84,11 +89,7 @@ public class UpdateHandlerTest extends AbstractTestBase {
         assertThat(response.getErrorCode()).isNull();
 
         response = handler.handleRequest(proxy, request,
-            response.getCallbackContext(), proxyClientMap, proxyClient, logger);
-        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
-
-        response = handler.handleRequest(proxy, request,
-            response.getCallbackContext(), proxyClientMap, proxyClient, logger);
+            response.getCallbackContext(), proxyClientMap, logger);
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
     }
 
@@ -113,7 +114,7 @@ public class UpdateHandlerTest extends AbstractTestBase {
             .build();
 
         ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request,
-            createFirstCallBackContext(), proxyClientMap, proxyClient, logger);
+            createFirstCallBackContext(), proxyClientMap, logger);
 
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
@@ -125,11 +126,7 @@ public class UpdateHandlerTest extends AbstractTestBase {
         assertThat(response.getErrorCode()).isNull();
 
         response = handler.handleRequest(proxy, request,
-            response.getCallbackContext(), proxyClientMap, proxyClient, logger);
-        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
-
-        response = handler.handleRequest(proxy, request,
-            response.getCallbackContext(), proxyClientMap, proxyClient, logger);
+            response.getCallbackContext(), proxyClientMap, logger);
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
     }
 
@@ -157,7 +154,7 @@ public class UpdateHandlerTest extends AbstractTestBase {
             .build();
 
         ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request,
-            createFirstCallBackContext(), proxyClientMap, proxyClient, logger);
+            createFirstCallBackContext(), proxyClientMap, logger);
 
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
@@ -170,18 +167,69 @@ public class UpdateHandlerTest extends AbstractTestBase {
         assertThat(response.getErrorCode()).isNull();
 
         response = handler.handleRequest(proxy, request,
-            response.getCallbackContext(), proxyClientMap, proxyClient, logger);
-        assertThat(response.getCallbackContext().getAddResourceList().isEmpty());
-        assertThat(response.getCallbackContext().getRemoveResourceList().size()).isEqualTo(1);
-        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+            response.getCallbackContext(), proxyClientMap, logger);
+        // Both batches fit in one invocation, so nothing is left to resume.
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getCallbackContext()).isNull();
+        verify(syntheticsClient).associateResource(argThat((AssociateResourceRequest associateRequest) ->
+            "arn:aws:synthetics:us-west-2:761914923529:canary:test-canary".equals(associateRequest.resourceArn())));
+        verify(syntheticsClient).disassociateResource(argThat((DisassociateResourceRequest disassociateRequest) ->
+            "arn:aws:synthetics:us-west-2:761914923529:canary:canary-19".equals(disassociateRequest.resourceArn())));
+    }
 
-        response = handler.handleRequest(proxy, request,
-            response.getCallbackContext(), proxyClientMap, proxyClient, logger);
-        assertThat(response.getCallbackContext().getRemoveResourceList().isEmpty());
-        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+    @Test
+    public void diffGroupArnList_preservesOrder_andDoesNotModifyInputs() {
+        List<String> canaryArns = generateListOfCanaryArns();
+        List<String> currentArns = new ArrayList<>(canaryArns.subList(5, 20));
+        List<String> requestArns = new ArrayList<>(canaryArns.subList(0, 15));
+        Collections.reverse(requestArns);
+        final ResourceModel model = ResourceModel.builder()
+            .name("test-group")
+            .resourceArns(requestArns)
+            .build();
+        final List<String> requestArnsBefore = new ArrayList<>(requestArns);
+        final List<String> currentArnsBefore = new ArrayList<>(currentArns);
+        final CallbackContext context = createFirstCallBackContext();
 
-        response = handler.handleRequest(proxy, request,
-            response.getCallbackContext(), proxyClientMap, proxyClient, logger);
-        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        UpdateHandler.diffGroupArnList(currentArns, context, model, logger);
+
+        assertThat(context.getAddResourceList()).containsExactly(
+            canaryArns.get(4), canaryArns.get(3), canaryArns.get(2), canaryArns.get(1), canaryArns.get(0));
+        assertThat(context.getRemoveResourceList()).containsExactlyElementsOf(canaryArns.subList(15, 20));
+        assertThat(model.getResourceArns()).isEqualTo(requestArnsBefore);
+        assertThat(currentArns).isEqualTo(currentArnsBefore);
+    }
+
+    @Test
+    public void diffGroupArnList_comparesNormalizedArns() {
+        final List<String> currentArns = Arrays.asList(
+            "arn:aws:synthetics:us-west-2:761914923529:canary:canary-1",
+            "arn:aws-cn:synthetics:cn-north-1:761914923529:canary:canary-2",
+            "arn:aws:synthetics:us-east-1:761914923529:canary:canary-3");
+        final ResourceModel model = ResourceModel.builder()
+            .name("test-group")
+            .resourceArns(Arrays.asList(
+                "arn:AWS:synthetics:US-WEST-2:761914923529:canary:canary-1",
+                "arn:aws:synthetics:cn-north-1:761914923529:canary:canary-2",
+                "arn:aws:synthetics:us-east-2:761914923529:canary:canary-3"))
+            .build();
+        final CallbackContext context = createFirstCallBackContext();
+
+        UpdateHandler.diffGroupArnList(currentArns, context, model, logger);
+
+        // The partition follows the region, while the same canary name in another region is a different resource.
+        assertThat(context.getAddResourceList()).containsExactly("arn:aws:synthetics:us-east-2:761914923529:canary:canary-3");
+        assertThat(context.getRemoveResourceList()).containsExactly("arn:aws:synthetics:us-east-1:761914923529:canary:canary-3");
+    }
+
+    @Test
+    public void diffGroupArnList_noResourceArnsInModel_removesAll() {
+        final List<String> currentArns = generateListOfCanaryArns();
+        final CallbackContext context = createFirstCallBackContext();
+
+        UpdateHandler.diffGroupArnList(currentArns, context, ResourceModel.builder().name("test-group").build(), logger);
+
+        assertThat(context.getAddResourceList()).isEmpty();
+        assertThat(context.getRemoveResourceList()).isEqualTo(currentArns);
     }
 }
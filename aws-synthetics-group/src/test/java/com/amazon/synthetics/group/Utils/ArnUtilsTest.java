@@ -0,0 +1,19 @@
+package com.amazon.synthetics.group.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArnUtilsTest {
+    @Test
+    public void normalizeArn_takesPartitionFromRegion() {
+        assertThat(ArnUtils.normalizeArn(" arn:aws:synthetics:CN-NORTH-1:761914923529:canary:Canary-1 "))
+            .isEqualTo("arn:aws-cn:synthetics:cn-north-1:761914923529:canary:canary-1");
+        assertThat(ArnUtils.normalizeArn("arn:AWS-US-GOV:synthetics:us-gov-west-1:761914923529:canary:canary-1"))
+            .isEqualTo("arn:aws-us-gov:synthetics:us-gov-west-1:761914923529:canary:canary-1");
+        // Regions the SDK does not know keep the partition they were given.
+        assertThat(ArnUtils.normalizeArn("arn:aws-xx:synthetics:xx-test-1:761914923529:canary:canary-1"))
+            .isEqualTo("arn:aws-xx:synthetics:xx-test-1:761914923529:canary:canary-1");
+        assertThat(ArnUtils.normalizeArn("Not-An-Arn")).isEqualTo("not-an-arn");
+    }
+}
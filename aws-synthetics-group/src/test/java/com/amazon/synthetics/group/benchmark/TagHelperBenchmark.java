@@ -0,0 +1,59 @@
+package com.amazon.synthetics.group.benchmark;
+
+import com.amazon.synthetics.group.Tag;
+import com.amazon.synthetics.group.TagHelper;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the TagHelper conversions between the model's tag list and the service's tag map,
+ * from no tags up to the 200 tags a resource can carry. Run with {@code -prof gc} to see
+ * allocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagHelperBenchmark {
+    @Param({"0", "50", "200"})
+    public int tagCount;
+
+    private List<Tag> tagList;
+    private Map<String, String> tagMap;
+
+    @Setup
+    public void setup() {
+        tagList = new ArrayList<>(tagCount);
+        tagMap = new HashMap<>();
+        for (int i = 0; i < tagCount; i++) {
+            tagList.add(Tag.builder().key("key" + i).value("value" + i).build());
+            tagMap.put("key" + i, "value" + i);
+        }
+    }
+
+    @Benchmark
+    public Map<String, String> convertToMap() {
+        return TagHelper.convertToMap(tagList);
+    }
+
+    @Benchmark
+    public List<Tag> convertToList() {
+        return TagHelper.convertToList(tagMap);
+    }
+}
@@ -0,0 +1,55 @@
+package com.amazon.synthetics.group.benchmark;
+
+import com.amazon.synthetics.group.ResourceModel;
+import com.amazon.synthetics.group.Translator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.synthetics.model.GroupSummary;
+import software.amazon.awssdk.services.synthetics.model.ListGroupsResponse;
+
+/**
+ * Measures Translator.translateFromListResponse for an empty page up to the largest ListGroups
+ * page. Run with {@code -prof gc} to see allocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranslatorBenchmark {
+    @Param({"0", "20"})
+    public int groupCount;
+
+    private ListGroupsResponse response;
+
+    @Setup
+    public void setup() {
+        List<GroupSummary> groups = new ArrayList<>(groupCount);
+        for (int i = 0; i < groupCount; i++) {
+            groups.add(GroupSummary.builder()
+                .id("group-id-" + i)
+                .name("group-" + i)
+                .arn("arn:aws:synthetics:us-west-2:123456789012:group:group-id-" + i)
+                .build());
+        }
+        response = ListGroupsResponse.builder().groups(groups).nextToken("next").build();
+    }
+
+    @Benchmark
+    public List<ResourceModel> translateFromListResponse() {
+        return Translator.translateFromListResponse(response);
+    }
+}